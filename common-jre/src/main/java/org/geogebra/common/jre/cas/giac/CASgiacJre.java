@@ -4,6 +4,7 @@ import org.geogebra.common.cas.CASparser;
 import org.geogebra.common.cas.error.TimeoutException;
 import org.geogebra.common.cas.giac.CASgiacB;
 import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
 import org.geogebra.common.jre.cas.giac.binding.CASGiacBindingJre;
 import org.geogebra.common.util.debug.Log;
 
@@ -24,6 +25,37 @@ public abstract class CASgiacJre extends CASgiacB {
         return new CASGiacBindingJre();
     }
 
+	/**
+	 * Evaluates the expression in a pooled worker when threads are used, so
+	 * that CAS instances of different kernels don't block each other.
+	 */
+	@Override
+	protected String evaluateGiac(final String exp, final long timeoutMillis0)
+			throws Throwable {
+		if (!useThread()) {
+			return super.evaluateGiac(exp, timeoutMillis0);
+		}
+		GiacWorkerPool.Job job = GiacWorkerPool.getInstance()
+				.submit(new GiacWorkerPool.Task() {
+					@Override
+					public String evaluate(Context context) {
+						return evalRaw(exp, timeoutMillis0, context);
+					}
+				});
+		// Giac stops by itself after timeoutMillis0 ("user interruption"),
+		// the thread is only stopped if that didn't work
+		if (!job.await(timeoutMillis)) {
+			Thread thread = job.abandon();
+			if (thread != null) {
+				thread.interrupt();
+				stopThread(thread);
+			}
+			Log.debug("Thread timeout from Giac");
+			throw new TimeoutException("Thread timeout from Giac");
+		}
+		return job.getResult();
+	}
+
     @Override
 	/**
 	 * synchronized needed in case CAS called from a thread eg Input Bar preview
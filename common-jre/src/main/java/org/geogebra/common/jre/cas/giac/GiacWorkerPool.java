@@ -0,0 +1,233 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.geogebra.common.jre.cas.giac.binding.CASGiacBindingJre;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Reusable threads for Giac evaluations, shared by all kernels of the JVM.
+ * Every worker thread owns a Giac context, so independent CAS requests run in
+ * parallel instead of waiting for each other. A worker that is stuck in a
+ * timed out task is replaced by a new one, so stuck tasks never use up the
+ * pool.
+ */
+public class GiacWorkerPool {
+
+	private static GiacWorkerPool instance;
+	private static int defaultSize = Math.max(1,
+			Runtime.getRuntime().availableProcessors());
+
+	private final ThreadPoolExecutor executor;
+	private final CASGiacBinding binding;
+	private final ThreadLocal<Context> contexts = new ThreadLocal<>();
+
+	/**
+	 * Evaluation in a worker's context
+	 */
+	public interface Task {
+		/**
+		 * @param context
+		 *            context of current worker
+		 * @return raw output from Giac
+		 */
+		String evaluate(Context context);
+	}
+
+	/**
+	 * Handle of a submitted task.
+	 */
+	public final class Job implements Callable<String> {
+		private final Task task;
+		private final CountDownLatch started = new CountDownLatch(1);
+		private Future<String> future;
+		private Thread thread;
+		private boolean abandoned;
+		/** whether another worker was added in place of this job's worker */
+		private boolean replaced;
+		private String result;
+
+		Job(Task task) {
+			this.task = task;
+		}
+
+		@Override
+		public String call() {
+			synchronized (this) {
+				if (abandoned) {
+					return "(";
+				}
+				thread = Thread.currentThread();
+			}
+			started.countDown();
+			try {
+				return task.evaluate(getContext());
+			} catch (Throwable t) {
+				Log.debug("problem from JNI Giac: " + t.toString());
+				// force error in GeoGebra
+				return "(";
+			} finally {
+				synchronized (this) {
+					thread = null;
+					if (abandoned) {
+						// don't reuse a context that was stopped in the middle
+						contexts.remove();
+					}
+					if (replaced) {
+						removeWorker();
+					}
+				}
+			}
+		}
+
+		/**
+		 * Waits until the task is finished. The timeout includes the time the
+		 * task waits for a free worker.
+		 *
+		 * @param timeoutMillis
+		 *            timeout in milliseconds
+		 * @return whether the task finished in time
+		 * @throws InterruptedException
+		 *             if current thread was interrupted
+		 */
+		public boolean await(long timeoutMillis) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeoutMillis;
+			if (!started.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				return false;
+			}
+			try {
+				result = future.get(
+						Math.max(0, deadline - System.currentTimeMillis()),
+						TimeUnit.MILLISECONDS);
+				return true;
+			} catch (java.util.concurrent.TimeoutException e) {
+				return false;
+			} catch (ExecutionException e) {
+				Log.debug("problem from JNI Giac: " + e.getCause());
+				result = "(";
+				return true;
+			}
+		}
+
+		/**
+		 * @return result of the task, only valid after successful
+		 *         {@link #await(long)}
+		 */
+		public String getResult() {
+			return result;
+		}
+
+		/**
+		 * Marks the task as timed out: a task that didn't start yet is
+		 * cancelled. If the task is running, another worker is added until it
+		 * returns, and its worker creates a new context for the next task.
+		 *
+		 * @return thread running the task, null if it's not running
+		 */
+		public synchronized Thread abandon() {
+			abandoned = true;
+			future.cancel(true);
+			if (thread != null && !replaced) {
+				replaced = true;
+				addWorker();
+			}
+			return thread;
+		}
+	}
+
+	/**
+	 * @param size
+	 *            number of worker threads
+	 * @param binding
+	 *            Giac binding
+	 */
+	GiacWorkerPool(int size, CASGiacBinding binding) {
+		this.binding = binding;
+		final AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(size, size, 0L,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r,
+								"Giac worker " + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * Adds a worker in place of one that is stuck in a timed out task.
+	 */
+	synchronized void addWorker() {
+		executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+		executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+	}
+
+	/**
+	 * Removes the additional worker once the stuck task returned.
+	 */
+	synchronized void removeWorker() {
+		executor.setCorePoolSize(executor.getCorePoolSize() - 1);
+		executor.setMaximumPoolSize(executor.getMaximumPoolSize() - 1);
+	}
+
+	/**
+	 * @return number of workers, including those stuck in timed out tasks
+	 */
+	public int getWorkerCount() {
+		return executor.getCorePoolSize();
+	}
+
+	/**
+	 * @return pool shared by all CAS instances
+	 */
+	public static synchronized GiacWorkerPool getInstance() {
+		if (instance == null) {
+			instance = new GiacWorkerPool(defaultSize,
+					new CASGiacBindingJre());
+		}
+		return instance;
+	}
+
+	/**
+	 * Has no effect once the pool was created.
+	 *
+	 * @param size
+	 *            number of worker threads
+	 */
+	public static synchronized void setDefaultSize(int size) {
+		defaultSize = Math.max(1, size);
+	}
+
+	/**
+	 * @param task
+	 *            task
+	 * @return handle of the task
+	 */
+	public Job submit(Task task) {
+		Job job = new Job(task);
+		job.future = executor.submit(job);
+		return job;
+	}
+
+	private Context getContext() {
+		Context context = contexts.get();
+		if (context == null) {
+			context = binding.createContext();
+			contexts.set(context);
+		}
+		return context;
+	}
+}
@@ -18,6 +18,7 @@ the Free Software Foundation.
 
 package org.geogebra.common.jre.io;
 
+import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.io.MyXMLHandler;
 import org.geogebra.common.io.MyXMLio;
 import org.geogebra.common.io.QDParser;
@@ -33,11 +34,13 @@ import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.util.Charsets;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.TaskRunner;
 import org.geogebra.common.util.debug.Log;
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -47,7 +50,9 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.TreeSet;
 import java.util.zip.ZipEntry;
@@ -63,6 +68,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 	// Use the default (non-validating) parser
 	// private static XMLReaderFactory factory;
 
+	/** size of the XML chunks written to zip files */
+	private static final int XML_CHUNK_SIZE = 1 << 16;
+
 	private QDParser xmlParser;
 
 	/**
@@ -223,22 +231,23 @@ public abstract class MyXMLioJre extends MyXMLio {
 			OutputStreamWriter osw = new OutputStreamWriter(zip,
 					Charsets.UTF_8);
 
-			// write construction images
-			writeConstructionImages(kernel.getConstruction(), zip);
-
-			// write construction thumbnails
+			// write construction images and thumbnail
+			ArrayList<ImageFile> images = new ArrayList<>();
+			addConstructionImages(kernel.getConstruction(), images, "");
 			if (includeThumbail) {
-				writeThumbnail(zip, XML_FILE_THUMBNAIL);
+				addThumbnail(images, XML_FILE_THUMBNAIL);
 			}
 
-			// save macros
-			if (kernel.hasMacros()) {
-				// get all registered macros from kernel
-				ArrayList<Macro> macros = kernel.getAllMacros();
+			// get all registered macros from kernel
+			ArrayList<Macro> macros = kernel.hasMacros()
+					? kernel.getAllMacros() : null;
 
-				// write all images used by macros
-				writeMacroImages(macros, zip);
+			// write all images used by macros
+			addMacroImages(macros, images, "");
+			writeImages(zip, images);
 
+			// save macros
+			if (macros != null) {
 				// write all macros to one special XML file in zip
 				zip.putNextEntry(new ZipEntry(XML_FILE_MACRO));
 				osw.write(getFullMacroXML(macros));
@@ -273,7 +282,7 @@ public abstract class MyXMLioJre extends MyXMLio {
 
 			// write XML file for construction
 			zip.putNextEntry(new ZipEntry(XML_FILE));
-			osw.write(getFullXML());
+			writeFullXML(osw);
 			osw.flush();
 			zip.closeEntry();
 
@@ -286,6 +295,96 @@ public abstract class MyXMLioJre extends MyXMLio {
 		}
 	}
 
+	/**
+	 * Writes the same XML as {@link #getFullXML()}. The XML of the
+	 * construction elements is written in chunks, so the whole XML is never
+	 * kept in memory.
+	 * 
+	 * @param writer
+	 *            writer
+	 * @throws IOException
+	 *             on write error
+	 */
+	protected void writeFullXML(Writer writer) throws IOException {
+		Reader reader = new FullXMLReader();
+		char[] buffer = new char[XML_CHUNK_SIZE];
+		int read;
+		while ((read = reader.read(buffer)) >= 0) {
+			writer.write(buffer, 0, read);
+		}
+	}
+
+	/**
+	 * Reads the same XML as {@link #getFullXML()}, the XML of construction
+	 * elements is created in chunks while reading.
+	 */
+	private class FullXMLReader extends Reader {
+		private final StringBuilder sb = new StringBuilder(XML_CHUNK_SIZE);
+		private int position;
+		/** next construction step, -1 before the header */
+		private int step = -1;
+		private boolean done;
+
+		protected FullXMLReader() {
+			// only used by MyXMLioJre
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			while (position >= sb.length()) {
+				if (done) {
+					return -1;
+				}
+				sb.setLength(0);
+				position = 0;
+				nextChunk();
+			}
+			int count = Math.min(len, sb.length() - position);
+			sb.getChars(position, position + count, cbuf, off);
+			position += count;
+			return count;
+		}
+
+		private void nextChunk() throws IOException {
+			if (step < 0) {
+				addXMLHeader(sb);
+				addGeoGebraHeader(sb, false, app.getUniqueId(),
+						app.getVersion());
+
+				// save gui settings
+				sb.append(app.getCompleteUserInterfaceXML(false));
+			}
+
+			// save construction
+			try {
+				if (step < 0) {
+					step = 0;
+					cons.getConstructionXMLStart(sb);
+				}
+				while (step < cons.steps() && sb.length() < XML_CHUNK_SIZE) {
+					cons.getConstructionElement(step++).getXML(false, sb);
+				}
+				if (step < cons.steps()) {
+					return;
+				}
+				sb.append("</construction>\n");
+			} catch (RuntimeException e) {
+				Log.error("construction XML could not be created: "
+						+ e.getMessage());
+				throw new IOException(e);
+			}
+
+			sb.append("</geogebra>");
+			done = true;
+		}
+
+		@Override
+		public void close() {
+			done = true;
+			position = sb.length();
+		}
+	}
+
 	/**
 	 * Creates a zipped file containing the given macros in xml format plus all
 	 * their external images (e.g. icons).
@@ -329,7 +428,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 		OutputStreamWriter osw = new OutputStreamWriter(zip, Charsets.UTF_8);
 
 		// write images
-		writeMacroImages(macros, zip);
+		ArrayList<ImageFile> images = new ArrayList<>();
+		addMacroImages(macros, images, "");
+		writeImages(zip, images);
 
 		// write macro XML file
 		zip.putNextEntry(new ZipEntry(XML_FILE_MACRO));
@@ -342,16 +443,10 @@ public abstract class MyXMLioJre extends MyXMLio {
 	}
 
 	/**
-	 * Writes all images used in construction to zip.
+	 * Adds all images used in construction to the list of image files.
 	 */
-	private void writeConstructionImages(Construction cons1,
-			ZipOutputStream zip) {
-		writeConstructionImages(cons1, zip, "");
-	}
-
-	private void writeConstructionImages(Construction cons1,
-			ZipOutputStream zip,
-			String filePath) {
+	private void addConstructionImages(Construction cons1,
+			ArrayList<ImageFile> images, String filePath) {
 		// save all GeoImage images
 		// TreeSet images =
 		// cons.getGeoSetLabelOrder(GeoElement.GEO_CLASS_IMAGE);
@@ -369,21 +464,12 @@ public abstract class MyXMLioJre extends MyXMLio {
 
 				if (image.isSVG()) {
 					// SVG
-					try {
-						zip.putNextEntry(new ZipEntry(filePath + fileName));
-						OutputStreamWriter osw = new OutputStreamWriter(zip,
-								Charsets.UTF_8);
-						osw.write(image.getSVG());
-						osw.flush();
-						zip.closeEntry();
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-
+					images.add(new ImageFile(filePath + fileName,
+							image.getSVG()));
 				} else {
 					// BITMAP
 					if (image.hasNonNullImplementation()) {
-						writeImageToZip(zip, filePath + fileName, image);
+						images.add(new ImageFile(filePath + fileName, image));
 					}
 
 				}
@@ -399,9 +485,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 					if (((AlgoBarChart) algo).getBarImage(k) != null) {
 						geo.setImageFileName(
 								((AlgoBarChart) algo).getBarImage(k));
-						writeImageToZip(zip,
+						images.add(new ImageFile(
 								((AlgoBarChart) algo).getBarImage(k),
-								(MyImageJre) geo.getFillImage());
+								(MyImageJre) geo.getFillImage()));
 					}
 				}
 			}
@@ -409,9 +495,9 @@ public abstract class MyXMLioJre extends MyXMLio {
 	}
 
 	/**
-	 * Writes thumbnail to zip
+	 * Adds thumbnail to the list of image files.
 	 */
-	private void writeThumbnail(ZipOutputStream zip, String fileName) {
+	private void addThumbnail(ArrayList<ImageFile> images, String fileName) {
 
 		// max 128 pixels either way
 		/*
@@ -424,7 +510,7 @@ public abstract class MyXMLioJre extends MyXMLio {
 			MyImageJre img = getExportImage(THUMBNAIL_PIXELS_X,
 					THUMBNAIL_PIXELS_Y);
 			if (img != null) {
-				writeImageToZip(zip, fileName, img);
+				images.add(new ImageFile(fileName, img));
 			}
 		} catch (Exception e) {
 			// catch error if size is zero
@@ -442,15 +528,10 @@ public abstract class MyXMLioJre extends MyXMLio {
 	abstract protected MyImageJre getExportImage(double width, double height);
 
 	/**
-	 * Writes all images used in the given macros to zip.
+	 * Adds all images used in the given macros to the list of image files.
 	 */
-	private void writeMacroImages(ArrayList<Macro> macros,
-			ZipOutputStream zip) {
-		writeMacroImages(macros, zip, "");
-	}
-
-	private void writeMacroImages(ArrayList<Macro> macros, ZipOutputStream zip,
-			String filePath) {
+	private void addMacroImages(ArrayList<Macro> macros,
+			ArrayList<ImageFile> images, String filePath) {
 		if (macros == null) {
 			return;
 		}
@@ -458,14 +539,14 @@ public abstract class MyXMLioJre extends MyXMLio {
 		for (int i = 0; i < macros.size(); i++) {
 			// save all images in macro construction
 			Macro macro = macros.get(i);
-			writeConstructionImages(macro.getMacroConstruction(), zip,
+			addConstructionImages(macro.getMacroConstruction(), images,
 					filePath);
 
 			// save macro icon
 			String fileName = macro.getIconFileName();
 			MyImageJre img = getExternalImage(fileName);
 			if (img != null && img.hasNonNullImplementation()) {
-				writeImageToZip(zip, filePath + fileName, img);
+				images.add(new ImageFile(filePath + fileName, img));
 			}
 		}
 	}
@@ -477,18 +558,80 @@ public abstract class MyXMLioJre extends MyXMLio {
 	 */
 	abstract protected MyImageJre getExternalImage(String fileName);
 
-	final private void writeImageToZip(ZipOutputStream zip, String fileName,
-			MyImageJre img) {
-		// create new entry in zip archive
-		try {
-			zip.putNextEntry(new ZipEntry(fileName));
-		} catch (Exception e) {
-			// if the same image file is used more than once in the construction
-			// we get a duplicate entry exception: ignore this
-			return;
+	/**
+	 * Encodes the images and writes them to zip in the order of the list.
+	 * Images are encoded in batches (in parallel when there are several
+	 * threads), so only the images of one batch are kept in memory.
+	 */
+	private void writeImages(ZipOutputStream zip, ArrayList<ImageFile> images)
+			throws IOException {
+		// if the same image file is used more than once in the construction
+		// only the first one is written
+		HashSet<String> fileNames = new HashSet<>();
+		for (int i = 0; i < images.size(); i++) {
+			if (!fileNames.add(images.get(i).fileName)) {
+				images.remove(i--);
+			}
+		}
+		UtilFactory factory = UtilFactory.getPrototype();
+		TaskRunner runner = factory == null ? null : factory.getTaskRunner();
+		int batchSize = runner == null ? 1
+				: Math.max(1, runner.getParallelism());
+
+		for (int start = 0; start < images.size(); start += batchSize) {
+			ImageFile[] batch = images
+					.subList(start, Math.min(start + batchSize, images.size()))
+					.toArray(new ImageFile[0]);
+			if (batch.length > 1) {
+				runner.runAll(batch);
+			} else {
+				batch[0].run();
+			}
+			for (ImageFile image : batch) {
+				zip.putNextEntry(new ZipEntry(image.fileName));
+				image.bytes.writeTo(zip);
+				zip.closeEntry();
+				image.bytes = null;
+			}
 		}
+	}
 
-		writeImageToStream(zip, fileName, img);
+	/**
+	 * Image file of the zip, encoded by run()
+	 */
+	private class ImageFile implements Runnable {
+		final String fileName;
+		final MyImageJre img;
+		final String svg;
+		ByteArrayOutputStream bytes;
+
+		ImageFile(String fileName, MyImageJre img) {
+			this.fileName = fileName;
+			this.img = img;
+			this.svg = null;
+		}
+
+		ImageFile(String fileName, String svg) {
+			this.fileName = fileName;
+			this.img = null;
+			this.svg = svg;
+		}
+
+		@Override
+		public void run() {
+			bytes = new ByteArrayOutputStream();
+			if (img != null) {
+				writeImageToStream(bytes, fileName, img);
+				return;
+			}
+			try {
+				Writer writer = new OutputStreamWriter(bytes, Charsets.UTF_8);
+				writer.write(svg);
+				writer.flush();
+			} catch (IOException e) {
+				Log.debug(e.getMessage());
+			}
+		}
 	}
 
 	/**
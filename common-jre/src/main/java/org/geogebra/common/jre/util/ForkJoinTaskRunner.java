@@ -0,0 +1,76 @@
+package org.geogebra.common.jre.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.geogebra.common.util.TaskRunner;
+
+/**
+ * Runs tasks in a fork-join pool shared by all kernels of the JVM. Tasks may
+ * run further tasks, the calling worker then helps to run them.
+ */
+public class ForkJoinTaskRunner implements TaskRunner {
+
+	private static ForkJoinTaskRunner instance;
+
+	private final ForkJoinPool pool;
+
+	private ForkJoinTaskRunner(int parallelism) {
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * @return shared runner with one thread per processor
+	 */
+	public static synchronized ForkJoinTaskRunner getInstance() {
+		if (instance == null) {
+			instance = new ForkJoinTaskRunner(
+					Math.max(1, Runtime.getRuntime().availableProcessors()));
+		}
+		return instance;
+	}
+
+	private static class Action extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final transient Runnable task;
+
+		Action(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		protected void compute() {
+			task.run();
+		}
+	}
+
+	@Override
+	public void runAll(Runnable[] tasks) {
+		if (tasks.length == 1) {
+			tasks[0].run();
+			return;
+		}
+		final Action[] actions = new Action[tasks.length];
+		for (int i = 0; i < tasks.length; i++) {
+			actions[i] = new Action(tasks[i]);
+		}
+		if (ForkJoinTask.inForkJoinPool()) {
+			ForkJoinTask.invokeAll(actions);
+		} else {
+			pool.invoke(new RecursiveAction() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(actions);
+				}
+			});
+		}
+	}
+
+	@Override
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+}
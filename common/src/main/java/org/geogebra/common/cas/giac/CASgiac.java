@@ -371,34 +371,42 @@ public abstract class CASgiac implements CASGenericInterface {
 			return functionName;
 		}
 
-		private static void setDependency(CustomFunctions cf1,
-				CustomFunctions cf2) {
+		private static void setDependency(
+				List<Entry<CustomFunctions, CustomFunctions>> dependencies,
+				CustomFunctions cf1, CustomFunctions cf2) {
 			Entry<CustomFunctions, CustomFunctions> pair = new SimpleEntry<>(
 					cf1, cf2);
-			CustomFunctionsDependencies.add(pair);
+			dependencies.add(pair);
 		}
 
 		/**
 		 * Create dependencies between two CAS custom functions. This is
 		 * required to ensure that all dependencies will be loaded when a custom
 		 * function is loaded.
+		 * 
+		 * The list is only built once and never modified afterwards, so it may
+		 * be read by several Giac workers at the same time.
 		 */
-		public static void setDependencies() {
-			CustomFunctionsDependencies = new ArrayList<>();
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
-			setDependency(IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
-			setDependency(IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
-			setDependency(GEOM_ELIM, PRIM_POLY);
-			setDependency(LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
-			setDependency(LOCUS_EQU, GEOM_ELIM);
-			setDependency(LOCUS_EQU, JACOBI_PREPARE);
-			setDependency(ENVELOPE_EQU, LOCUS_EQU);
-			setDependency(ENVELOPE_EQU, GEOM_JACOBI_DET);
-			setDependency(GEOM_JACOBI_DET, JACOBI_PREPARE);
-			setDependency(GEOM_JACOBI_DET, JACOBI_DET);
-			setDependency(AFACTOR_ALG_NUM, IRRED);
-			setDependency(ABSFACT, AFACTOR_ALG_NUM);
-			setDependency(COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
+		public static synchronized void setDependencies() {
+			if (CustomFunctionsDependencies != null) {
+				return;
+			}
+			List<Entry<CustomFunctions, CustomFunctions>> deps = new ArrayList<>();
+			setDependency(deps, IMPLICIT_CURVE_COEFFS, COEFF_MATRIX);
+			setDependency(deps, IMPLICIT_CURVE_COEFFS, COEFF_MATRICES);
+			setDependency(deps, IMPLICIT_CURVE_COEFFS, FACTOR_SQR_FREE);
+			setDependency(deps, GEOM_ELIM, PRIM_POLY);
+			setDependency(deps, LOCUS_EQU, IMPLICIT_CURVE_COEFFS);
+			setDependency(deps, LOCUS_EQU, GEOM_ELIM);
+			setDependency(deps, LOCUS_EQU, JACOBI_PREPARE);
+			setDependency(deps, ENVELOPE_EQU, LOCUS_EQU);
+			setDependency(deps, ENVELOPE_EQU, GEOM_JACOBI_DET);
+			setDependency(deps, GEOM_JACOBI_DET, JACOBI_PREPARE);
+			setDependency(deps, GEOM_JACOBI_DET, JACOBI_DET);
+			setDependency(deps, AFACTOR_ALG_NUM, IRRED);
+			setDependency(deps, ABSFACT, AFACTOR_ALG_NUM);
+			setDependency(deps, COS_2PI_OVER_N_MINPOLY, FACTOR_SQR_FREE);
+			CustomFunctionsDependencies = deps;
 		}
 
 		/**
@@ -434,7 +442,6 @@ public abstract class CASgiac implements CASGenericInterface {
 	 */
 	public long timeoutMillis = 5000;
 	final private static String EVALFA = "evalfa(";
-	private StringBuilder expSB = new StringBuilder(EVALFA);
 
 	// eg {(ggbtmpvarx>(-sqrt(110)/5)) && ((sqrt(110)/5)>ggbtmpvarx)}
 	// eg {(ggbtmpvarx>=(-sqrt(110)/5)) && ((sqrt(110)/5)>=ggbtmpvarx)}
@@ -1377,7 +1384,10 @@ public abstract class CASgiac implements CASGenericInterface {
 	 * @return "evalfa(" + s + ")"
 	 */
 	protected String wrapInevalfa(String s) {
-		expSB.setLength(EVALFA.length());
+		// no shared buffer: may be called from several Giac workers
+		StringBuilder expSB = new StringBuilder(
+				EVALFA.length() + s.length() + 1);
+		expSB.append(EVALFA);
 		expSB.append(s);
 		expSB.append(")");
 
@@ -58,10 +58,25 @@ public abstract class CASgiacB extends CASgiac {
      * @return String from Giac
      */
     final String evalRaw(String exp0, long timeoutMilliseconds) {
+        return evalRaw(exp0, timeoutMilliseconds, context);
+    }
+
+	/**
+	 * @param exp0
+	 *            String to send to Giac
+	 * @param timeoutMilliseconds
+	 *            timeout in milliseconds
+	 * @param context
+	 *            Giac context, must not be used by other threads during the
+	 *            call
+	 * @return String from Giac
+	 */
+	protected final String evalRaw(String exp0, long timeoutMilliseconds,
+			Context context) {
         CASGiacBinding binding = createBinding();
         // #5439
         // reset Giac before each call
-        init(exp0, timeoutMilliseconds);
+        init(exp0, timeoutMilliseconds, context);
 
         String exp = wrapInevalfa(exp0);
 
@@ -91,7 +106,7 @@ public abstract class CASgiacB extends CASgiac {
 
 	}
 
-	private void init(String exp, long timeoutMilliseconds) {
+	private void init(String exp, long timeoutMilliseconds, Context context) {
         CASGiacBinding binding = createBinding();
         Gen g = binding.createGen(initString, context);
         g.eval(1, context);
@@ -154,6 +169,30 @@ public abstract class CASgiacB extends CASgiac {
     @Override
     protected String evaluate(final String exp, final long timeoutMillis0)
             throws Throwable {
+        String ret = postProcess(evaluateGiac(exp, timeoutMillis0));
+
+        // Log.debug("giac output: " + ret);
+        if (ret.contains("user interruption")) {
+            Log.debug("Standard timeout from Giac");
+            throw new TimeoutException("Standard timeout from Giac");
+        }
+
+        return ret;
+    }
+
+	/**
+	 * Evaluates expression in this CAS's own context.
+	 * 
+	 * @param exp
+	 *            expression
+	 * @param timeoutMillis0
+	 *            timeout in milliseconds
+	 * @return raw output from Giac
+	 * @throws Throwable
+	 *             exception
+	 */
+	protected String evaluateGiac(final String exp, final long timeoutMillis0)
+			throws Throwable {
         Runnable evalFunction = new Runnable() {
             @Override
             public void run() {
@@ -165,16 +204,8 @@ public abstract class CASgiacB extends CASgiac {
 
         callEvaluateFunction(evalFunction);
 
-        String ret = postProcess(threadResult);
-
-        // Log.debug("giac output: " + ret);
-        if (ret.contains("user interruption")) {
-            Log.debug("Standard timeout from Giac");
-            throw new TimeoutException("Standard timeout from Giac");
-        }
-
-        return ret;
-    }
+		return threadResult;
+	}
 
 	/**
 	 * @param evaluateFunction
@@ -193,6 +193,18 @@ public abstract class Drawable extends DrawableND {
 		return null;
 	}
 
+	/**
+	 * Returns screen area outside of which hit() can only return true within
+	 * hit threshold. Label rectangle is added by the caller, so drawables
+	 * overriding hitLabel() should not override this.
+	 * 
+	 * @return hit area or null if unknown (drawable is hit tested for every
+	 *         pointer event)
+	 */
+	public GRectangle getHitBounds() {
+		return null;
+	}
+
 	/**
 	 * Returns the minimum width of drawable
 	 */
@@ -13,6 +13,7 @@ the Free Software Foundation.
 package org.geogebra.common.euclidian;
 
 //import java.awt.Graphics2D;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -22,12 +23,24 @@ import org.geogebra.common.kernel.geos.GeoList;
 
 /**
  * List to store Drawable objects for fast drawing.
+ * 
+ * The links are also nodes of a treap ordered by drawing priority, so
+ * inserting and removing takes logarithmic time while iteration follows the
+ * next pointers.
  */
 public class DrawableList {
 	/** first drawable in the list */
 	public Link head;
 	private Link tail;
 	private int size = 0;
+	/** root of the treap */
+	private Link root;
+	/** link for each drawable (first one if added more than once) */
+	private final HashMap<Drawable, Link> links = new HashMap<>();
+	/** number of links not in the map */
+	private int duplicates = 0;
+	/** state of the priority generator */
+	private int seed = 0x2545F491;
 
 	/**
 	 * Number of drawables in list
@@ -48,61 +61,110 @@ public class DrawableList {
 		if (d == null) {
 			return;
 		}
-
-		if (head == null) {
-			head = new Link(d, null);
-			tail = head;
+		Link link = new Link(d, null);
+		link.priority = nextPriority();
+		if (links.containsKey(d)) {
+			duplicates++;
 		} else {
+			links.put(d, link);
+		}
 
-			// add in the list according to when we want it drawn
-			GeoElement priority = d.getGeoElement();
-			Link cur = head;
-			Link last = head;
-			// cur.next test only relevant in concurrent scenarios
-			while ((cur.d.getGeoElement().drawBefore(priority, false))
-					&& !cur.equals(tail) && cur.next != null) {
-				last = cur;
-				cur = cur.next;
-			}
+		if (root == null) {
+			root = link;
+			head = link;
+			tail = link;
+			size++;
+			return;
+		}
 
-			if (cur.equals(head)) {
-				if (cur.d.getGeoElement().drawBefore(priority, false)) {
-					// add at end (list size=1)
-					Link temp = new Link(d, null);
-					tail.next = temp;
-					tail = temp;
-				} else { // add at start of list
-					Link temp2 = head;
-					head = new Link(d, null);
-					head.next = temp2;
+		// add in the list according to when we want it drawn:
+		// before the first drawable that should not be drawn before d
+		GeoElement priority = d.getGeoElement();
+		Link cur = root;
+		while (true) {
+			if (cur.d.getGeoElement().drawBefore(priority, false)) {
+				if (cur.right == null) {
+					cur.right = link;
+					insertAfter(cur, link);
+					break;
 				}
-			} else if (cur.equals(tail)) {
-				if ((cur.d.getGeoElement().drawBefore(priority, false))) {
-					// add at end
-					Link temp = new Link(d, null);
-					tail.next = temp;
-					tail = temp;
-				} else {
-					// add one from end
-					Link temp = new Link(d, null);
-					temp.next = last.next;
-					last.next = temp;
+				cur = cur.right;
+			} else {
+				if (cur.left == null) {
+					cur.left = link;
+					insertBefore(cur, link);
+					break;
 				}
-			} else { // add in middle
-						// Application.debug("middle");
-						// Link temp = new Link(d, null);
-						// temp.next=cur.next;
-						// cur.next = temp;
-
-				Link temp = new Link(d, null);
-				temp.next = last.next;
-				last.next = temp;
+				cur = cur.left;
 			}
-
+		}
+		link.parent = cur;
+		while (link.parent != null && link.parent.priority > link.priority) {
+			rotateUp(link);
 		}
 		size++;
 	}
 
+	private int nextPriority() {
+		// xorshift
+		seed ^= seed << 13;
+		seed ^= seed >>> 17;
+		seed ^= seed << 5;
+		return seed;
+	}
+
+	private void insertAfter(Link cur, Link link) {
+		link.prev = cur;
+		link.next = cur.next;
+		if (cur.next == null) {
+			tail = link;
+		} else {
+			cur.next.prev = link;
+		}
+		cur.next = link;
+	}
+
+	private void insertBefore(Link cur, Link link) {
+		link.next = cur;
+		link.prev = cur.prev;
+		if (cur.prev == null) {
+			head = link;
+		} else {
+			cur.prev.next = link;
+		}
+		cur.prev = link;
+	}
+
+	/**
+	 * Rotates link above its parent, keeps the order of links.
+	 */
+	private void rotateUp(Link link) {
+		Link parent = link.parent;
+		Link grandParent = parent.parent;
+		if (parent.left == link) {
+			parent.left = link.right;
+			if (link.right != null) {
+				link.right.parent = parent;
+			}
+			link.right = parent;
+		} else {
+			parent.right = link.left;
+			if (link.left != null) {
+				link.left.parent = parent;
+			}
+			link.left = parent;
+		}
+		parent.parent = link;
+		link.parent = grandParent;
+		if (grandParent == null) {
+			root = link;
+		} else if (grandParent.left == parent) {
+			grandParent.left = link;
+		} else {
+			grandParent.right = link;
+		}
+	}
+
 	/**
 	 * Inserts d at the end of the list only if the list doesn't already contain
 	 * d.
@@ -124,14 +186,7 @@ public class DrawableList {
 	 * @return true iff d is in this list.
 	 */
 	public final boolean contains(Drawable d) {
-		Link cur = head;
-		while (cur != null) {
-			if (cur.d == d) {
-				return true;
-			}
-			cur = cur.next;
-		}
-		return false;
+		return links.containsKey(d);
 	}
 
 	/**
@@ -141,29 +196,69 @@ public class DrawableList {
 	 *            Drawable to be removed
 	 */
 	public final void remove(Drawable d) {
-		Link prev = null;
-		Link cur = head;
-		while (cur != null) {
-			// found algo to remove
-			if (cur.d == d) {
-				if (prev == null) { // remove from head
-					head = cur.next;
-					if (head == null) {
-						tail = null;
-					}
-				} else { // standard case
-					prev.next = cur.next;
-					if (prev.next == null) {
-						tail = prev;
-					}
+		Link link = links.get(d);
+		if (link == null) {
+			return;
+		}
+		if (duplicates > 0) {
+			// some drawables were added more than once: remove the first
+			// occurrence, like a plain linked list
+			Link first = head;
+			while (first.d != d) {
+				first = first.next;
+			}
+			Link other = first.next;
+			while (other != null && other.d != d) {
+				other = other.next;
+			}
+			if (other != null) {
+				duplicates--;
+				if (first == link) {
+					links.put(d, other);
 				}
-				size--;
+				unlink(first);
 				return;
 			}
-			// not yet found
-			prev = cur;
-			cur = cur.next;
 		}
+		links.remove(d);
+		unlink(link);
+	}
+
+	private void unlink(Link link) {
+		// move down to a leaf, then cut it off
+		while (link.left != null || link.right != null) {
+			Link child;
+			if (link.left == null) {
+				child = link.right;
+			} else if (link.right == null) {
+				child = link.left;
+			} else {
+				child = link.left.priority < link.right.priority ? link.left
+						: link.right;
+			}
+			rotateUp(child);
+		}
+		if (link.parent == null) {
+			root = null;
+		} else if (link.parent.left == link) {
+			link.parent.left = null;
+		} else {
+			link.parent.right = null;
+		}
+		link.parent = null;
+
+		if (link.prev == null) {
+			head = link.next;
+		} else {
+			link.prev.next = link.next;
+		}
+		if (link.next == null) {
+			tail = link.prev;
+		} else {
+			link.next.prev = link.prev;
+		}
+		link.prev = null;
+		size--;
 	}
 
 	/**
@@ -230,6 +325,9 @@ public class DrawableList {
 	public void clear() {
 		head = null;
 		tail = null;
+		root = null;
+		links.clear();
+		duplicates = 0;
 		size = 0;
 	}
 
@@ -241,6 +339,12 @@ public class DrawableList {
 		public Drawable d;
 		/** next element */
 		public Link next;
+		private Link prev;
+		private Link parent;
+		private Link left;
+		private Link right;
+		/** treap priority, smaller values are closer to the root */
+		private int priority;
 
 		/**
 		 * @param a
@@ -0,0 +1,307 @@
+package org.geogebra.common.euclidian;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.geogebra.common.awt.GRectangle;
+
+/**
+ * Uniform grid over the view that maps screen cells to drawables whose hit
+ * area overlaps them, so that hit tests only need to check drawables near the
+ * pointer.
+ *
+ * Drawables without known hit area ({@link Drawable#getHitBounds()} is null),
+ * drawables covering large parts of the view and drawables waiting for an
+ * update are candidates for every query.
+ *
+ * Label rectangles are only set while painting, so every query compares them
+ * with the ones used for indexing and reindexes drawables whose label moved.
+ */
+public class DrawableSpatialIndex {
+
+	/** below this number of drawables hit tests check all drawables */
+	public static final int MIN_SIZE = 100;
+	private static final int CELL_SIZE = 64;
+	/** drawables overlapping more cells are tested for every query */
+	private static final int MAX_CELLS = 64;
+	/** pixels added to hit bounds to compensate rounding */
+	private static final int MARGIN = 2;
+
+	private final EuclidianView view;
+	private final HashMap<Drawable, Entry> entries = new HashMap<>();
+	private final ArrayList<Entry> dirty = new ArrayList<>();
+	private ArrayList<ArrayList<Entry>> cells = new ArrayList<>();
+	private int cols;
+	private int rows;
+	private int width = -1;
+	private int height = -1;
+	private boolean allDirty = true;
+	private int stamp = 0;
+
+	private static class Entry {
+		final Drawable drawable;
+		int minCol;
+		int maxCol;
+		int minRow;
+		int maxRow;
+		/** whether the drawable is in the cells */
+		boolean indexed = false;
+		boolean dirty = false;
+		/** query in which this was a candidate */
+		int stamp = -1;
+		/** label rectangle used for indexing */
+		double labelX;
+		double labelY;
+		double labelWidth;
+		double labelHeight;
+
+		Entry(Drawable drawable) {
+			this.drawable = drawable;
+		}
+	}
+
+	/**
+	 * @param view
+	 *            view
+	 */
+	public DrawableSpatialIndex(EuclidianView view) {
+		this.view = view;
+	}
+
+	/**
+	 * @param d
+	 *            new drawable
+	 */
+	public void add(Drawable d) {
+		if (d == null || entries.containsKey(d)) {
+			return;
+		}
+		Entry entry = new Entry(d);
+		entries.put(d, entry);
+		markDirty(entry);
+	}
+
+	/**
+	 * @param d
+	 *            removed drawable
+	 */
+	public void remove(DrawableND d) {
+		Entry entry = entries.remove(d);
+		if (entry != null) {
+			// stays in dirty list until next query
+			removeFromCells(entry);
+		}
+	}
+
+	/**
+	 * Marks hit area of a drawable as changed.
+	 *
+	 * @param d
+	 *            updated drawable
+	 */
+	public void invalidate(DrawableND d) {
+		Entry entry = entries.get(d);
+		if (entry != null) {
+			markDirty(entry);
+		}
+	}
+
+	/**
+	 * Marks hit areas of all drawables as changed.
+	 */
+	public void invalidateAll() {
+		allDirty = true;
+	}
+
+	/**
+	 * Removes all drawables.
+	 */
+	public void clear() {
+		entries.clear();
+		dirty.clear();
+		cells.clear();
+		allDirty = true;
+	}
+
+	/**
+	 * @return number of drawables in the index
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	private void markDirty(Entry entry) {
+		if (!entry.dirty) {
+			entry.dirty = true;
+			dirty.add(entry);
+		}
+	}
+
+	/**
+	 * Starts a query, afterwards {@link #isCandidate(Drawable)} tells which
+	 * drawables may be hit.
+	 *
+	 * @param x
+	 *            pointer x-coord
+	 * @param y
+	 *            pointer y-coord
+	 * @param hitThreshold
+	 *            hit threshold
+	 */
+	public void query(int x, int y, int hitThreshold) {
+		validate();
+		stamp++;
+		int r = Math.max(0, hitThreshold) + MARGIN;
+		int minCol = col(x - r);
+		int maxCol = col(x + r);
+		int minRow = row(y - r);
+		int maxRow = row(y + r);
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int col = minCol; col <= maxCol; col++) {
+				ArrayList<Entry> cell = cells.get(row * cols + col);
+				for (int i = 0; i < cell.size(); i++) {
+					cell.get(i).stamp = stamp;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param d
+	 *            drawable
+	 * @return whether the drawable may be hit by the last query
+	 */
+	public boolean isCandidate(Drawable d) {
+		Entry entry = entries.get(d);
+		return entry == null || !entry.indexed || entry.stamp == stamp;
+	}
+
+	private void validate() {
+		int newWidth = Math.max(1, view.getWidth());
+		int newHeight = Math.max(1, view.getHeight());
+		if (allDirty || newWidth != width || newHeight != height) {
+			width = newWidth;
+			height = newHeight;
+			cols = (width + CELL_SIZE - 1) / CELL_SIZE;
+			rows = (height + CELL_SIZE - 1) / CELL_SIZE;
+			cells = new ArrayList<>(rows * cols);
+			for (int i = 0; i < rows * cols; i++) {
+				cells.add(new ArrayList<Entry>());
+			}
+			dirty.clear();
+			for (Entry entry : entries.values()) {
+				entry.indexed = false;
+				entry.dirty = false;
+				reindex(entry);
+			}
+			allDirty = false;
+			return;
+		}
+		for (Entry entry : entries.values()) {
+			if (!entry.dirty && labelChanged(entry)) {
+				markDirty(entry);
+			}
+		}
+		if (dirty.isEmpty()) {
+			return;
+		}
+		ArrayList<Entry> changed = new ArrayList<>(dirty);
+		dirty.clear();
+		for (Entry entry : changed) {
+			entry.dirty = false;
+			if (entries.get(entry.drawable) != entry) {
+				// removed
+				continue;
+			}
+			removeFromCells(entry);
+			reindex(entry);
+		}
+	}
+
+	private void reindex(Entry entry) {
+		Drawable d = entry.drawable;
+		if (d.needsUpdate()) {
+			// bounds are not up to date yet
+			markDirty(entry);
+			return;
+		}
+		GRectangle label = d.labelRectangle;
+		storeLabel(entry, label);
+		GRectangle bounds = d.getHitBounds();
+		if (bounds == null || Double.isNaN(bounds.getMinX())
+				|| Double.isNaN(bounds.getMinY())) {
+			return;
+		}
+		double minX = bounds.getMinX();
+		double maxX = bounds.getMaxX();
+		double minY = bounds.getMinY();
+		double maxY = bounds.getMaxY();
+		if (label != null && label.getWidth() > 0 && label.getHeight() > 0) {
+			minX = Math.min(minX, label.getMinX());
+			maxX = Math.max(maxX, label.getMaxX());
+			minY = Math.min(minY, label.getMinY());
+			maxY = Math.max(maxY, label.getMaxY());
+		}
+		entry.minCol = col((int) Math.floor(minX) - MARGIN);
+		entry.maxCol = col((int) Math.ceil(maxX) + MARGIN);
+		entry.minRow = row((int) Math.floor(minY) - MARGIN);
+		entry.maxRow = row((int) Math.ceil(maxY) + MARGIN);
+		if ((entry.maxCol - entry.minCol + 1)
+				* (entry.maxRow - entry.minRow + 1) > MAX_CELLS) {
+			return;
+		}
+		for (int row = entry.minRow; row <= entry.maxRow; row++) {
+			for (int col = entry.minCol; col <= entry.maxCol; col++) {
+				cells.get(row * cols + col).add(entry);
+			}
+		}
+		entry.indexed = true;
+	}
+
+	private static void storeLabel(Entry entry, GRectangle label) {
+		if (label == null) {
+			entry.labelX = 0;
+			entry.labelY = 0;
+			entry.labelWidth = 0;
+			entry.labelHeight = 0;
+			return;
+		}
+		entry.labelX = label.getX();
+		entry.labelY = label.getY();
+		entry.labelWidth = label.getWidth();
+		entry.labelHeight = label.getHeight();
+	}
+
+	private static boolean labelChanged(Entry entry) {
+		GRectangle label = entry.drawable.labelRectangle;
+		if (label == null) {
+			return entry.labelWidth != 0 || entry.labelHeight != 0;
+		}
+		return label.getX() != entry.labelX || label.getY() != entry.labelY
+				|| label.getWidth() != entry.labelWidth
+				|| label.getHeight() != entry.labelHeight;
+	}
+
+	private void removeFromCells(Entry entry) {
+		if (!entry.indexed) {
+			return;
+		}
+		for (int row = entry.minRow; row <= entry.maxRow; row++) {
+			for (int col = entry.minCol; col <= entry.maxCol; col++) {
+				cells.get(row * cols + col).remove(entry);
+			}
+		}
+		entry.indexed = false;
+	}
+
+	/**
+	 * Objects outside of the view are stored in the border cells.
+	 */
+	private int col(int x) {
+		return Math.max(0, Math.min(cols - 1, x / CELL_SIZE));
+	}
+
+	private int row(int y) {
+		return Math.max(0, Math.min(rows - 1, y / CELL_SIZE));
+	}
+}
@@ -39,6 +39,7 @@ import org.geogebra.common.euclidian.draw.DrawRay;
 import org.geogebra.common.euclidian.draw.DrawSegment;
 import org.geogebra.common.euclidian.draw.DrawVector;
 import org.geogebra.common.euclidian.event.PointerEventType;
+import org.geogebra.common.euclidian.plot.CurvePlotterBuffers;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.factories.FormatFactory;
 import org.geogebra.common.gui.SetLabels;
@@ -276,6 +277,9 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	private ArrayList<GeoPointND> stickyPointList = new ArrayList<>();
 
 	protected DrawableList allDrawableList = new DrawableList();
+	/** hit areas of drawables in allDrawableList */
+	private final DrawableSpatialIndex hitIndex = new DrawableSpatialIndex(
+			this);
 	/** lists of geos on different layers */
 	public DrawableList[] drawLayers;
 
@@ -458,6 +462,9 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	private double ymaxTemp;
 
 	private Hits tempArrayList = new Hits();
+	/** curve plotter scratch arrays by point dimension */
+	private CurvePlotterBuffers[] curvePlotterBuffers =
+			new CurvePlotterBuffers[4];
 
 	private CoordSystemAnimation zoomer;
 	private CoordSystemAnimation axesRatioZoomer;
@@ -1197,12 +1204,38 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 * @return (p2-p1) vector in screen coordinates
 	 */
 	public double[] getOnScreenDiff(double[] p1, double[] p2) {
-		double[] ret = new double[2];
+		return getOnScreenDiff(p1, p2, new double[2]);
+	}
+
+	/**
+	 * 
+	 * @param p1
+	 *            first point
+	 * @param p2
+	 *            second point
+	 * @param ret
+	 *            output array
+	 * @return ret, filled with (p2-p1) vector in screen coordinates
+	 */
+	public double[] getOnScreenDiff(double[] p1, double[] p2, double[] ret) {
 		ret[0] = (p2[0] - p1[0]) * getXscale();
 		ret[1] = (p2[1] - p1[1]) * getYscale();
 		return ret;
 	}
 
+	/**
+	 * @param dimension
+	 *            length of curve points
+	 * @return scratch arrays for plotting curves in this view
+	 */
+	public CurvePlotterBuffers getCurvePlotterBuffers(int dimension) {
+		if (curvePlotterBuffers[dimension] == null) {
+			curvePlotterBuffers[dimension] = new CurvePlotterBuffers(
+					dimension);
+		}
+		return curvePlotterBuffers[dimension];
+	}
+
 	/**
 	 * Performs a quick test whether the segment p1 to p2 is off view.
 	 * 
@@ -1678,6 +1711,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		allDrawableList.updateAll();
+		hitIndex.invalidateAll();
 		if (repaint) {
 			repaint();
 		}
@@ -1693,6 +1727,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			return;
 		}
 		allDrawableList.updateAllForView();
+		hitIndex.invalidateAll();
 		if (repaint) {
 			repaint();
 		}
@@ -1714,6 +1749,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		this.batchUpdate = false;
 		if (this.needsAllDrawablesUpdate) {
 			allDrawableList.updateAll();
+			hitIndex.invalidateAll();
 			repaint();
 		}
 	}
@@ -1851,6 +1887,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		Object d = drawableMap.get(geo);
 		if (d != null) {
 			((Drawable) d).update();
+			hitIndex.invalidate((Drawable) d);
 			repaint();
 		}
 	}
@@ -1860,6 +1897,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		DrawableND d = drawableMap.get(geo);
 		cacheLayers(-1);
 		if (d != null) {
+			hitIndex.invalidate(d);
 			if (!d.isCompatibleWithGeo()) {
 				remove(geo);
 				add(geo);
@@ -2007,6 +2045,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (drawableMap.containsKey(geo)) {
 			DrawableND drawable = drawableMap.get(geo);
 			drawable.setNeedsUpdate(true);
+			hitIndex.invalidate(drawable);
 			return true;
 		}
 		return false;
@@ -2076,6 +2115,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 			drawLayers[layer].remove(d);
 		}
 		allDrawableList.remove(d);
+		hitIndex.remove(d);
 
 		drawableMap.remove(geo);
 		if (geo.isGeoPoint()) {
@@ -2170,9 +2210,13 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (p == null) {
 			return;
 		}
+		boolean useIndex = queryHitIndex(p.x, p.y, hitThreshold);
 		DrawableIterator it = allDrawableList.getIterator();
 		while (it.hasNext()) {
 			Drawable d = it.next();
+			if (useIndex && !hitIndex.isCandidate(d)) {
+				continue;
+			}
 			if (d.isEuclidianVisible()) {
 				if (d.hit(p.x, p.y, hitThreshold)) {
 					GeoElement geo = d.getGeoElement();
@@ -2253,6 +2297,28 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 
 	}
 
+	/**
+	 * Prepares the spatial index for hit tests at given position, if it's
+	 * worth using.
+	 * 
+	 * @param x
+	 *            pointer x-coord
+	 * @param y
+	 *            pointer y-coord
+	 * @param hitThreshold
+	 *            hit threshold
+	 * @return whether only candidates of the index need to be tested
+	 */
+	private boolean queryHitIndex(int x, int y, int hitThreshold) {
+		// handles of bounding box may be hit outside of drawable's bounds
+		if (allDrawableList.size() < DrawableSpatialIndex.MIN_SIZE
+				|| boundingBox != null) {
+			return false;
+		}
+		hitIndex.query(x, y, hitThreshold);
+		return true;
+	}
+
 	@Override
 	public MyButton getHitButton(GPoint p, PointerEventType type) {
 		DrawableIterator it = allDrawableList.getIterator();
@@ -2284,9 +2350,13 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		if (!getApplication().isLabelDragsEnabled()) {
 			return null;
 		}
+		boolean useIndex = queryHitIndex(p.x, p.y, 0);
 		DrawableIterator it = allDrawableList.getIterator();
 		while (it.hasNext()) {
 			Drawable d = it.next();
+			if (useIndex && !hitIndex.isCandidate(d)) {
+				continue;
+			}
 			if (d.hitLabel(p.x, p.y)) {
 				GeoElement geo = d.getGeoElement();
 				if (geo.isEuclidianVisible()) {
@@ -2422,6 +2492,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 
 		if (d != null) {
 			allDrawableList.add(d);
+			hitIndex.add(d);
 		}
 	}
 
@@ -2537,6 +2608,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 	 */
 	protected void updateDrawableFontSize() {
 		allDrawableList.updateFontSizeAll();
+		hitIndex.invalidateAll();
 		repaint();
 	}
 
@@ -4545,6 +4617,7 @@ public abstract class EuclidianView implements EuclidianViewInterfaceCommon,
 		drawableMap.clear();
 		stickyPointList.clear();
 		allDrawableList.clear();
+		hitIndex.clear();
 		bgImageList.clear();
 		previewFromInputBarGeos = null;
 		this.geosWaiting.clear();
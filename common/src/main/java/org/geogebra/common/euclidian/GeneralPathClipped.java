@@ -31,6 +31,8 @@ public class GeneralPathClipped implements GShape {
 	private static final double MAX_COORD_VALUE = 10000;
 
 	private ArrayList<MyPoint> pathPoints;
+	/** points removed from the path, reused for new points */
+	private ArrayList<MyPoint> freePoints;
 	private GGeneralPath gp;
 	/** view */
 	protected EuclidianViewInterfaceSlim view;
@@ -66,6 +68,7 @@ public class GeneralPathClipped implements GShape {
 		// this.view = (EuclidianView)view;
 		this.view = view;
 		pathPoints = new ArrayList<>();
+		freePoints = new ArrayList<>();
 		gp = AwtFactory.getPrototype().newGeneralPath();
 		// bounds = new Rectangle();
 		reset();
@@ -85,7 +88,7 @@ public class GeneralPathClipped implements GShape {
 	 * Clears all points and resets internal variables
 	 */
 	final public void reset() {
-		pathPoints.clear();
+		clearPoints();
 		gp.reset();
 		// save object
 		oldBounds = bounds;
@@ -120,12 +123,35 @@ public class GeneralPathClipped implements GShape {
 			}
 		}
 
-		// clear pathPoints to free up memory
-		pathPoints.clear();
+		// clear pathPoints, the points are reused for the next path
+		clearPoints();
 
 		return gp;
 	}
 
+	/**
+	 * Moves all points to the free list, so the next path doesn't need to
+	 * allocate its points again.
+	 */
+	private void clearPoints() {
+		for (int i = 0; i < pathPoints.size(); i++) {
+			if (pathPoints.get(i) != null) {
+				freePoints.add(pathPoints.get(i));
+			}
+		}
+		pathPoints.clear();
+	}
+
+	private MyPoint newPoint(double x, double y, SegmentType segmentType) {
+		if (freePoints.isEmpty()) {
+			return new MyPoint(x, y, segmentType);
+		}
+		MyPoint p = freePoints.remove(freePoints.size() - 1);
+		p.setCoords(x, y);
+		p.setSegmentType(segmentType);
+		return p;
+	}
+
 	private void addSimpleSegments() {
 		for (int i = 0; i < pathPoints.size(); i++) {
 			MyPoint curP = pathPoints.get(i);
@@ -408,7 +434,7 @@ public class GeneralPathClipped implements GShape {
 			return;
 		}
 
-		MyPoint p = new MyPoint(x, y, SegmentType.LINE_TO);
+		MyPoint p = newPoint(x, y, SegmentType.LINE_TO);
 		updateBounds(p);
 		pathPoints.ensureCapacity(pos + 1);
 		while (pathPoints.size() <= pos) {
@@ -436,7 +462,7 @@ public class GeneralPathClipped implements GShape {
 			polygon = false;
 		}
 
-		MyPoint p = new MyPoint(x, y, segmentType);
+		MyPoint p = newPoint(x, y, segmentType);
 		updateBounds(p);
 		pathPoints.add(p);
 	}
@@ -28,6 +28,7 @@ import org.geogebra.common.euclidian.plot.CurvePlotter;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.PackedPointList;
 import org.geogebra.common.kernel.Matrix.CoordSys;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -103,7 +104,12 @@ public class DrawLocus extends Drawable {
 			}
 		}
 
-		buildGeneralPath(locus.getPoints());
+		if (locus instanceof GeoLocus
+				&& ((GeoLocus) locus).getPackedPoints().size() > 0) {
+			buildGeneralPath(((GeoLocus) locus).getPackedPoints());
+		} else {
+			buildGeneralPath(locus.getPoints());
+		}
 
 		// line on screen?
 		if (!geo.isInverseFill()
@@ -206,12 +212,30 @@ public class DrawLocus extends Drawable {
 				(int) this.getBounds().getHeight() + 2 * BITMAP_PADDING, g2p);
 	}
 
-	private void buildGeneralPath(ArrayList<? extends MyPoint> pointList) {
+	private void resetPath() {
 		if (gp == null) {
 			gp = new GeneralPathClippedForCurvePlotter(view);
 		} else {
 			gp.reset();
 		}
+	}
+
+	private void buildGeneralPath(PackedPointList points) {
+		resetPath();
+		// see buildGeneralPath(ArrayList) for label position
+		labelPosition = CurvePlotter.draw(gp, points, transformSys);
+		for (int i = 0; i < points.size(); ++i) {
+			double px = points.getX(i);
+			double py = points.getY(i);
+			if (px + py < labelPosition[0] + labelPosition[1]) {
+				labelPosition[0] = px;
+				labelPosition[1] = py;
+			}
+		}
+	}
+
+	private void buildGeneralPath(ArrayList<? extends MyPoint> pointList) {
+		resetPath();
 
 		// Use the last plotted point for positioning the label:
 		labelPosition = CurvePlotter.draw(gp, pointList, transformSys);
@@ -25,6 +25,7 @@ import org.geogebra.common.euclidian.BoundingBox;
 import org.geogebra.common.euclidian.Drawable;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurveSampleCache;
 import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.StringTemplate;
@@ -67,6 +68,8 @@ public class DrawParametricCurve extends Drawable {
 	private ExpressionNode dataExpression;
 	private FunctionVariable invFV;
 	private ExpressionNode invert;
+	private CurveSampleCache sampleCache;
+	private int sampleCacheUpdate;
 
 	/**
 	 * Creates graphical representation of the curve
@@ -126,6 +129,11 @@ public class DrawParametricCurve extends Drawable {
 			curve.evaluateCurve(min, eval);
 			view.toScreenCoords(eval);
 			labelPoint = new GPoint((int) eval[0], (int) eval[1]);
+		} else if (updateSampleCache()) {
+			// reuse samples of the last plot, e.g. after panning
+			labelPoint = CurvePlotter.plotCurveAligned(sampleCache, min, max,
+					view, gp, labelVisible, fillCurve ? CurvePlotter.Gap.CORNER
+							: CurvePlotter.Gap.MOVE_TO);
 		} else {
 			labelPoint = CurvePlotter.plotCurve(curve, min, max, view, gp,
 					labelVisible, fillCurve ? CurvePlotter.Gap.CORNER
@@ -193,6 +201,27 @@ public class DrawParametricCurve extends Drawable {
 		}
 	}
 
+	/**
+	 * Clears the sample cache when the curve changed since the last plot.
+	 * 
+	 * @return whether the curve should be plotted using the sample cache
+	 */
+	private boolean updateSampleCache() {
+		// wrapped curves (e.g. for 3D) depend on more than the curve
+		if (curve != geo || !geo.isLabelSet()) {
+			sampleCache = null;
+			return false;
+		}
+		if (sampleCache == null) {
+			sampleCache = new CurveSampleCache(curve);
+		} else if (sampleCacheUpdate != geo.getUpdateCount()) {
+			sampleCache.clear();
+		}
+		sampleCacheUpdate = geo.getUpdateCount();
+		sampleCache.startPass();
+		return true;
+	}
+
 	private void updatePointwise() {
 		if (points == null) {
 			points = new ArrayList<>();
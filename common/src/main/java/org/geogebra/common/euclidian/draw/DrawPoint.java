@@ -564,6 +564,17 @@ public final class DrawPoint extends SetDrawable {
 				2 * selRadius, 2 * selRadius);
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		if (isPreview || !geo.isEuclidianVisible()) {
+			return null;
+		}
+		// hit threshold is added by the caller
+		int r = Math.max(pointSize, getSelectionThreshold(0));
+		return AwtFactory.getPrototype().newRectangle((int) coords[0] - r,
+				(int) coords[1] - r, 2 * r, 2 * r);
+	}
+
 	@Override
 	public GeoElement getGeoElement() {
 		return geo;
@@ -444,6 +444,17 @@ public class DrawPolygon extends Drawable implements Previewable {
 		return gp.getBounds();
 	}
 
+	/**
+	 * Only polygons without filling, they are hit on their sides.
+	 */
+	@Override
+	public GRectangle getHitBounds() {
+		if (checkIsOnFilling() || geo.isInverseFill()) {
+			return null;
+		}
+		return getBounds();
+	}
+
 	@Override
 	public GArea getShape() {
 		if (geo.isInverseFill() || super.getShape() != null) {
@@ -607,6 +607,11 @@ public class DrawSegment extends SetDrawable implements Previewable {
 		return AwtFactory.getPrototype().newRectangle(line.getBounds());
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		return getBounds();
+	}
+
 	/**
 	 * set visible
 	 */
@@ -441,6 +441,11 @@ public class DrawVector extends Drawable implements Previewable {
 		return ret;
 	}
 
+	@Override
+	public GRectangle getHitBounds() {
+		return getBounds();
+	}
+
 	@Override
 	public BoundingBox getBoundingBox() {
 		// TODO Auto-generated method stub
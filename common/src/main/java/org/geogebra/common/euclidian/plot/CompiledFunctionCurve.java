@@ -0,0 +1,91 @@
+package org.geogebra.common.euclidian.plot;
+
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+
+/**
+ * Function graph that is evaluated by the compiled expression of the function
+ * instead of the expression tree. It should be created for each plotting pass,
+ * as the compiled expression doesn't follow redefinitions of the function.
+ */
+public class CompiledFunctionCurve implements CurveEvaluable {
+
+	private final GeoFunction function;
+	private final FunctionEvaluator evaluator;
+
+	private CompiledFunctionCurve(GeoFunction function,
+			FunctionEvaluator evaluator) {
+		this.function = function;
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * @param curve
+	 *            curve
+	 * @return curve evaluated by the compiled expression if the curve is a
+	 *         function that can be compiled, the curve itself otherwise
+	 */
+	public static CurveEvaluable compile(CurveEvaluable curve) {
+		// subclasses may override value()
+		if (curve == null || curve.getClass() != GeoFunction.class) {
+			return curve;
+		}
+		FunctionEvaluator evaluator = ((GeoFunction) curve).createEvaluator();
+		if (evaluator == null || !evaluator.isReentrant()) {
+			return curve;
+		}
+		return new CompiledFunctionCurve((GeoFunction) curve, evaluator);
+	}
+
+	@Override
+	public void evaluateCurve(double t, double[] out) {
+		function.evaluateCurve(t, out, evaluator);
+	}
+
+	@Override
+	public double getMinParameter() {
+		return function.getMinParameter();
+	}
+
+	@Override
+	public double getMaxParameter() {
+		return function.getMaxParameter();
+	}
+
+	@Override
+	public double[] newDoubleArray() {
+		return function.newDoubleArray();
+	}
+
+	@Override
+	public double distanceMax(double[] p1, double[] p2) {
+		return function.distanceMax(p1, p2);
+	}
+
+	@Override
+	public double[] getDefinedInterval(double a, double b) {
+		return function.getDefinedInterval(a, b);
+	}
+
+	@Override
+	public boolean getTrace() {
+		return function.getTrace();
+	}
+
+	@Override
+	public boolean isClosedPath() {
+		return function.isClosedPath();
+	}
+
+	@Override
+	public boolean isFunctionInX() {
+		return function.isFunctionInX();
+	}
+
+	@Override
+	public GeoElement toGeoElement() {
+		return function;
+	}
+}
@@ -7,6 +7,7 @@ import org.geogebra.common.awt.GPoint;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.PackedPointList;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.Matrix.CoordSys;
 import org.geogebra.common.kernel.kernelND.CurveEvaluable;
@@ -21,6 +22,8 @@ import org.geogebra.common.util.debug.Log;
  */
 public class CurvePlotter {
 	private static final double MAX_JUMP = 5;
+	/** minimal number of pieces in {@link #plotCurveAligned} */
+	private static final int ALIGNED_PIECES = 8;
 	// low quality settings
 	// // maximum and minimum distance between two plot points in pixels
 	// private static final int MAX_PIXEL_DISTANCE = 16; // pixels
@@ -85,9 +88,14 @@ public class CurvePlotter {
 
 		// ensure MIN_PLOT_POINTS
 		double max_param_step = Math.abs(t2 - t1) / view.getMinSamplePoints();
+		CurvePlotterBuffers buffers = view
+				.getCurvePlotterBuffers(curve.newDoubleArray().length);
+		buffers.ensureCapacity(view.getMaxDefinedBisections() + 1);
+		buffers.maxBisections = view.getMaxDefinedBisections();
 		// plot Interval [t1, t2]
-		GPoint labelPoint = plotInterval(curve, t1, t2, 0, max_param_step, view,
-				gp, calcLabelPos, moveToAllowed);
+		GPoint labelPoint = plotInterval(CompiledFunctionCurve.compile(curve),
+				t1, t2, 0, max_param_step, view, gp, calcLabelPos,
+				moveToAllowed, buffers, false);
 		if (moveToAllowed == Gap.CORNER) {
 			gp.corner();
 		}
@@ -98,6 +106,74 @@ public class CurvePlotter {
 		return labelPoint;
 	}
 
+	/**
+	 * Draws a parametric curve (x(t), y(t)) for t in [t1, t2], evaluating it
+	 * only at parameters that don't depend on the position of [t1, t2]: the
+	 * interval is split at multiples of a power of two and each piece is
+	 * bisected. After panning most parameters are the same as before, after
+	 * zooming (up to factor 2) the old parameters are refined. Together with
+	 * {@link CurveSampleCache} most evaluations can be avoided.
+	 * 
+	 * @param t1
+	 *            min value of parameter
+	 * @param t2
+	 *            max value of parameter
+	 * @param curve
+	 *            curve to be drawn
+	 * @param view
+	 *            Euclidian view to be used
+	 * @param gp
+	 *            generalpath that can be drawn afterwards
+	 * @param calcLabelPos
+	 *            whether label position should be calculated and returned
+	 * @param moveToAllowed
+	 *            whether moveTo() may be used for gp
+	 * @return label position as Point
+	 */
+	public static GPoint plotCurveAligned(CurveEvaluable curve, double t1,
+			double t2, EuclidianView view, PathPlotter gp, boolean calcLabelPos,
+			Gap moveToAllowed) {
+		double width = t2 - t1;
+		double piece = Math.pow(2, Math.floor(
+				Math.log(width / ALIGNED_PIECES) / Math.log(2)));
+		if (!(piece > 0) || Double.isInfinite(width)
+				|| Double.isInfinite(t1 / piece)) {
+			return plotCurve(curve, t1, t2, view, gp, calcLabelPos,
+					moveToAllowed);
+		}
+
+		// ensure MIN_PLOT_POINTS
+		double max_param_step = width / view.getMinSamplePoints();
+		CurvePlotterBuffers buffers = view
+				.getCurvePlotterBuffers(curve.newDoubleArray().length);
+		buffers.ensureCapacity(view.getMaxDefinedBisections() + 1);
+		// pieces are already split 3-4 times: same max resolution as plotCurve
+		buffers.maxBisections = Math.max(1, view.getMaxDefinedBisections()
+				- (int) Math.round(Math.log(width / piece) / Math.log(2)));
+		GPoint labelPoint = null;
+		double start = t1;
+		double end = (Math.floor(t1 / piece) + 1) * piece;
+		boolean continued = false;
+		CurveEvaluable evaluated = CompiledFunctionCurve.compile(curve);
+		while (start < t2) {
+			end = Math.min(end, t2);
+			GPoint pieceLabel = plotInterval(evaluated, start, end, 0,
+					max_param_step, view, gp, calcLabelPos && labelPoint == null,
+					moveToAllowed, buffers, continued);
+			if (labelPoint == null) {
+				labelPoint = pieceLabel;
+			}
+			// continue the path if the piece was plotted up to its end
+			continued = buffers.endParam == end;
+			start = end;
+			end += piece;
+		}
+		if (moveToAllowed == Gap.CORNER) {
+			gp.corner();
+		}
+		return labelPoint;
+	}
+
 	// private static int plotIntervals = 0;
 
 	/**
@@ -111,13 +187,19 @@ public class CurvePlotter {
 	 *            whether label position should be calculated and returned
 	 * @param moveToAllowed
 	 *            whether moveTo() may be used for gp
+	 * @param buffers
+	 *            scratch arrays of the view
+	 * @param continued
+	 *            whether the path already ends in c(t1) (plotted by a
+	 *            previous call for an interval ending in t1)
 	 * @return label position as Point
 	 * @author Markus Hohenwarter, based on an algori5thm by John Gillam
 	 */
 	private static GPoint plotInterval(CurveEvaluable curve, double t1,
 			double t2, int intervalDepth, double max_param_step,
 			EuclidianView view, PathPlotter gp, boolean calcLabelPos,
-			Gap moveToAllowed) {
+			Gap moveToAllowed, CurvePlotterBuffers buffers,
+			boolean continued) {
 		// Log.debug(++plotIntervals);
 		// plot interval for t in [t1, t2]
 		// If we run into a problem, i.e. an undefined point f(t), we bisect
@@ -132,14 +214,18 @@ public class CurvePlotter {
 		// evaluations of the curve for the same parameter value t
 		// see an explanation of this algorithm below.
 
-		double[] move = curve.newDoubleArray();
+		// all arrays are reused, points are copied into them
+		double[] move = buffers.move;
 		for (int i = 0; i < move.length; i++) {
 			move[i] = 0;
 		}
 		boolean onScreen = false;
-		boolean nextLineToNeedsMoveToFirst = false;
-		double[] eval = curve.newDoubleArray();
-		double[] eval0, eval1;
+		boolean nextLineToNeedsMoveToFirst = continued
+				&& buffers.moveToPending;
+		buffers.endParam = Double.NaN;
+		double[] eval = buffers.eval;
+		double[] eval0 = buffers.eval0;
+		double[] eval1 = buffers.eval1;
 
 		// evaluate for t1
 		curve.evaluateCurve(t1, eval);
@@ -147,9 +233,9 @@ public class CurvePlotter {
 			// Application.debug("Curve undefined at t = " + t1);
 			return plotProblemInterval(curve, t1, t2, intervalDepth,
 					max_param_step, view, gp, calcLabelPos, moveToAllowed,
-					labelPoint);
+					labelPoint, buffers);
 		}
-		eval0 = Cloner.clone(eval);
+		copy(eval, eval0);
 
 		// evaluate for t2
 		curve.evaluateCurve(t2, eval);
@@ -157,24 +243,26 @@ public class CurvePlotter {
 			// Application.debug("Curve undefined at t = " + t2);
 			return plotProblemInterval(curve, t1, t2, intervalDepth,
 					max_param_step, view, gp, calcLabelPos, moveToAllowed,
-					labelPoint);
+					labelPoint, buffers);
 		}
 		onScreen = view.isOnView(eval);
-		eval1 = Cloner.clone(eval);
+		copy(eval, eval1);
 
 		// first point
-		gp.firstPoint(eval0, moveToAllowed);
+		if (nextLineToNeedsMoveToFirst) {
+			copy(eval0, move);
+		} else if (!continued) {
+			gp.firstPoint(eval0, moveToAllowed);
+		}
 
 		// TODO
 		// INIT plotting algorithm
-		int length = view.getMaxDefinedBisections() + 1;
-		int[] dyadicStack = new int[length];
-		int[] depthStack = new int[length];
-		double[][] posStack = new double[length][];
-		// double xStack[] = new double[LENGTH];
-		// double yStack[] = new double[LENGTH];
-		boolean[] onScreenStack = new boolean[length];
-		double[] divisors = new double[length];
+		int length = buffers.maxBisections + 1;
+		int[] dyadicStack = buffers.dyadicStack;
+		int[] depthStack = buffers.depthStack;
+		double[][] posStack = buffers.posStack;
+		boolean[] onScreenStack = buffers.onScreenStack;
+		double[] divisors = buffers.divisors;
 		divisors[0] = t2 - t1;
 		for (int i = 1; i < length; i++) {
 			divisors[i] = divisors[i - 1] / 2;
@@ -184,15 +272,16 @@ public class CurvePlotter {
 		depthStack[0] = 0;
 
 		onScreenStack[0] = onScreen;
-		posStack[0] = Cloner.clone(eval1);
+		copy(eval1, posStack[0]);
 
 		// slope between (t1, t2)
-		double[] diff = view.getOnScreenDiff(eval0, eval1);
+		double[] diff = view.getOnScreenDiff(eval0, eval1, buffers.diff);
 		int countDiffZeros = 0;
 
 		// init previous slope using (t1, t1 + min_step)
 		curve.evaluateCurve(t1 + divisors[length - 1], eval);
-		double[] prevDiff = view.getOnScreenDiff(eval0, eval);
+		double[] prevDiff = view.getOnScreenDiff(eval0, eval,
+				buffers.prevDiff);
 
 		int top = 1;
 		int depth = 0;
@@ -216,7 +305,7 @@ public class CurvePlotter {
 					? view.getMaxBendOfScreen() : view.getMaxBend());
 
 			// bisect interval as long as max bisection depth not reached & ...
-			while (depth < view.getMaxDefinedBisections()
+			while (depth < buffers.maxBisections
 					// ... distance not ok or angle not ok or step too big
 					&& (!distanceOK || !angleOK
 							|| divisors[depth] > max_param_step)
@@ -227,7 +316,7 @@ public class CurvePlotter {
 				dyadicStack[top] = i;
 				depthStack[top] = depth;
 				onScreenStack[top] = onScreen;
-				posStack[top] = Cloner.clone(eval1);
+				copy(eval1, posStack[top]);
 				i = 2 * i - 1;
 				top++;
 				depth++;
@@ -241,20 +330,21 @@ public class CurvePlotter {
 				if (isUndefined(eval)) {
 					// check if c(t-eps) and c(t+eps) are both defined
 					boolean singularity = isContinuousAround(curve, t,
-							divisors[length - 1], view, eval);
+							divisors[length - 1], view, eval, buffers.middle);
 
 					// split interval: f(t+eps) or f(t-eps) not defined
 					if (!singularity) {
 						// Application.debug("Curve undefined at t = " + t);
 						return plotProblemInterval(curve, left, t2,
 								intervalDepth, max_param_step, view, gp,
-								calcLabelPos, moveToAllowed, labelPoint);
+								calcLabelPos, moveToAllowed, labelPoint,
+								buffers);
 					}
 					Log.debug("SINGULARITY AT" + t);
 				}
 
-				eval1 = Cloner.clone(eval);
-				diff = view.getOnScreenDiff(eval0, eval1);
+				copy(eval, eval1);
+				view.getOnScreenDiff(eval0, eval1, diff);
 
 				if (DoubleUtil.isZero(diff[0]) && DoubleUtil.isZero(diff[1])) {
 					countDiffZeros++;
@@ -282,7 +372,7 @@ public class CurvePlotter {
 				} else if (!angleOK || !distanceOK) {
 					// check for DISCONTINUITY
 					lineTo = isContinuous(curve, left, t,
-							view.getMaxProblemBisections());
+							view.getMaxProblemBisections(), buffers);
 				}
 			} else if (moveToAllowed == Gap.CORNER) {
 				gp.corner(eval1);
@@ -301,12 +391,12 @@ public class CurvePlotter {
 			} else {
 				// moveTo: remember moveTo position to avoid multiple moveTo
 				// operations
-				move = Cloner.clone(eval1);
+				copy(eval1, move);
 				nextLineToNeedsMoveToFirst = true;
 			}
 
 			// remember last point in general path
-			eval0 = Cloner.clone(eval1);
+			copy(eval1, eval0);
 			left = t;
 
 			// remember first point on screen for label position
@@ -336,20 +426,26 @@ public class CurvePlotter {
 			 * corresponding x and y values when we pushed.
 			 */
 			--top;
-			eval1 = posStack[top];
+			copy(posStack[top], eval1);
 			onScreen = onScreenStack[top];
 			depth = depthStack[top] + 1; // pop stack and go to right
 			i = dyadicStack[top] * 2;
-			prevDiff = Cloner.clone(diff);
-			diff = view.getOnScreenDiff(eval0, eval1);
+			copy(diff, prevDiff);
+			view.getOnScreenDiff(eval0, eval1, diff);
 			t = t1 + i * divisors[depth];
 		} while (top != 0); // end of do-while loop for bisection stack
 
+		buffers.endParam = t2;
+		buffers.moveToPending = nextLineToNeedsMoveToFirst;
 		gp.endPlot();
 
 		return labelPoint;
 	}
 
+	private static void copy(double[] from, double[] to) {
+		System.arraycopy(from, 0, to, 0, to.length);
+	}
+
 	/**
 	 * Returns true when x is either NaN or infinite.
 	 */
@@ -375,7 +471,8 @@ public class CurvePlotter {
 	private static GPoint plotProblemInterval(CurveEvaluable curve, double t1,
 			double t2, int intervalDepth, double max_param_step,
 			EuclidianView view, PathPlotter gp, boolean calcLabelPos,
-			Gap moveToAllowed, GPoint labelPoint) {
+			Gap moveToAllowed, GPoint labelPoint,
+			CurvePlotterBuffers buffers) {
 		boolean calcLabel = calcLabelPos;
 		// stop recursion for too many intervals
 		if (intervalDepth > view.getMaxProblemBisections() || t1 == t2) {
@@ -397,12 +494,14 @@ public class CurvePlotter {
 			// bisect interval
 			calcLabel = calcLabel && labelPoint == null;
 			labelPoint1 = plotInterval(curve, t1, splitParam, intervalDepth + 1,
-					max_param_step, view, gp, calcLabel, moveToAllowed);
+					max_param_step, view, gp, calcLabel, moveToAllowed,
+					buffers, false);
 
 			// plot interval [(t1+t2)/2, t2]
 			calcLabel = calcLabel && labelPoint1 == null;
 			labelPoint2 = plotInterval(curve, splitParam, t2, intervalDepth + 1,
-					max_param_step, view, gp, calcLabel, moveToAllowed);
+					max_param_step, view, gp, calcLabel, moveToAllowed,
+					buffers, false);
 		} else {
 			// look at the end points of the intervals [t1, (t1+t2)/2] and
 			// [(t1+t2)/2, t2]
@@ -413,19 +512,19 @@ public class CurvePlotter {
 			// defined
 
 			// plot interval [t1, (t1+t2)/2]
-			double[] borders = new double[2];
-			getDefinedInterval(curve, t1, splitParam, borders);
+			double[] borders = buffers.borders;
+			getDefinedInterval(curve, t1, splitParam, borders, buffers.eval);
 			calcLabel = calcLabel && labelPoint == null;
 			labelPoint1 = plotInterval(curve, borders[0], borders[1],
 					intervalDepth + 1, max_param_step, view, gp, calcLabel,
-					moveToAllowed);
+					moveToAllowed, buffers, false);
 
 			// plot interval [(t1+t2)/2, t2]
-			getDefinedInterval(curve, splitParam, t2, borders);
+			getDefinedInterval(curve, splitParam, t2, borders, buffers.eval);
 			calcLabel = calcLabel && labelPoint1 == null;
 			labelPoint2 = plotInterval(curve, borders[0], borders[1],
 					intervalDepth + 1, max_param_step, view, gp, calcLabel,
-					moveToAllowed);
+					moveToAllowed, buffers, false);
 		}
 
 		if (labelPoint != null) {
@@ -441,9 +540,7 @@ public class CurvePlotter {
 	 * Returns whether curve is defined for c(t-eps) and c(t + eps).
 	 */
 	private static boolean isContinuousAround(CurveEvaluable curve, double t,
-			double eps, EuclidianView view, double[] evalT) {
-		// check if c(t) is undefined
-		double[] eval = curve.newDoubleArray();
+			double eps, EuclidianView view, double[] evalT, double[] eval) {
 
 		// c(t + eps)
 		curve.evaluateCurve(t + eps, eval);
@@ -538,6 +635,12 @@ public class CurvePlotter {
 	 */
 	public static boolean isContinuous(CurveEvaluable c, double from, double to,
 			int mnaxIterations) {
+		return isContinuous(c, from, to, mnaxIterations,
+				new CurvePlotterBuffers(c.newDoubleArray().length));
+	}
+
+	private static boolean isContinuous(CurveEvaluable c, double from,
+			double to, int mnaxIterations, CurvePlotterBuffers buffers) {
 		double t1 = from;
 		double t2 = to;
 		if (DoubleUtil.isEqual(t1, t2, Kernel.MAX_DOUBLE_PRECISION)) {
@@ -545,7 +648,7 @@ public class CurvePlotter {
 		}
 
 		// left = c(t1)
-		double[] left = c.newDoubleArray();
+		double[] left = buffers.left;
 		c.evaluateCurve(t1, left);
 		if (isUndefined(left)) {
 			// NaN or infinite: not continuous
@@ -553,7 +656,7 @@ public class CurvePlotter {
 		}
 
 		// right = c(t2)
-		double[] right = c.newDoubleArray();
+		double[] right = buffers.right;
 		c.evaluateCurve(t2, right);
 		if (isUndefined(right)) {
 			// NaN or infinite: not continuous
@@ -568,7 +671,7 @@ public class CurvePlotter {
 		double eps = initialDistance * 0.9;
 		double dist = Double.POSITIVE_INFINITY;
 		int iterations = 0;
-		double[] middle = c.newDoubleArray();
+		double[] middle = buffers.middle;
 
 		while (iterations++ < mnaxIterations && dist > eps) {
 			double m = (t1 + t2) / 2;
@@ -607,9 +710,7 @@ public class CurvePlotter {
 	 * @return whether two defined borders could be found.
 	 */
 	private static boolean getDefinedInterval(CurveEvaluable curve, double a,
-			double b, double[] borders) {
-
-		double[] eval = curve.newDoubleArray();
+			double b, double[] borders, double[] eval) {
 
 		// check first and last point in interval
 		curve.evaluateCurve(a, eval);
@@ -652,18 +753,42 @@ public class CurvePlotter {
 	 */
 	static public double[] draw(PathPlotter gp,
 			ArrayList<? extends MyPoint> pointList, CoordSys transformSys) {
+		return draw(gp, pointList, null, transformSys);
+	}
+
+	/**
+	 * draw list of packed points, without creating a point object per point
+	 * 
+	 * @param gp
+	 *            path plotter that actually draws the points list
+	 * @param points
+	 *            packed points
+	 * @param transformSys
+	 *            coordinte system to be applied on 2D points
+	 * @return last point drawn
+	 */
+	static public double[] draw(PathPlotter gp, PackedPointList points,
+			CoordSys transformSys) {
+		return draw(gp, null, points, transformSys);
+	}
+
+	private static double[] draw(PathPlotter gp,
+			ArrayList<? extends MyPoint> pointList, PackedPointList packed,
+			CoordSys transformSys) {
 		double[] coords = gp.newDoubleArray();
-		int size = pointList.size();
+		int size = packed == null ? pointList.size() : packed.size();
 		if (!gp.supports(transformSys) || size == 0) {
 			return coords;
 		}
+		MyPoint current = packed == null ? null : new MyPoint();
 		// this is for making sure that there is no lineto from nothing
 		// and there is no lineto if there is an infinite point between the
 		// points
 		boolean linetofirst = true;
 		double[] lastMove = null;
 		for (int i = 0; i < size; i++) {
-			MyPoint p = pointList.get(i);
+			MyPoint p = packed == null ? pointList.get(i)
+					: packed.get(i, current);
 			// don't add infinite points
 			// otherwise hit-testing doesn't work
 			if (p.isFinite()) {
@@ -0,0 +1,93 @@
+package org.geogebra.common.euclidian.plot;
+
+import org.geogebra.common.euclidian.EuclidianView;
+
+/**
+ * Scratch arrays of {@link CurvePlotter}, kept by the view (see
+ * {@link EuclidianView#getCurvePlotterBuffers(int)}) so that replotting all
+ * curves of a view does not allocate new arrays for each plotted interval.
+ *
+ * The plotter only uses one set of buffers at a time: when an interval is
+ * split, the plotting of the old interval is finished before the new ones are
+ * plotted.
+ */
+public class CurvePlotterBuffers {
+
+	private final int dimension;
+
+	/** curve point at current parameter */
+	final double[] eval;
+	/** last point added to the path */
+	final double[] eval0;
+	/** end point of current segment */
+	final double[] eval1;
+	/** pending moveTo position */
+	final double[] move;
+	/** screen vector of current segment */
+	final double[] diff;
+	/** screen vector of previous segment */
+	final double[] prevDiff;
+	/** points for continuity checks */
+	final double[] left;
+	final double[] right;
+	final double[] middle;
+	/** borders of a defined interval */
+	final double[] borders = new double[2];
+	/** end of the last interval plotted up to its end, NaN otherwise */
+	double endParam = Double.NaN;
+	/** whether the moveTo to the end of that interval is still pending */
+	boolean moveToPending;
+	/** max bisection depth of an interval */
+	int maxBisections;
+
+	/** bisection stacks */
+	int[] dyadicStack = new int[0];
+	int[] depthStack = new int[0];
+	double[][] posStack = new double[0][];
+	boolean[] onScreenStack = new boolean[0];
+	double[] divisors = new double[0];
+
+	/**
+	 * @param dimension
+	 *            length of curve points (2 or 3)
+	 */
+	public CurvePlotterBuffers(int dimension) {
+		this.dimension = dimension;
+		eval = new double[dimension];
+		eval0 = new double[dimension];
+		eval1 = new double[dimension];
+		move = new double[dimension];
+		diff = new double[dimension];
+		prevDiff = new double[dimension];
+		left = new double[dimension];
+		right = new double[dimension];
+		middle = new double[dimension];
+	}
+
+	/**
+	 * Makes sure the stacks can hold the given number of entries.
+	 *
+	 * @param length
+	 *            max number of bisections + 1
+	 */
+	void ensureCapacity(int length) {
+		if (divisors.length >= length) {
+			return;
+		}
+		dyadicStack = new int[length];
+		depthStack = new int[length];
+		onScreenStack = new boolean[length];
+		divisors = new double[length];
+		posStack = new double[length][];
+		for (int i = 0; i < length; i++) {
+			posStack[i] = new double[dimension];
+		}
+	}
+
+	/**
+	 * @return length of curve points
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+}
@@ -0,0 +1,184 @@
+package org.geogebra.common.euclidian.plot;
+
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+
+/**
+ * Curve that remembers the points evaluated by another curve, so that
+ * replotting after panning or zooming (see
+ * {@link CurvePlotter#plotCurveAligned}) only evaluates new parameters.
+ *
+ * The samples are kept in an open addressing hash table of primitive arrays,
+ * so looking up a sample doesn't allocate.
+ */
+public class CurveSampleCache implements CurveEvaluable {
+
+	private static final int INITIAL_CAPACITY = 1024;
+	/** when there are more samples, the cache is cleared */
+	private static final int MAX_SIZE = 1 << 14;
+
+	private final CurveEvaluable curve;
+	/** curve used for evaluations in the current pass */
+	private CurveEvaluable evaluated;
+	private final int dimension;
+	private double[] params;
+	private double[] points;
+	private boolean[] used;
+	private int size;
+	private int evaluations;
+
+	/**
+	 * @param curve
+	 *            evaluated curve
+	 */
+	public CurveSampleCache(CurveEvaluable curve) {
+		this.curve = curve;
+		this.evaluated = curve;
+		this.dimension = curve.newDoubleArray().length;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		params = new double[capacity];
+		points = new double[capacity * dimension];
+		used = new boolean[capacity];
+		size = 0;
+	}
+
+	/**
+	 * Removes all samples, needed when the curve changed.
+	 */
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		if (params.length > INITIAL_CAPACITY) {
+			allocate(INITIAL_CAPACITY);
+		} else {
+			for (int i = 0; i < used.length; i++) {
+				used[i] = false;
+			}
+			size = 0;
+		}
+	}
+
+	/**
+	 * Starts a new plotting pass: missing samples are computed by the
+	 * compiled function if possible.
+	 */
+	public void startPass() {
+		evaluated = CompiledFunctionCurve.compile(curve);
+	}
+
+	/**
+	 * @return number of cached samples
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return number of evaluations of the cached curve
+	 */
+	public int getEvaluations() {
+		return evaluations;
+	}
+
+	private int slot(double t) {
+		long bits = Double.doubleToLongBits(t);
+		int hash = (int) (bits ^ (bits >>> 32)) * 0x9E3779B9;
+		int mask = params.length - 1;
+		int i = (hash ^ (hash >>> 16)) & mask;
+		while (used[i] && params[i] != t) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	@Override
+	public void evaluateCurve(double t, double[] out) {
+		if (Double.isNaN(t)) {
+			evaluated.evaluateCurve(t, out);
+			return;
+		}
+		int i = slot(t);
+		if (used[i]) {
+			System.arraycopy(points, i * dimension, out, 0, dimension);
+			return;
+		}
+		evaluated.evaluateCurve(t, out);
+		evaluations++;
+		if (size >= MAX_SIZE) {
+			clear();
+		} else if (2 * (size + 1) > params.length) {
+			rehash();
+		}
+		i = slot(t);
+		params[i] = t;
+		used[i] = true;
+		System.arraycopy(out, 0, points, i * dimension, dimension);
+		size++;
+	}
+
+	private void rehash() {
+		double[] oldParams = params;
+		double[] oldPoints = points;
+		boolean[] oldUsed = used;
+		allocate(2 * oldParams.length);
+		for (int j = 0; j < oldParams.length; j++) {
+			if (oldUsed[j]) {
+				int i = slot(oldParams[j]);
+				params[i] = oldParams[j];
+				used[i] = true;
+				System.arraycopy(oldPoints, j * dimension, points,
+						i * dimension, dimension);
+				size++;
+			}
+		}
+	}
+
+	@Override
+	public double getMinParameter() {
+		return curve.getMinParameter();
+	}
+
+	@Override
+	public double getMaxParameter() {
+		return curve.getMaxParameter();
+	}
+
+	@Override
+	public double[] newDoubleArray() {
+		return curve.newDoubleArray();
+	}
+
+	@Override
+	public double distanceMax(double[] p1, double[] p2) {
+		return curve.distanceMax(p1, p2);
+	}
+
+	@Override
+	public double[] getDefinedInterval(double a, double b) {
+		return curve.getDefinedInterval(a, b);
+	}
+
+	@Override
+	public boolean getTrace() {
+		return curve.getTrace();
+	}
+
+	@Override
+	public boolean isClosedPath() {
+		return curve.isClosedPath();
+	}
+
+	@Override
+	public boolean isFunctionInX() {
+		return curve.isFunctionInX();
+	}
+
+	@Override
+	public GeoElement toGeoElement() {
+		return curve.toGeoElement();
+	}
+}
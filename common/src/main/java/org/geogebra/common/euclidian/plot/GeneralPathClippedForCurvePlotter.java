@@ -1,6 +1,5 @@
 package org.geogebra.common.euclidian.plot;
 
-import org.apache.commons.math3.util.Cloner;
 import org.geogebra.common.awt.GPoint2D;
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.euclidian.EuclidianViewInterfaceSlim;
@@ -23,6 +22,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	private boolean lineDrawn;
 	private Coords tmpCoords = new Coords(4);
+	private double[] tmpScreen = new double[3];
 
 	/**
 	 * constructor
@@ -34,6 +34,17 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 		super(view);
 	}
 
+	/**
+	 * @param pos
+	 *            real world coordinates, not changed
+	 * @return screen coordinates in a reused array
+	 */
+	private double[] toScreenCoords(double[] pos) {
+		System.arraycopy(pos, 0, tmpScreen, 0, Math.min(pos.length, 3));
+		((EuclidianView) view).toScreenCoords(tmpScreen);
+		return tmpScreen;
+	}
+
 	@Override
 	public void lineTo(double[] pos) {
 		drawTo(pos, SegmentType.LINE_TO);
@@ -46,8 +57,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	@Override
 	public void drawTo(double[] pos, SegmentType segmentType) {
-		double[] p = Cloner.clone(pos);
-		((EuclidianView) view).toScreenCoords(p);
+		double[] p = toScreenCoords(pos);
 		drawTo(p[0], p[1], segmentType);
 	}
 
@@ -106,8 +116,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	@Override
 	public void corner(double[] pos) {
-		double[] p = Cloner.clone(pos);
-		((EuclidianView) view).toScreenCoords(p);
+		double[] p = toScreenCoords(pos);
 		corner(p[0], p[1]);
 	}
 
@@ -146,8 +155,7 @@ public class GeneralPathClippedForCurvePlotter extends GeneralPathClipped
 
 	@Override
 	public void firstPoint(double[] pos, Gap moveToAllowed) {
-		double[] p = Cloner.clone(pos);
-		((EuclidianView) view).toScreenCoords(p);
+		double[] p = toScreenCoords(pos);
 		final double x0 = p[0];
 		final double y0 = p[1];
 
@@ -2,6 +2,8 @@ package org.geogebra.common.factories;
 
 import org.geogebra.common.util.HttpRequest;
 import org.geogebra.common.util.Prover;
+import org.geogebra.common.util.SequentialTaskRunner;
+import org.geogebra.common.util.TaskRunner;
 import org.geogebra.common.util.URLEncoder;
 import org.geogebra.common.util.debug.Log;
 
@@ -18,6 +20,8 @@ public abstract class UtilFactory {
 
 	private static final Object lock = new Object();
 
+	private static final TaskRunner SEQUENTIAL = new SequentialTaskRunner();
+
 	public static UtilFactory getPrototype() {
 		return prototype;
 	}
@@ -54,4 +58,12 @@ public abstract class UtilFactory {
 	 * @return Prover Creates a Prover object
 	 */
 	public abstract Prover newProver();
+
+	/**
+	 * @return runner for independent tasks; runs them sequentially unless
+	 *         overridden by the platform
+	 */
+	public TaskRunner getTaskRunner() {
+		return SEQUENTIAL;
+	}
 }
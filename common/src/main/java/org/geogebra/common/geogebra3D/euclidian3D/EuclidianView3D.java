@@ -4045,7 +4045,11 @@ public abstract class EuclidianView3D extends EuclidianView
 
 	@Override
 	public double[] getOnScreenDiff(double[] p1, double[] p2) {
-		double[] ret = new double[p1.length];
+		return getOnScreenDiff(p1, p2, new double[p1.length]);
+	}
+
+	@Override
+	public double[] getOnScreenDiff(double[] p1, double[] p2, double[] ret) {
 		ret[0] = (p2[0] - p1[0]) * getXscale();
 		ret[1] = (p2[1] - p1[1]) * getYscale();
 		if (ret.length > 2) {
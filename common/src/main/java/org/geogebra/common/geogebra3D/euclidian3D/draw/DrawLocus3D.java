@@ -7,6 +7,7 @@ import org.geogebra.common.geogebra3D.euclidian3D.openGL.Renderer;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.Matrix.CoordSys;
 import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.geos.GeoLocusND;
 
 /**
@@ -57,7 +58,13 @@ public class DrawLocus3D extends Drawable3DCurves {
 		brush.setAffineTexture(0f, 0f);
 		brush.setLength(1f);
 
-		CurvePlotter.draw(brush, getLocus().getPoints(), transformCoordSys);
+		if (getLocus() instanceof GeoLocus
+				&& ((GeoLocus) getLocus()).getPackedPoints().size() > 0) {
+			CurvePlotter.draw(brush, ((GeoLocus) getLocus()).getPackedPoints(),
+					transformCoordSys);
+		} else {
+			CurvePlotter.draw(brush, getLocus().getPoints(), transformCoordSys);
+		}
 
 		setGeometryIndex(brush.end());
 		endPacking();
@@ -131,6 +131,8 @@ public class Construction {
 
 	/** Table for (label, GeoElement) pairs, contains global variables */
 	protected HashMap<String, GeoElement> geoTable;
+	/** changes whenever a label is added to or removed from the tables */
+	private int labelsVersion;
 
 	// list of algorithms that need to be updated when EuclidianView changes
 	private ArrayList<EuclidianViewCE> euclidianViewCE;
@@ -153,6 +155,8 @@ public class Construction {
 	private TreeSet<GeoElement> randomElements;
 	/** algo set currently updated by GeoElement.updateDependentObjects() */
 	private AlgorithmSet algoSetCurrentlyUpdated;
+	/** temporary set for GeoElement.updateCascade() */
+	private TreeSet<AlgoElement> tempAlgoSet;
 
 	private final TreeSet<String> casDummies = new TreeSet<>();
 
@@ -369,6 +373,7 @@ public class Construction {
 		yAxisLocalName = app.getMenu("yAxis");
 		geoTable.put(xAxisLocalName, xAxis);
 		geoTable.put(yAxisLocalName, yAxis);
+		labelsVersion++;
 
 		companion.updateLocalAxesNames();
 	}
@@ -1315,22 +1320,7 @@ public class Construction {
 
 		try {
 			// save construction elements
-			sb.append("<construction title=\"");
-			StringUtil.encodeXML(sb, getTitle());
-			sb.append("\" author=\"");
-			StringUtil.encodeXML(sb, getAuthor());
-			sb.append("\" date=\"");
-			StringUtil.encodeXML(sb, getDate());
-			sb.append("\">\n");
-
-			// worksheet text
-			if (worksheetTextDefined()) {
-				sb.append("\t<worksheetText above=\"");
-				StringUtil.encodeXML(sb, getWorksheetText(0));
-				sb.append("\" below=\"");
-				StringUtil.encodeXML(sb, getWorksheetText(1));
-				sb.append("\"/>\n");
-			}
+			getConstructionXMLStart(sb);
 
 			getConstructionElementsXML(sb, getListenersToo);
 
@@ -1340,6 +1330,32 @@ public class Construction {
 		}
 	}
 
+	/**
+	 * Appends the opening construction tag and the worksheet text, the part
+	 * of the construction XML before the elements.
+	 * 
+	 * @param sb
+	 *            String builder
+	 */
+	public void getConstructionXMLStart(StringBuilder sb) {
+		sb.append("<construction title=\"");
+		StringUtil.encodeXML(sb, getTitle());
+		sb.append("\" author=\"");
+		StringUtil.encodeXML(sb, getAuthor());
+		sb.append("\" date=\"");
+		StringUtil.encodeXML(sb, getDate());
+		sb.append("\">\n");
+
+		// worksheet text
+		if (worksheetTextDefined()) {
+			sb.append("\t<worksheetText above=\"");
+			StringUtil.encodeXML(sb, getWorksheetText(0));
+			sb.append("\" below=\"");
+			StringUtil.encodeXML(sb, getWorksheetText(1));
+			sb.append("\"/>\n");
+		}
+	}
+
 	/**
 	 * Appends minimal version of the construction XML to given string builder.
 	 * Only elements/commands are preserved, the rest is ignored.
@@ -2011,9 +2027,19 @@ public class Construction {
 		}
 
 		geoTable.put(geo.getLabelSimple(), geo);
+		labelsVersion++;
 		addToGeoSets(geo);
 	}
 
+	/**
+	 * @return number that changes whenever an element or CAS cell label is
+	 *         added or removed, i.e. when looking up a label may give a
+	 *         different result
+	 */
+	public int getLabelsVersion() {
+		return labelsVersion;
+	}
+
 	/**
 	 * Removes given GeoElement from a table where (label, object) pairs are
 	 * stored.
@@ -2024,6 +2050,7 @@ public class Construction {
 	 */
 	public void removeLabel(GeoElement geo) {
 		geoTable.remove(geo.getLabelSimple());
+		labelsVersion++;
 		removeFromGeoSets(geo);
 	}
 
@@ -2120,6 +2147,7 @@ public class Construction {
 			geoCasCellTable = new HashMap<>();
 		}
 		geoCasCellTable.put(label, geoCasCell);
+		labelsVersion++;
 	}
 
 	/**
@@ -2135,6 +2163,7 @@ public class Construction {
 		if (geoCasCellTable != null) {
 			geoCasCellTable.remove(variable);
 		}
+		labelsVersion++;
 	}
 
 	/**
@@ -2847,6 +2876,7 @@ public class Construction {
 	 */
 	final private void initGeoTables() {
 		geoTable.clear();
+		labelsVersion++;
 		geoCasCellTable = null;
 		localVariableTable = null;
 		constsM.clear();
@@ -3374,6 +3404,19 @@ public class Construction {
 		return algoSetCurrentlyUpdated;
 	}
 
+	/**
+	 * Temporary set used to collect algorithms that need to be updated. Owned
+	 * by this construction rather than shared by all kernels.
+	 * 
+	 * @return temporary set of algorithms
+	 */
+	public TreeSet<AlgoElement> getTempAlgoSet() {
+		if (tempAlgoSet == null) {
+			tempAlgoSet = new TreeSet<>();
+		}
+		return tempAlgoSet;
+	}
+
 	/**
 	 * @param b
 	 *            new value of update construction flag
@@ -6,7 +6,8 @@ import org.geogebra.common.plugin.Event;
 import org.geogebra.common.plugin.EventType;
 
 /**
- * String based undo manager
+ * String based undo manager; stores only changed elements for most states,
+ * see {@link DeltaAppState}
  * 
  * @author Balazs
  */
@@ -49,7 +50,8 @@ public class DefaultUndoManager extends UndoManager {
      *            string builder with construction XML
      */
     private synchronized void doStoreUndoInfo(final StringBuilder undoXML) {
-        AppState appStateToAdd = new StringAppState(undoXML.toString());
+        AppState appStateToAdd = DeltaAppState.create(undoXML.toString(),
+                getCurrentAppStateOrNull());
         UndoCommand command = new UndoCommand(appStateToAdd);
         maybeStoreUndoCommand(command);
         pruneStateList();
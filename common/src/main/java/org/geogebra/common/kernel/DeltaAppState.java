@@ -0,0 +1,295 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+
+/**
+ * App State that stores only the construction elements that changed since the
+ * previous state. Every {@link #KEYFRAME_INTERVAL}-th state is stored in full,
+ * other states are reconstructed from the closest full state when needed.
+ *
+ * The XML is split into blocks: everything up to the construction tag, one
+ * block per top-level child of the construction (element, command,
+ * expression, ...) and everything after the construction.
+ */
+public class DeltaAppState implements AppState {
+
+	/** maximal number of deltas between two full states */
+	public static final int KEYFRAME_INTERVAL = 20;
+
+	private final DeltaAppState previous;
+	private final int depth;
+	/** number of blocks */
+	private final int length;
+	/** number of leading blocks shared with previous state */
+	private final int prefix;
+	/** number of trailing blocks shared with previous state */
+	private final int suffix;
+	/** indices of changed blocks (relative to prefix), null if not sparse */
+	private final int[] changedIndices;
+	/** changed blocks */
+	private final String[] changed;
+	private final int hash;
+	private final int charCount;
+	/** all blocks; always set for full states, cached for the others */
+	private String[] blocks;
+
+	private DeltaAppState(String[] blocks, int hash, int charCount) {
+		this.previous = null;
+		this.depth = 0;
+		this.length = blocks.length;
+		this.prefix = 0;
+		this.suffix = 0;
+		this.changedIndices = null;
+		this.changed = null;
+		this.blocks = blocks;
+		this.hash = hash;
+		this.charCount = charCount;
+	}
+
+	private DeltaAppState(DeltaAppState previous, String[] blocks, int prefix,
+			int suffix, int[] changedIndices, String[] changed, int hash,
+			int charCount) {
+		this.previous = previous;
+		this.depth = previous.depth + 1;
+		this.length = blocks.length;
+		this.prefix = prefix;
+		this.suffix = suffix;
+		this.changedIndices = changedIndices;
+		this.changed = changed;
+		this.blocks = blocks;
+		this.hash = hash;
+		this.charCount = charCount;
+	}
+
+	/**
+	 * @param xml
+	 *            construction XML
+	 * @param previousState
+	 *            current state of the undo manager (may be null)
+	 * @return new state, stored as delta against previous state if possible
+	 */
+	public static DeltaAppState create(String xml, AppState previousState) {
+		String[] newBlocks = split(xml);
+		int newHash = hash(newBlocks);
+		if (!(previousState instanceof DeltaAppState)
+				|| ((DeltaAppState) previousState).depth
+						+ 1 >= KEYFRAME_INTERVAL) {
+			return new DeltaAppState(newBlocks, newHash, xml.length());
+		}
+		DeltaAppState prev = (DeltaAppState) previousState;
+		String[] oldBlocks = prev.getBlocks();
+		// newer state is cached, drop the older one
+		prev.releaseBlocks();
+
+		int max = Math.min(oldBlocks.length, newBlocks.length);
+		int start = 0;
+		while (start < max && sameBlock(oldBlocks, newBlocks, start, start)) {
+			start++;
+		}
+		int end = 0;
+		while (end < max - start && sameBlock(oldBlocks, newBlocks,
+				oldBlocks.length - 1 - end, newBlocks.length - 1 - end)) {
+			end++;
+		}
+		int oldMiddle = oldBlocks.length - start - end;
+		int newMiddle = newBlocks.length - start - end;
+		int[] indices = null;
+		String[] diff;
+		if (oldMiddle == newMiddle) {
+			// same number of elements: store only changed ones
+			ArrayList<Integer> changedList = new ArrayList<>();
+			for (int i = 0; i < newMiddle; i++) {
+				if (!sameBlock(oldBlocks, newBlocks, start + i, start + i)) {
+					changedList.add(i);
+				}
+			}
+			indices = new int[changedList.size()];
+			diff = new String[changedList.size()];
+			for (int i = 0; i < indices.length; i++) {
+				indices[i] = changedList.get(i);
+				diff[i] = newBlocks[start + indices[i]];
+			}
+		} else {
+			diff = new String[newMiddle];
+			System.arraycopy(newBlocks, start, diff, 0, newMiddle);
+		}
+		return new DeltaAppState(prev, newBlocks, start, end, indices, diff,
+				newHash, xml.length());
+	}
+
+	/**
+	 * Compares blocks and makes the new array share the old string if they
+	 * are equal.
+	 */
+	private static boolean sameBlock(String[] oldBlocks, String[] newBlocks,
+			int oldIndex, int newIndex) {
+		String oldBlock = oldBlocks[oldIndex];
+		String newBlock = newBlocks[newIndex];
+		if (oldBlock == newBlock) {
+			return true;
+		}
+		if (oldBlock.hashCode() == newBlock.hashCode()
+				&& oldBlock.equals(newBlock)) {
+			newBlocks[newIndex] = oldBlock;
+			return true;
+		}
+		return false;
+	}
+
+	private static int hash(String[] blocks) {
+		int ret = 1;
+		for (String block : blocks) {
+			ret = 31 * ret + block.hashCode();
+		}
+		return ret;
+	}
+
+	/**
+	 * Splits XML into blocks, see class description.
+	 *
+	 * @param xml
+	 *            construction XML
+	 * @return blocks
+	 */
+	static String[] split(String xml) {
+		ArrayList<String> ret = new ArrayList<>();
+		int consStart = xml.indexOf("<construction");
+		int pos = consStart < 0 ? -1 : xml.indexOf('>', consStart);
+		if (pos < 0 || xml.charAt(pos - 1) == '/') {
+			return new String[] { xml };
+		}
+		pos++;
+		ret.add(xml.substring(0, pos));
+		while (pos < xml.length()) {
+			int tagStart = xml.indexOf('<', pos);
+			if (tagStart < 0 || xml.startsWith("</construction", tagStart)) {
+				break;
+			}
+			int blockEnd = skipElement(xml, tagStart);
+			if (blockEnd < 0) {
+				break;
+			}
+			ret.add(xml.substring(pos, blockEnd));
+			pos = blockEnd;
+		}
+		ret.add(xml.substring(pos));
+		return ret.toArray(new String[ret.size()]);
+	}
+
+	/**
+	 * @return end index (exclusive) of element starting at given index or -1
+	 *         for malformed XML
+	 */
+	private static int skipElement(String xml, int start) {
+		int level = 0;
+		int pos = start;
+		do {
+			int tagStart = xml.indexOf('<', pos);
+			if (tagStart < 0) {
+				return -1;
+			}
+			if (xml.startsWith("<!--", tagStart)) {
+				int commentEnd = xml.indexOf("-->", tagStart);
+				if (commentEnd < 0) {
+					return -1;
+				}
+				pos = commentEnd + 3;
+				continue;
+			}
+			int tagEnd = xml.indexOf('>', tagStart);
+			if (tagEnd < 0) {
+				return -1;
+			}
+			if (xml.charAt(tagStart + 1) == '/') {
+				level--;
+			} else if (xml.charAt(tagEnd - 1) != '/'
+					&& xml.charAt(tagStart + 1) != '?') {
+				level++;
+			}
+			pos = tagEnd + 1;
+		} while (level > 0);
+		return pos;
+	}
+
+	/**
+	 * @return all blocks of this state
+	 */
+	private String[] getBlocks() {
+		if (blocks != null) {
+			return blocks;
+		}
+		String[] oldBlocks = previous.getBlocks();
+		String[] ret = new String[length];
+		System.arraycopy(oldBlocks, 0, ret, 0, prefix);
+		System.arraycopy(oldBlocks, oldBlocks.length - suffix, ret,
+				length - suffix, suffix);
+		if (changedIndices == null) {
+			System.arraycopy(changed, 0, ret, prefix, changed.length);
+		} else {
+			System.arraycopy(oldBlocks, prefix, ret, prefix,
+					length - prefix - suffix);
+			for (int i = 0; i < changedIndices.length; i++) {
+				ret[prefix + changedIndices[i]] = changed[i];
+			}
+		}
+		return ret;
+	}
+
+	private void releaseBlocks() {
+		if (previous != null) {
+			blocks = null;
+		}
+	}
+
+	/**
+	 * @return whether this state is stored in full
+	 */
+	public boolean isKeyframe() {
+		return previous == null;
+	}
+
+	@Override
+	public String getXml() {
+		String[] all = getBlocks();
+		StringBuilder sb = new StringBuilder(charCount);
+		for (String block : all) {
+			sb.append(block);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void delete() {
+		// following states may still need the data
+		releaseBlocks();
+	}
+
+	@Override
+	public boolean equalsTo(AppState state) {
+		if (state == this) {
+			return true;
+		}
+		if (!(state instanceof DeltaAppState)) {
+			return state != null && getXml().equals(state.getXml());
+		}
+		DeltaAppState other = (DeltaAppState) state;
+		if (other.hash != hash || other.charCount != charCount
+				|| other.length != length) {
+			return false;
+		}
+		if (other.previous == this && other.changed.length == 0) {
+			return true;
+		}
+		if (previous == other && changed.length == 0) {
+			return true;
+		}
+		String[] own = getBlocks();
+		String[] others = other.getBlocks();
+		for (int i = 0; i < own.length; i++) {
+			if (own[i] != others[i] && !own[i].equals(others[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
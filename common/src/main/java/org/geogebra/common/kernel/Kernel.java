@@ -3217,6 +3217,9 @@ public class Kernel implements SpecialPointsListener, ConstructionStepper {
 			cons.getArbitraryConsTable().clear();
 		}
 		cons.clearConstruction();
+		if (algProcessor != null) {
+			algProcessor.getParsedExpressionCache().clear();
+		}
 		notifyClearView();
 		notifyRepaint();
 	}
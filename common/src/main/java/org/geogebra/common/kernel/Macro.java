@@ -21,6 +21,7 @@ import java.util.TreeSet;
 import org.geogebra.common.GeoGebraConstants;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoMacroInterface;
+import org.geogebra.common.kernel.algos.ConstructionCloner;
 import org.geogebra.common.kernel.algos.ConstructionElement;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoVector;
@@ -322,6 +323,12 @@ public class Macro {
 				input.length == 0 ? kernel : input[0].kernel,
 				macroConsOrigElements);
 
+		// 6) copy the macro construction directly while the temp labels of
+		// step (4) are still set
+		MacroKernel mk = newMacroKernel();
+		boolean copied = new ConstructionCloner(mk, macroConsOrigElements)
+				.copy();
+
 		// if we used temp labels in step (4) remove them again
 		for (int i = 0; i < input.length; i++) {
 			if (!isInputLabeled[i]) {
@@ -337,9 +344,10 @@ public class Macro {
 			}
 		}
 		Log.debug(macroConsXML);
-		// 6) create a new macro-construction from this XML representation
-		Construction macroCons2 = createMacroConstruction(
-				macroConsXML.toString());
+		// 7) otherwise create a new macro-construction from the XML
+		// representation
+		Construction macroCons2 = copied ? mk.getConstruction()
+				: createMacroConstruction(macroConsXML.toString());
 
 		// init macro
 		initMacro(macroCons2, inputLabels, outputLabels);
@@ -481,12 +489,7 @@ public class Macro {
 	private Construction createMacroConstruction(String macroConstructionXML)
 			throws Exception {
 		// build macro construction
-		MacroKernel mk = kernel.newMacroKernel();
-		mk.setContinuous(false);
-
-		// during initing we turn global variable lookup off, so we can be sure
-		// that the macro construction only dependes on it's input
-		mk.setGlobalVariableLookup(false);
+		MacroKernel mk = newMacroKernel();
 
 		try {
 			mk.loadXML(macroConstructionXML);
@@ -503,6 +506,16 @@ public class Macro {
 		return mk.getConstruction();
 	}
 
+	private MacroKernel newMacroKernel() {
+		MacroKernel mk = kernel.newMacroKernel();
+		mk.setContinuous(false);
+
+		// during initing we turn global variable lookup off, so we can be sure
+		// that the macro construction only dependes on it's input
+		mk.setGlobalVariableLookup(false);
+		return mk;
+	}
+
 	/**
 	 * Add link to algo using this macro
 	 * 
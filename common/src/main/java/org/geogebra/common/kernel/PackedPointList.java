@@ -0,0 +1,185 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List of 2D points with segment types stored in primitive arrays (17 bytes
+ * per point instead of a {@link MyPoint} object per point). Used for loci
+ * with many points that are only drawn, not modified point by point.
+ */
+public class PackedPointList {
+
+	private static final SegmentType[] TYPES = SegmentType.values();
+
+	private double[] xs;
+	private double[] ys;
+	private byte[] types;
+	private int size;
+
+	/**
+	 * Creates empty list
+	 */
+	public PackedPointList() {
+		xs = new double[0];
+		ys = new double[0];
+		types = new byte[0];
+	}
+
+	/**
+	 * @return number of points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return number of points that fit into the arrays
+	 */
+	public int getCapacity() {
+		return xs.length;
+	}
+
+	/**
+	 * Removes all points, keeps the arrays for reuse.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Removes all points and frees the arrays.
+	 */
+	public void release() {
+		clear();
+		xs = new double[0];
+		ys = new double[0];
+		types = new byte[0];
+	}
+
+	/**
+	 * Makes sure the list can hold the given number of points without
+	 * reallocating.
+	 *
+	 * @param capacity
+	 *            number of points
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity <= xs.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, Math.max(16, 2 * xs.length));
+		double[] newXs = new double[newCapacity];
+		double[] newYs = new double[newCapacity];
+		byte[] newTypes = new byte[newCapacity];
+		System.arraycopy(xs, 0, newXs, 0, size);
+		System.arraycopy(ys, 0, newYs, 0, size);
+		System.arraycopy(types, 0, newTypes, 0, size);
+		xs = newXs;
+		ys = newYs;
+		types = newTypes;
+	}
+
+	/**
+	 * Appends a point.
+	 *
+	 * @param x
+	 *            x-coord
+	 * @param y
+	 *            y-coord
+	 * @param segmentType
+	 *            segment type
+	 */
+	public void add(double x, double y, SegmentType segmentType) {
+		if (size == xs.length) {
+			ensureCapacity(size + 1);
+		}
+		xs[size] = x;
+		ys[size] = y;
+		types[size] = (byte) segmentType.ordinal();
+		size++;
+	}
+
+	/**
+	 * Appends all points of a list.
+	 *
+	 * @param points
+	 *            points
+	 */
+	public void addAll(List<? extends MyPoint> points) {
+		ensureCapacity(size + points.size());
+		for (int i = 0; i < points.size(); i++) {
+			MyPoint pt = points.get(i);
+			add(pt.x, pt.y, pt.getSegmentType());
+		}
+	}
+
+	/**
+	 * Appends all points of another packed list.
+	 *
+	 * @param points
+	 *            points
+	 */
+	public void addAll(PackedPointList points) {
+		ensureCapacity(size + points.size);
+		System.arraycopy(points.xs, 0, xs, size, points.size);
+		System.arraycopy(points.ys, 0, ys, size, points.size);
+		System.arraycopy(points.types, 0, types, size, points.size);
+		size += points.size;
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return x-coord of i-th point
+	 */
+	public double getX(int i) {
+		return xs[i];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return y-coord of i-th point
+	 */
+	public double getY(int i) {
+		return ys[i];
+	}
+
+	/**
+	 * @param i
+	 *            index
+	 * @return segment type of i-th point
+	 */
+	public SegmentType getSegmentType(int i) {
+		return TYPES[types[i]];
+	}
+
+	/**
+	 * Copies the i-th point into an existing point object.
+	 *
+	 * @param i
+	 *            index
+	 * @param point
+	 *            output point
+	 * @return point
+	 */
+	public MyPoint get(int i, MyPoint point) {
+		point.setCoords(xs[i], ys[i]);
+		point.setSegmentType(getSegmentType(i));
+		return point;
+	}
+
+	/**
+	 * Appends all points to a list of point objects.
+	 *
+	 * @param list
+	 *            output list
+	 */
+	public void appendTo(ArrayList<MyPoint> list) {
+		list.ensureCapacity(list.size() + size);
+		for (int i = 0; i < size; i++) {
+			list.add(new MyPoint(xs[i], ys[i], getSegmentType(i)));
+		}
+	}
+}
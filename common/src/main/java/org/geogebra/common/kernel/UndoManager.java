@@ -202,6 +202,18 @@ public abstract class UndoManager {
 		return ret;
 	}
 
+	/**
+	 * @return state at current position of undo list, null if there is none
+	 */
+	protected synchronized AppState getCurrentAppStateOrNull() {
+		if (iterator == null || !iterator.hasPrevious()) {
+			return null;
+		}
+		AppState ret = iterator.previous().getAppState();
+		iterator.next();
+		return ret;
+	}
+
 	/**
 	 * Store undo info
 	 */
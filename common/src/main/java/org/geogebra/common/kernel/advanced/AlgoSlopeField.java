@@ -1,13 +1,11 @@
 package org.geogebra.common.kernel.advanced;
 
-import java.util.ArrayList;
-
 import org.geogebra.common.euclidian.EuclidianView;
 import org.geogebra.common.kernel.Construction;
-import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.algos.AlgoElement;
 import org.geogebra.common.kernel.algos.AlgoNumeratorDenominatorFun;
+import org.geogebra.common.kernel.algos.FunctionGrid;
 import org.geogebra.common.kernel.arithmetic.Evaluate2Var;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
 import org.geogebra.common.kernel.commands.Commands;
@@ -35,8 +33,6 @@ public class AlgoSlopeField extends AlgoElement {
 	private GeoNumeric maxY;
 
 	private GeoLocus locus; // output
-	/** locus points */
-	ArrayList<MyPoint> al;
 
 	private AlgoNumeratorDenominatorFun numAlgo;
 	private AlgoNumeratorDenominatorFun denAlgo;
@@ -44,6 +40,16 @@ public class AlgoSlopeField extends AlgoElement {
 	private FunctionalNVar den;
 	private boolean quotient;
 	private EuclidianView mainView;
+	// function values at segment centers, kept while only the view is moved
+	private FunctionGrid funcGrid;
+	private FunctionGrid numGrid;
+	private FunctionGrid denGrid;
+	private int cols;
+	private int rows;
+	private double gridXStep;
+	private double gridYStep;
+	/** relative change of grid step that is considered a rounding error */
+	private static final double STEP_PRECISION = 1E-10;
 
 	/**
 	 * @param cons
@@ -177,11 +183,7 @@ public class AlgoSlopeField extends AlgoElement {
 			return;
 		}
 
-		if (al == null) {
-			al = new ArrayList<>();
-		} else {
-			al.clear();
-		}
+		locus.clearPoints();
 
 		mainView = null;
 		double xmax = -Double.MAX_VALUE;
@@ -241,7 +243,7 @@ public class AlgoSlopeField extends AlgoElement {
 		}
 
 		// if it's visible in at least one view, calculate visible portion
-		if (xmax > -Double.MAX_VALUE) {
+		if (xmax > -Double.MAX_VALUE && xmax > xmin && ymax > ymin) {
 			int nD = (int) (n == null ? 39 : n.getDouble() - 1);
 
 			if (nD < 2 || nD > 100) {
@@ -265,28 +267,47 @@ public class AlgoSlopeField extends AlgoElement {
 
 			// AbstractApplication.debug(xStep+" "+yStep+" "+step);
 
-			for (double xx = xmin; xx < xmax + xStep / 2; xx += xStep) {
-				for (double yy = ymin; yy < ymax + yStep / 2; yy += yStep) {
-
-					// double[] input1 = { xx, yy };
-					// double gradient = func.evaluate(input1);
-
-					// AbstractApplication.debug(num.isDefined()+"
-					// "+den.isDefined());
+			if (minX != null) {
+				evaluateGrid(xmin, ymin, 0, 0, nD + 1, nD + 1, xStep, yStep);
+			} else {
+				// keep the grid when the view was only moved: the field is
+				// translated and only new rows and columns are evaluated
+				if (DoubleUtil.isEqual(xStep, gridXStep,
+						xStep * STEP_PRECISION)) {
+					xStep = gridXStep;
+				}
+				if (DoubleUtil.isEqual(yStep, gridYStep,
+						yStep * STEP_PRECISION)) {
+					yStep = gridYStep;
+				}
+				gridXStep = xStep;
+				gridYStep = yStep;
+				long col0 = (long) Math.ceil(xmin / xStep);
+				long row0 = (long) Math.ceil(ymin / yStep);
+				evaluateGrid(0, 0, col0, row0,
+						(int) ((long) Math.floor(xmax / xStep) - col0 + 1),
+						(int) ((long) Math.floor(ymax / yStep) - row0 + 1),
+						xStep, yStep);
+			}
+			FunctionGrid grid = quotient ? numGrid : funcGrid;
+			for (int i = 0; i < cols; i++) {
+				double xx = grid.getX(i);
+				for (int j = 0; j < rows; j++) {
+					double yy = grid.getY(j);
 
-					if (num.isDefined() && den.isDefined()) {
+					if (quotient) {
 						// quotient function like x / y
 
 						// make sure eg SlopeField[(2 - y) / 2] works
 
-						double numD = num.evaluate(xx, yy);
-						double denD = den.evaluate(xx, yy);
+						double numD = numGrid.get(i, j);
+						double denD = denGrid.get(i, j);
 
 						if (DoubleUtil.isZero(denD)) {
 							if (DoubleUtil.isZero(numD)) {
 								// just a dot
-								al.add(new MyPoint(xx, yy, SegmentType.MOVE_TO));
-								al.add(new MyPoint(xx, yy, SegmentType.LINE_TO));
+								locus.insertPoint(xx, yy, SegmentType.MOVE_TO);
+								locus.insertPoint(xx, yy, SegmentType.LINE_TO);
 							} else {
 								// vertical line
 								drawLine(0, 1, length, xx, yy);
@@ -299,23 +320,42 @@ public class AlgoSlopeField extends AlgoElement {
 						}
 					} else {
 						// non-quotient function like x y
-						double gradient;
-
-						gradient = func.evaluate(xx, yy);
-
-						drawLine(1, gradient, length, xx, yy);
-
+						drawLine(1, funcGrid.get(i, j), length, xx, yy);
 					}
 
 				}
 			}
 		}
 
-		locus.setPoints(al);
+		locus.resetSavedBoundingBoxValues(true);
 		locus.setDefined(true);
 
 	}
 
+	/**
+	 * Evaluates the function (or numerator and denominator) on the grid of
+	 * segment centers.
+	 */
+	private void evaluateGrid(double x0, double y0, long col0, long row0,
+			int gridCols, int gridRows, double xStep, double yStep) {
+		cols = Math.max(gridCols, 0);
+		rows = Math.max(gridRows, 0);
+		quotient = num.isDefined() && den.isDefined();
+		if (quotient) {
+			if (numGrid == null) {
+				numGrid = new FunctionGrid(num);
+				denGrid = new FunctionGrid(den);
+			}
+			numGrid.evaluate(x0, y0, col0, row0, cols, rows, xStep, yStep);
+			denGrid.evaluate(x0, y0, col0, row0, cols, rows, xStep, yStep);
+		} else {
+			if (funcGrid == null) {
+				funcGrid = new FunctionGrid((FunctionalNVar) func);
+			}
+			funcGrid.evaluate(x0, y0, col0, row0, cols, rows, xStep, yStep);
+		}
+	}
+
 	private void drawLine(double dx0, double dy0, double length, double xx,
 			double yy) {
 		/*
@@ -326,8 +366,8 @@ public class AlgoSlopeField extends AlgoElement {
 		double coeff = Math.sqrt(dx0 * dx0 + dyScaled * dyScaled);
 		double dx = dx0 * length / coeff;
 		double dy = dy0 * length / coeff;
-		al.add(new MyPoint(xx - dx, yy - dy, SegmentType.MOVE_TO));
-		al.add(new MyPoint(xx + dx, yy + dy, SegmentType.LINE_TO));
+		locus.insertPoint(xx - dx, yy - dy, SegmentType.MOVE_TO);
+		locus.insertPoint(xx + dx, yy + dy, SegmentType.LINE_TO);
 
 	}
 
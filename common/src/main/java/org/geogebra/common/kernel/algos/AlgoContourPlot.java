@@ -1,5 +1,7 @@
 package org.geogebra.common.kernel.algos;
 
+import java.util.Arrays;
+
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.arithmetic.Equation;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
@@ -48,6 +50,11 @@ public class AlgoContourPlot extends AlgoElement {
 	private double minadded;
 	private double maxadded;
 	private boolean fixed;
+	// extremes of the last sampled grid and the state they were sampled for
+	private double gridMin;
+	private double gridMax;
+	private double[] gridBounds;
+	private int gridUpdate;
 	private static final int minContours = 7;
 	private static final int maxContours = 25;
 
@@ -278,17 +285,7 @@ public class AlgoContourPlot extends AlgoElement {
 			en.replace(fvars[1], yVar);
 			equ = new Equation(kernel, en, new MyDouble(kernel));
 			implicitPoly.fromEquation(equ, null);
-			for (int i = 0; i < divisionPoints; i++) {
-				for (int j = 0; j < divisionPoints; j++) {
-					double val = checkPolyValue(i, j);
-					if (val < min) {
-						min = val;
-					}
-					if (val > max) {
-						max = val;
-					}
-				}
-			}
+			sampleGrid();
 			if (DoubleUtil.isEqual(max, min)) {
 				list.setUndefined();
 				return;
@@ -324,6 +321,37 @@ public class AlgoContourPlot extends AlgoElement {
 		}
 	}
 
+	/**
+	 * Computes min and max of the function on the grid; update() may
+	 * recompute several times for the same view (changing only the contour
+	 * step), the grid is only sampled again when the view or the function
+	 * changed.
+	 */
+	private void sampleGrid() {
+		double[] bounds = { xmin, xmax, ymin, ymax };
+		if (gridBounds != null && gridUpdate == func.getUpdateCount()
+				&& Arrays.equals(bounds, gridBounds)) {
+			min = gridMin;
+			max = gridMax;
+			return;
+		}
+		for (int i = 0; i < divisionPoints; i++) {
+			for (int j = 0; j < divisionPoints; j++) {
+				double val = checkPolyValue(i, j);
+				if (val < min) {
+					min = val;
+				}
+				if (val > max) {
+					max = val;
+				}
+			}
+		}
+		gridMin = min;
+		gridMax = max;
+		gridBounds = bounds;
+		gridUpdate = func.getUpdateCount();
+	}
+
 	private boolean movedOut() {
 		return xmin < calcxmin || xmax > calcxmax || ymin < calcymin
 				|| ymax > calcymax;
@@ -9,7 +9,6 @@ import org.geogebra.common.awt.font.GTextLayout;
 import org.geogebra.common.euclidian.EuclidianViewInterfaceCommon;
 import org.geogebra.common.factories.AwtFactory;
 import org.geogebra.common.kernel.Construction;
-import org.geogebra.common.kernel.arithmetic.FunctionNVar;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoBoolean;
@@ -17,6 +16,7 @@ import org.geogebra.common.kernel.geos.GeoCanvasImage;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoFunctionNVar;
 import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.util.DoubleUtil;
 
 /**
  * draw density for 2-variables function
@@ -26,6 +26,9 @@ import org.geogebra.common.kernel.geos.GeoNumeric;
  */
 public class AlgoDensityPlot extends AlgoElement {
 
+	/** relative change of pixel size that is considered a rounding error */
+	private static final double SCALE_PRECISION = 1E-10;
+
 	private GeoCanvasImage outputImage;
 	private GeoFunctionNVar function;
 
@@ -44,9 +47,8 @@ public class AlgoDensityPlot extends AlgoElement {
 	private GColor color;
 	private double incX;
 	private double incY;
-	private double[] vals = new double[2];
 	private GGraphics2D g;
-	private FunctionNVar f;
+	private FunctionGrid grid;
 	private DecimalFormat df;
 	private GTextLayout t;
 	private GFont font = kernel.getApplication().getFontCanDisplay("-999")
@@ -100,7 +102,7 @@ public class AlgoDensityPlot extends AlgoElement {
 			offset = 25;
 		}
 		function = geoFunctionNVar;
-		f = function.getFunction();
+		grid = new FunctionGrid(function);
 		view = kernel.getApplication().getActiveEuclidianView();
 		this.fixed = fixed;
 		minX = -2;
@@ -153,11 +155,27 @@ public class AlgoDensityPlot extends AlgoElement {
 
 	@Override
 	public void compute() {
-		incX = scaleX / imageSize * grade;
-		incY = scaleY / imageSize * grade;
-		for (j = offset, vals[1] = maxY; j < imagePlusOffset; vals[1] -= incY, j += grade) {
-			for (i = offset, vals[0] = minX; i < imagePlusOffset; vals[0] += incX, i += grade) {
-				value = f.evaluate(vals);
+		double newIncX = scaleX / imageSize * grade;
+		double newIncY = scaleY / imageSize * grade;
+		// keep the pixel size (and the cached grid) when the view was only
+		// moved
+		if (!DoubleUtil.isEqual(newIncX, incX, newIncX * SCALE_PRECISION)) {
+			incX = newIncX;
+		}
+		if (!DoubleUtil.isEqual(newIncY, incY, newIncY * SCALE_PRECISION)) {
+			incY = newIncY;
+		}
+		int size = (imageSize + grade - 1) / grade;
+		// pixels are aligned to multiples of the pixel size, so that after
+		// moving the view only newly exposed rows and columns are evaluated
+		long col0 = (long) Math.floor(minX / incX);
+		long rowTop = (long) Math.floor(maxY / incY);
+		grid.evaluate(0, 0, col0, rowTop - size + 1, size, size, incX, incY);
+		for (int row = 0; row < size; row++) {
+			j = offset + row * grade;
+			for (int col = 0; col < size; col++) {
+				i = offset + col * grade;
+				value = grid.get(col, size - 1 - row);
 				colors = rgbColor(value);
 				color = GColor.newColor(colors[0], colors[1], colors[1]);
 				g.setColor(color);
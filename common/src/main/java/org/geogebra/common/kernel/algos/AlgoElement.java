@@ -49,8 +49,6 @@ import org.geogebra.common.util.StringUtil;
  */
 public abstract class AlgoElement extends ConstructionElement
 		implements EuclidianViewCE {
-	private static boolean tempSetLock = false;
-	private static TreeSet<AlgoElement> tempSet;
 	/** input elements */
 	public GeoElement[] input;
 	private ArrayList<GeoPointND> freeInputPoints;
@@ -678,17 +676,9 @@ public abstract class AlgoElement extends ConstructionElement
 			}
 		}
 
-		// update all geos
-		tempSetLock = true;
-		GeoElement.updateCascade(geos, getTempSet(), true);
-		tempSetLock = false;
-	}
-
-	private static TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null || tempSetLock) {
-			tempSet = new TreeSet<>();
-		}
-		return tempSet;
+		// update all geos; may be called during another cascade, so don't
+		// share the temporary set
+		GeoElement.updateCascade(geos, new TreeSet<AlgoElement>(), true);
 	}
 
 	// public part
@@ -277,11 +277,10 @@ public abstract class AlgoLocusSliderND<T extends MyPoint> extends AlgoElement
 		return locus;
 	}
 
-	private void buildLocusMacroConstruction(
+	private MacroKernel newLocusMacroKernel(
 			TreeSet<ConstructionElement> locusConsElements) {
-		// build macro construction
-		macroKernel = kernel.newMacroKernel();
-		macroKernel.setGlobalVariableLookup(true);
+		MacroKernel locusKernel = kernel.newMacroKernel();
+		locusKernel.setGlobalVariableLookup(true);
 
 		// tell the macro construction about reserved names:
 		// these names will not be looked up in the parent
@@ -291,17 +290,28 @@ public abstract class AlgoLocusSliderND<T extends MyPoint> extends AlgoElement
 			ConstructionElement ce = it.next();
 			if (ce.isGeoElement()) {
 				GeoElement geo = (GeoElement) ce;
-				macroKernel.addReservedLabel(
+				locusKernel.addReservedLabel(
 						geo.getLabel(StringTemplate.defaultTemplate));
 			}
 		}
+		return locusKernel;
+	}
 
-		try {
-			// get XML for macro construction of P -> Q
-			String locusConsXML = Macro.buildMacroXML(kernel, locusConsElements)
-					.toString();
+	private void buildLocusMacroConstruction(
+			TreeSet<ConstructionElement> locusConsElements) {
+		// build macro construction
+		macroKernel = newLocusMacroKernel(locusConsElements);
 
-			macroKernel.loadXML(locusConsXML);
+		try {
+			// copy the elements of P -> Q directly, use their XML if that is
+			// not possible
+			if (!new ConstructionCloner(macroKernel, locusConsElements)
+					.copy()) {
+				macroKernel = newLocusMacroKernel(locusConsElements);
+				String locusConsXML = Macro
+						.buildMacroXML(kernel, locusConsElements).toString();
+				macroKernel.loadXML(locusConsXML);
+			}
 
 			// get the copies of P and Q from the macro kernel
 			copyP = (GeoNumeric) macroKernel
@@ -1,6 +1,6 @@
 package org.geogebra.common.kernel.algos;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
 import org.apache.commons.math3.ode.FirstOrderIntegrator;
@@ -8,7 +8,6 @@ import org.apache.commons.math3.ode.nonstiff.DormandPrince54Integrator;
 import org.apache.commons.math3.ode.sampling.StepHandler;
 import org.apache.commons.math3.ode.sampling.StepInterpolator;
 import org.geogebra.common.kernel.Construction;
-import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
@@ -30,8 +29,8 @@ public class AlgoNSolveODE extends AlgoElement {
 	private GeoNumeric endX; // input
 
 	private GeoLocus[] out; // output
-	/** list of solutions */
-	protected ArrayList<ArrayList<MyPoint>> al;
+	/** solution of the last successful computation */
+	private Trajectory trajectory;
 
 	private double t0;
 	private double[] y0;
@@ -117,22 +116,25 @@ public class AlgoNSolveODE extends AlgoElement {
 			y0[i] = ((GeoNumeric) startY.get(i)).getDouble();
 		}
 
-		al = new ArrayList<>(dim);
-
-		for (int i = 0; i < dim; i++) {
-			al.add(new ArrayList<MyPoint>());
+		// the trajectory only depends on the equations and the start and end
+		// values, other updates of the inputs (e.g. of the lists) keep it
+		if (trajectory != null && trajectory.hasInputs(t0, y0,
+				endX.getDouble(), fun)) {
+			for (int i = 0; i < dim; i++) {
+				out[i].setDefined(true);
+			}
+			return;
 		}
+		trajectory = null;
 
+		Trajectory steps = new Trajectory(t0, y0, endX.getDouble(), fun);
 		FirstOrderIntegrator integrator = new DormandPrince54Integrator(0.001,
 				0.01, 0.000001, 0.0001);
 		FirstOrderDifferentialEquations ode = new ODEN(fun);
 
-		integrator.addStepHandler(stepHandler);
+		integrator.addStepHandler(steps);
 
-		for (int i = 0; i < dim; i++) {
-			al.get(i).add(new MyPoint(startX.getDouble(), y0[i],
-					SegmentType.MOVE_TO));
-		}
+		steps.add(t0, y0);
 		try {
 			integrator.integrate(ode, t0, y0, endX.getDouble(), y0);
 		} catch (RuntimeException e) {
@@ -142,23 +144,105 @@ public class AlgoNSolveODE extends AlgoElement {
 			return;
 		}
 
+		trajectory = steps;
 		for (int i = 0; i < dim; i++) {
-			out[i].setPoints(al.get(i));
+			out[i].clearPoints();
+			trajectory.addTo(out[i], i);
+			out[i].resetSavedBoundingBoxValues(true);
 			out[i].setDefined(true);
 		}
 	}
 
 	private void setUndefined() {
+		trajectory = null;
 		for (int i = 0; i < out.length; i++) {
 			out[i].setUndefined();
 		}
 	}
 
-	private StepHandler stepHandler = new StepHandler() {
+	/**
+	 * Solution of the system with the inputs it was computed for; the states
+	 * after each step are stored in primitive arrays.
+	 */
+	private class Trajectory implements StepHandler {
+		private final double start;
+		private final double[] startValues;
+		private final double end;
+		private final GeoList equationList;
+		private final int listUpdates;
+		private final GeoElement[] equations;
+		private final int[] equationUpdates;
+
+		private double[] times = new double[64];
+		/** states[i][k] is the i-th function after step k */
+		private double[][] states = new double[dim][64];
+		private int size;
+
+		Trajectory(double start, double[] startValues, double end,
+				GeoList equations) {
+			this.start = start;
+			this.startValues = startValues.clone();
+			this.end = end;
+			// elements of lists like {y, -x} may change without an update
+			// of their own
+			this.equationList = equations;
+			this.listUpdates = equations.getUpdateCount();
+			this.equations = new GeoElement[dim];
+			this.equationUpdates = new int[dim];
+			for (int i = 0; i < dim; i++) {
+				this.equations[i] = equations.get(i);
+				this.equationUpdates[i] = this.equations[i].getUpdateCount();
+			}
+		}
+
+		/**
+		 * @return whether this was computed for the given inputs
+		 */
+		boolean hasInputs(double start1, double[] startValues1, double end1,
+				GeoList equations1) {
+			if (start != start1 || end != end1
+					|| !Arrays.equals(startValues, startValues1)
+					|| equations1 != equationList
+					|| equations1.getUpdateCount() != listUpdates) {
+				return false;
+			}
+			for (int i = 0; i < dim; i++) {
+				if (equations1.get(i) != equations[i]
+						|| equations[i].getUpdateCount() != equationUpdates[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void add(double t, double[] state) {
+			if (size == times.length) {
+				times = Arrays.copyOf(times, 2 * size);
+				for (int i = 0; i < dim; i++) {
+					states[i] = Arrays.copyOf(states[i], 2 * size);
+				}
+			}
+			times[size] = t;
+			for (int i = 0; i < dim; i++) {
+				states[i][size] = state[i];
+			}
+			size++;
+		}
+
+		/**
+		 * Appends the graph of the i-th function to a locus.
+		 */
+		void addTo(GeoLocus locus, int i) {
+			locus.getPackedPoints().ensureCapacity(size);
+			for (int k = 0; k < size; k++) {
+				locus.insertPoint(times[k], states[i][k],
+						k == 0 ? SegmentType.MOVE_TO : SegmentType.LINE_TO);
+			}
+		}
 
 		@Override
 		public void init(double ts0, double[] ys0, double t) {
-			//this.
+			// start point is added before integration
 		}
 
 		@Override
@@ -168,18 +252,18 @@ public class AlgoNSolveODE extends AlgoElement {
 				throw new IllegalArgumentException(
 						"Invalid value of time:" + t);
 			}
-			double[] y1 = interpolator.getInterpolatedState();
-			for (int i = 0; i < y1.length; i++) {
-				al.get(i).add(new MyPoint(t, y1[i], SegmentType.LINE_TO));
-			}
+			add(t, interpolator.getInterpolatedState());
 		}
-	};
+	}
 
 	private class ODEN implements FirstOrderDifferentialEquations {
 		private GeoList fun1;
+		/** (t, y1, ..., yn), reused for all evaluations */
+		private double[] input1;
 
 		public ODEN(GeoList fun) {
 			this.fun1 = fun;
+			this.input1 = new double[dim + 1];
 		}
 
 		@Override
@@ -189,7 +273,6 @@ public class AlgoNSolveODE extends AlgoElement {
 
 		@Override
 		public void computeDerivatives(double t, double[] y, double[] yDot) {
-			double[] input1 = new double[dim + 1];
 			input1[0] = t;
 			for (int i = 0; i < dim; i++) {
 				input1[i + 1] = y[i];
@@ -14,11 +14,13 @@ package org.geogebra.common.kernel.algos;
 
 import java.util.ArrayList;
 
+import org.apache.commons.math3.analysis.UnivariateFunction;
 import org.apache.commons.math3.analysis.solvers.BrentSolver;
 import org.geogebra.common.euclidian.EuclidianViewInterfaceCommon;
+import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
-import org.geogebra.common.kernel.arithmetic.Function;
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
@@ -27,6 +29,7 @@ import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoPoint;
 import org.geogebra.common.kernel.roots.RealRootUtil;
 import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.TaskRunner;
 import org.geogebra.common.util.debug.Log;
 
 /**
@@ -50,6 +53,8 @@ public class AlgoRoots extends AlgoGeoPointsFunction {
 
 	private static final int TYPE_ROOTS = 0;
 	private static final int TYPE_INTERSECTIONS = 1;
+	/** min number of brackets to refine them in parallel */
+	private static final int PARALLEL_BRACKETS = 4;
 
 	// Input-Output
 	private GeoFunction f0;
@@ -275,11 +280,21 @@ public class AlgoRoots extends AlgoGeoPointsFunction {
 		int n = findNumberOfSamples(l, r);
 		// make sure m is at least 1 even for invisible EV
 		int m = Math.max(n, 1);
+		// function values for m samples, reused when m is doubled
+		double[] y = null;
 		try { // To catch eventual wrong indexes in arrays...
 				// Adjust samples. Some research needed to find best factor in
 				// if(numberofroots<m*factor...
 			do { // debug("doing samples: "+m);
-				roots = findRoots(f, l, r, m);
+				double[] ySamples = new double[m + 1];
+				if (y != null) {
+					// every other sample was already evaluated
+					for (int i = 0; i < y.length; i++) {
+						ySamples[2 * i] = y[i];
+					}
+				}
+				roots = findRoots(f, l, r, m, ySamples, y != null);
+				y = ySamples;
 
 				if (roots == null) {
 					numberofroots = 0;
@@ -312,50 +327,62 @@ public class AlgoRoots extends AlgoGeoPointsFunction {
 	 */
 	public static final double[] findRoots(GeoFunction f, double l, double r,
 			int samples) {
+		return findRoots(f, l, r, samples, new double[samples + 1], false);
+	}
+
+	/**
+	 * Samples f, then refines all intervals with a sign change; the intervals
+	 * are independent, so they may be refined in parallel.
+	 * 
+	 * @param y
+	 *            output array for function values at the samples (length
+	 *            samples + 1)
+	 * @param evenKnown
+	 *            whether y already contains the values at even indices (from
+	 *            sampling with half the number of samples)
+	 */
+	private static double[] findRoots(GeoFunction f, double l, double r,
+			int samples, double[] y, boolean evenKnown) {
 		if (DoubleUtil.isEqual(l, r)) {
 			return DoubleUtil.isZero(f.value(l)) ? new double[] { l }
 					: new double[0];
 		}
-		double[] y = new double[samples + 1]; //
 		ArrayList<Double> xlist = new ArrayList<>();
-		double x, xval;
+		double x;
 		double deltax = (r - l) / samples;
+		UnivariateFunction fun = getEvaluator(f);
 
+		// batch evaluation of new samples
+		int step = evenKnown ? 2 : 1;
+		for (int i = evenKnown ? 1 : 0; i <= samples; i += step) {
+			y[i] = fun.value(l + i * deltax);
+		}
+
+		ArrayList<Bracket> brackets = new ArrayList<>();
 		for (int i = 0; i <= samples; i++) {
 			x = l + i * deltax;
-			y[i] = f.value(x);
 			// if left endpoint is root by pure luck...
 			if ((Math.abs(y[i]) < Kernel.MIN_PRECISION)
-					&& (signChanged(f, x))) { // if
-												// left
-												// endpoint
-												// is
-												// root
-												// by
-												// pure
-												// luck...
+					&& (signChanged(f, x))) {
 				add(xlist, x, f);
 			} // if
 			if (i > 0) {
 				if (((y[i - 1] < 0.0d) && (y[i] > 0.0d)) || // or just
 															// y[i-1]*y[i]<0...
 						((y[i - 1] > 0.0d) && (y[i] < 0.0d))) {
-					xval = calcSingleRoot(f, x - deltax, x);
-					if (Math.abs(f.value(xval)) < Kernel.MIN_PRECISION) { // =1E-5:
-																				// Quite
-																				// large,
-																				// but
-																				// less
-																				// doesn't
-																				// work
-																				// in
-																				// Apache
-																				// lib...
-						add(xlist, xval, f);
-					} // if check
+					brackets.add(new Bracket(x - deltax, x));
 				} // if possible root
 			} // if both ends of interval
 		} // for all endpoints
+
+		refine(fun, brackets);
+		for (Bracket bracket : brackets) {
+			double xval = bracket.root;
+			// =1E-5: Quite large, but less doesn't work in Apache lib...
+			if (Math.abs(f.value(xval)) < Kernel.MIN_PRECISION) {
+				add(xlist, xval, f);
+			} // if check
+		}
 		if (xlist.size() > 0) {
 			double[] res = new double[xlist.size()];
 			for (int i = 0; i < xlist.size(); i++) {
@@ -369,6 +396,59 @@ public class AlgoRoots extends AlgoGeoPointsFunction {
 		return null;
 	}
 
+	/**
+	 * @return compiled evaluator of f if it may be used from several threads,
+	 *         f otherwise
+	 */
+	private static UnivariateFunction getEvaluator(GeoFunction f) {
+		FunctionEvaluator evaluator = f.createEvaluator();
+		return evaluator != null && evaluator.isReentrant() ? evaluator : f;
+	}
+
+	/**
+	 * Computes roots in all brackets, each with its own solver (and its own
+	 * copy of a reentrant evaluator when running in parallel).
+	 */
+	private static void refine(UnivariateFunction fun,
+			ArrayList<Bracket> brackets) {
+		UtilFactory factory = UtilFactory.getPrototype();
+		TaskRunner runner = factory == null ? null : factory.getTaskRunner();
+		boolean parallel = runner != null && runner.getParallelism() > 1
+				&& brackets.size() >= PARALLEL_BRACKETS
+				&& fun instanceof FunctionEvaluator;
+		for (Bracket bracket : brackets) {
+			bracket.fun = parallel ? ((FunctionEvaluator) fun).copy() : fun;
+		}
+		if (parallel) {
+			runner.runAll(brackets.toArray(new Runnable[0]));
+		} else {
+			for (Bracket bracket : brackets) {
+				bracket.run();
+			}
+		}
+	}
+
+	/**
+	 * Interval with a sign change of the function.
+	 */
+	private static class Bracket implements Runnable {
+		final double left;
+		final double right;
+		UnivariateFunction fun;
+		double root = Double.NaN;
+
+		Bracket(double left, double right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public void run() {
+			root = calcSingleRoot(fun, left, right);
+			fun = null;
+		}
+	}
+
 	private static void add(ArrayList<Double> xlist, double root,
 			GeoFunction f) {
 		double root2 = DoubleUtil.checkRoot(root, f);
@@ -384,14 +464,17 @@ public class AlgoRoots extends AlgoGeoPointsFunction {
 	 */
 	public final static double calcSingleRoot(GeoFunction f, double left,
 			double right) {
-		BrentSolver rootFinder = new BrentSolver();
-
 		if (!f.isDefined()) {
 			return Double.NaN;
 		}
 
+		return calcSingleRoot(f.getFunction(), left, right);
+	}
+
+	private static double calcSingleRoot(UnivariateFunction fun, double left,
+			double right) {
+		BrentSolver rootFinder = new BrentSolver();
 		double root = Double.NaN;
-		Function fun = f.getFunction();
 
 		try {
 			// Brent's method
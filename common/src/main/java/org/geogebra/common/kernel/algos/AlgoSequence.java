@@ -27,6 +27,7 @@ import org.geogebra.common.kernel.geos.GeoList;
 import org.geogebra.common.kernel.geos.GeoNumberValue;
 import org.geogebra.common.kernel.geos.GeoNumeric;
 import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.debug.Log;
 
@@ -38,6 +39,12 @@ import org.geogebra.common.util.debug.Log;
  */
 public class AlgoSequence extends AlgoElement {
 
+	/**
+	 * numeric sequences with at least this many elements are stored as
+	 * values, see {@link GeoList#setNumericValues(double[], int)}
+	 */
+	public static final int MIN_NUMERIC_STORAGE_SIZE = 1000;
+
 	private GeoElementND expression; // input expression dependent on var
 	private GeoNumeric var; // input: local variable
 	private GeoNumberValue var_from;
@@ -215,6 +222,9 @@ public class AlgoSequence extends AlgoElement {
 		boolean setValuesOnly = (from == last_from && to == last_to
 				&& step == last_step);
 
+		// there are no elements to update in a list storing values
+		setValuesOnly = setValuesOnly && list.getNumericValues() == null;
+
 		// setValues does not work for functions
 		setValuesOnly = setValuesOnly && !expIsFunctionOrCurve;
 
@@ -223,7 +233,9 @@ public class AlgoSequence extends AlgoElement {
 		cons.setSuppressLabelCreation(true);
 
 		// update list
-		if (setValuesOnly) {
+		if (useNumericStorage(from, to, step)) {
+			computeNumericValues(from, to, step);
+		} else if (setValuesOnly) {
 			updateListItems(from, to, step);
 		} else {
 			createNewList(from, to, step);
@@ -277,7 +289,9 @@ public class AlgoSequence extends AlgoElement {
 
 		// if the old list was longer than the new one
 		// we need to set some cached elements to undefined
-		for (int k = oldListSize - 1; k >= i; k--) {
+		// (list storing values may have less cached elements than values)
+		for (int k = Math.min(oldListSize, list.getCacheSize()) - 1; k >= i;
+				k--) {
 			GeoElement oldElement = list.getCached(k);
 			oldElement.setUndefined();
 			oldElement.update();
@@ -289,6 +303,51 @@ public class AlgoSequence extends AlgoElement {
 		last_step = step;
 	}
 
+	/**
+	 * @return whether the sequence only contains plain numbers and is long
+	 *         enough to store values instead of elements
+	 */
+	private boolean useNumericStorage(double from, double to, double step) {
+		if (isEmpty || expIsFunctionOrCurve
+				|| expression.getGeoClassType() != GeoClass.NUMERIC
+				|| expression.getDrawAlgorithm() instanceof DrawInformationAlgo
+				|| Double.isInfinite((to - from) / step)) {
+			return false;
+		}
+		return Math.ceil((to - from) / step) + 1 >= MIN_NUMERIC_STORAGE_SIZE;
+	}
+
+	private void computeNumericValues(double from, double to, double step) {
+		double[] values = list.getNumericBuffer(
+				(int) Math.ceil((to - from) / step) + 1);
+		int i = 0;
+		double currentVal = from;
+		while ((step > 0 && currentVal <= to + Kernel.MIN_PRECISION)
+				|| (step < 0 && currentVal >= to - Kernel.MIN_PRECISION)) {
+			if (i == values.length) {
+				double[] grown = new double[2 * values.length];
+				System.arraycopy(values, 0, grown, 0, i);
+				values = grown;
+			}
+			// set local var value
+			updateLocalVar(currentVal);
+			values[i] = expression.isDefined()
+					? ((GeoNumeric) expression).getDouble() : Double.NaN;
+
+			currentVal += step;
+			if (DoubleUtil.isInteger(currentVal)) {
+				currentVal = Math.round(currentVal);
+			}
+			i++;
+		}
+		list.setNumericValues(values, i);
+
+		// remember current values
+		last_from = from;
+		last_to = to;
+		last_step = step;
+	}
+
 	private void addElement(int i) {
 		// only add new objects
 		GeoElement listElement = null;
@@ -194,7 +194,15 @@ public abstract class AlgoStats1D extends AlgoElement {
 		// list of numbers only, no frequencies
 		if (geoList2 == null) {
 			double val;
+			double[] values = geoList.getNumericValues();
 			for (int i = 0; i < size; i++) {
+				if (values != null) {
+					val = values[i];
+					sumVal += val;
+					sumSquares += val * val;
+					product *= val;
+					continue;
+				}
 				geo = geoList.get(i);
 				if (geo instanceof NumberValue) {
 					val = geo.evaluateDouble();
@@ -270,9 +278,10 @@ public abstract class AlgoStats1D extends AlgoElement {
 			double sumAbsoluteDeviation = 0;
 			if (geoList2 == null) {
 				double val;
+				double[] values = geoList.getNumericValues();
 				for (int i = 0; i < size; i++) {
-					geo = geoList.get(i);
-					val = geo.evaluateDouble();
+					val = values != null ? values[i]
+							: geoList.get(i).evaluateDouble();
 					sumAbsoluteDeviation += Math.abs(mu - val);
 				}
 			}
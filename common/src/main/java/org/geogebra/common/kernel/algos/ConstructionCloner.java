@@ -0,0 +1,413 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Locateable;
+import org.geogebra.common.kernel.MacroKernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.Command;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.FunctionVariable;
+import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
+import org.geogebra.common.kernel.arithmetic.Inspecting;
+import org.geogebra.common.kernel.arithmetic.Traversing;
+import org.geogebra.common.kernel.commands.Commands;
+import org.geogebra.common.kernel.commands.EvalInfo;
+import org.geogebra.common.kernel.geos.GeoBoolean;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.geos.GeoScriptAction;
+import org.geogebra.common.kernel.geos.GeoVec3D;
+import org.geogebra.common.kernel.kernelND.GeoCurveCartesianND;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.kernel.prover.AlgoProve;
+import org.geogebra.common.main.MyError;
+import org.geogebra.common.util.debug.Log;
+
+/**
+ * Copies construction elements into a macro kernel without the XML round trip
+ * of {@link org.geogebra.common.kernel.Macro#buildMacroXML}: free elements are
+ * copied, commands are processed with the copies of their input and
+ * expressions are copied with their variables replaced.
+ *
+ * Elements are handled the same way as when their XML is loaded, including
+ * the coordinates and values the XML restores for dependent elements (e.g.
+ * position of a point on a path, near-to position of an intersection point,
+ * value of a random number) and the visual style, caption, layer and
+ * visibility. Anything that needs more than that (e.g. unlabeled input,
+ * functions defined by expressions, special output XML, 3D coordinates,
+ * conditions to show object) is not copied, the caller should use a new macro kernel and
+ * load the XML instead.
+ */
+public class ConstructionCloner {
+
+	private final MacroKernel macroKernel;
+	private final Construction macroCons;
+	private final Set<ConstructionElement> elements;
+
+	/**
+	 * @param macroKernel
+	 *            empty macro kernel
+	 * @param elements
+	 *            elements of the macro construction sorted by construction
+	 *            index, see {@link org.geogebra.common.kernel.Macro#buildMacroXML}
+	 */
+	public ConstructionCloner(MacroKernel macroKernel,
+			Set<ConstructionElement> elements) {
+		this.macroKernel = macroKernel;
+		this.macroCons = macroKernel.getConstruction();
+		this.elements = elements;
+	}
+
+	/**
+	 * Copies the elements into the macro kernel.
+	 *
+	 * @return false if some element cannot be copied directly, the macro
+	 *         construction stays empty in that case
+	 */
+	public boolean copy() {
+		for (ConstructionElement ce : elements) {
+			if (!isCopyable(ce)) {
+				return false;
+			}
+		}
+		boolean oldInternalNames = macroKernel.isUsingInternalCommandNames();
+		macroKernel.setUseInternalCommandNames(true);
+		macroCons.setFileLoading(true);
+		boolean success = false;
+		try {
+			Iterator<ConstructionElement> it = elements.iterator();
+			while (it.hasNext()) {
+				ConstructionElement ce = it.next();
+				if (ce.isGeoElement()) {
+					copyGeo((GeoElement) ce);
+				} else if (ce.isAlgoElement()) {
+					if (!copyAlgo((AlgoElement) ce)) {
+						return false;
+					}
+				}
+			}
+			success = hasAllLabels();
+			return success;
+		} catch (MyError e) {
+			Log.debug("direct copy failed: " + e.getMessage());
+			return false;
+		} catch (Exception e) {
+			Log.debug("direct copy failed: " + e.getMessage());
+			return false;
+		} finally {
+			macroCons.setFileLoading(false);
+			macroKernel.setUseInternalCommandNames(oldInternalNames);
+			if (!success) {
+				removeCopies();
+			}
+		}
+	}
+
+	/**
+	 * Removes all elements of the macro construction, this also unregisters
+	 * the copied algorithms from elements of the parent construction.
+	 */
+	private void removeCopies() {
+		GeoElement[] copies = macroCons.getGeoSetConstructionOrder()
+				.toArray(new GeoElement[0]);
+		for (int i = copies.length - 1; i >= 0; i--) {
+			copies[i].remove();
+		}
+	}
+
+	private boolean isCopyable(ConstructionElement ce) {
+		if (ce.isGeoElement()) {
+			GeoElement geo = (GeoElement) ce;
+			// conditions and color functions might refer to elements of the
+			// original construction
+			if (geo.getShowObjectCondition() != null
+					|| geo.getColorFunction() != null) {
+				return false;
+			}
+			AlgoElement algo = geo.getParentAlgorithm();
+			return (algo != null && elements.contains(algo))
+					|| (geo.isLabelSet() && isCopyableValue(geo));
+		}
+		if (ce.isAlgoElement()) {
+			AlgoElement algo = (AlgoElement) ce;
+			if (!algo.isPrintedInXML()) {
+				return true;
+			}
+			for (int i = 0; i < algo.getOutputLength(); i++) {
+				// 3D coordinates are restored by Kernel3D.handleCoords
+				if (algo.getOutput(i).isGeoElement3D()) {
+					return false;
+				}
+			}
+			String name = algo.getDefinitionName(StringTemplate.xmlTemplate);
+			return algo.hasExpXML(name) ? isCopyableExpression(algo)
+					: isCopyableCommand(algo, name);
+		}
+		return false;
+	}
+
+	private boolean hasAllLabels() {
+		for (ConstructionElement ce : elements) {
+			if (ce.isGeoElement() && ((GeoElement) ce).isLabelSet()) {
+				GeoElement copy = macroKernel
+						.lookupLabel(((GeoElement) ce).getLabelSimple());
+				if (copy == null || copy.getConstruction() != macroCons) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copies an element that is free in the macro construction; outputs of
+	 * copied algorithms are skipped.
+	 */
+	private void copyGeo(GeoElement geo) {
+		AlgoElement algo = geo.getParentAlgorithm();
+		if (algo != null && elements.contains(algo)) {
+			return;
+		}
+		GeoElement copy = geo.copyInternal(macroCons);
+		if (!geo.isIndependent()) {
+			copy.setDefinition(null);
+		}
+		copy.setLoadedLabel(geo.getLabelSimple());
+		copyVisualState(geo, copy);
+	}
+
+	private static boolean isCopyableValue(GeoElement geo) {
+		if (geo instanceof Locateable
+				&& ((Locateable) geo).getStartPoint() != null) {
+			return false;
+		}
+		if (geo instanceof FunctionalNVar || geo.isGeoList()) {
+			// values might refer to elements of the original construction
+			return geo.isIndependent();
+		}
+		return geo.isGeoNumeric() || geo.isGeoBoolean() || geo.isGeoPoint()
+				|| geo.isGeoVector() || geo.isGeoLine() || geo.isGeoConic();
+	}
+
+	private boolean copyAlgo(AlgoElement algo) throws Exception {
+		if (!algo.isPrintedInXML()) {
+			return true;
+		}
+		String name = algo.getDefinitionName(StringTemplate.xmlTemplate);
+		if (algo.hasExpXML(name)) {
+			return copyExpression(algo);
+		}
+		return copyCommand(algo, name);
+	}
+
+	private static boolean isCopyableCommand(AlgoElement algo, String name) {
+		if (algo.getOutputLength() > 0
+				&& algo.getOutput(0) instanceof GeoScriptAction) {
+			return true;
+		}
+		if ("".equals(name) || "Sequence".equals(name)
+				|| "CurveCartesian".equals(name) || "Surface".equals(name)
+				|| algo instanceof AlgoListElement
+				|| algo.getClassName().equals(Commands.Cell)
+				|| algo.getClassName().equals(Commands.Object)
+				|| (algo.getOutputLength() > 0
+						&& algo.getOutput(0) instanceof FunctionalNVar)
+				|| hasOutputSizes(algo)) {
+			return false;
+		}
+		for (int i = 0; i < algo.getInputLengthForXML(); i++) {
+			if (!algo.getInput(i).isLabelSet()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean copyCommand(AlgoElement algo, String name) {
+		if (algo.getOutputLength() > 0
+				&& algo.getOutput(0) instanceof GeoScriptAction) {
+			return true;
+		}
+		Command cmd = new Command(macroKernel, name, false);
+		for (int i = 0; i < algo.getInputLengthForXML(); i++) {
+			GeoElement copy = lookupCopy(algo.getInput(i).toGeoElement());
+			if (copy == null) {
+				return false;
+			}
+			cmd.addArgument(new ExpressionNode(macroKernel, copy));
+		}
+		int countLabels = 0;
+		String[] labels = new String[algo.getOutputLength()];
+		for (int i = 0; i < labels.length; i++) {
+			GeoElement geo = algo.getOutputForCmdXML(i);
+			if (geo.isLabelSet()) {
+				labels[i] = geo.getLabelSimple();
+				countLabels++;
+			}
+			cmd.addLabel(labels[i]);
+		}
+		// like in XML: commands without labeled output are not processed
+		if (countLabels == 0) {
+			return true;
+		}
+		GeoElement[] output = macroKernel.getAlgebraProcessor()
+				.processCommand(cmd, new EvalInfo(true));
+		if (output == null || output.length != labels.length) {
+			return false;
+		}
+		for (int i = 0; i < labels.length; i++) {
+			if (labels[i] != null && output[i] != null) {
+				output[i].setLoadedLabel(labels[i]);
+				copyState(algo.getOutputForCmdXML(i), output[i]);
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasOutputSizes(AlgoElement algo) {
+		StringBuilder sb = new StringBuilder();
+		algo.getCmdOutputXML(sb, StringTemplate.xmlTemplate);
+		return sb.indexOf("outputSizes") >= 0;
+	}
+
+	private static boolean isCopyableExpression(AlgoElement algo) {
+		if (algo.getOutputLength() != 1) {
+			return false;
+		}
+		GeoElement out = algo.getOutput(0);
+		ExpressionNode definition = out.getDefinition();
+		return out.isLabelSet() && definition != null
+				&& (out.isGeoNumeric() || out.isGeoBoolean()
+						|| out.isGeoPoint() || out.isGeoVector())
+				&& !definition.inspect(Inspecting.CommandFinder.INSTANCE)
+				&& !definition.inspect(new UnsupportedLeafFinder());
+	}
+
+	private boolean copyExpression(AlgoElement algo) throws Exception {
+		GeoElement out = algo.getOutput(0);
+		ExpressionNode definition = out.getDefinition();
+		ExpressionNode copy = definition.getCopy(macroKernel)
+				.traverse(new LabelReplacer()).wrap();
+		if (copy.inspect(new ForeignGeoFinder())) {
+			return false;
+		}
+		copy.setLabel(out.getLabelSimple());
+		if (out.isGeoPoint()) {
+			copy.setForcePoint();
+		} else if (out.isGeoVector()) {
+			copy.setForceVector();
+		}
+		GeoElementND[] result = macroKernel.getAlgebraProcessor()
+				.processValidExpression(copy,
+						new EvalInfo(!macroCons.isSuppressLabelsActive(), true)
+								.withSymbolicMode(
+										macroKernel.getSymbolicMode()));
+		if (result == null || result.length != 1) {
+			return false;
+		}
+		result[0].setLoadedLabel(out.getLabelSimple());
+		copyState(out, result[0].toGeoElement());
+		return true;
+	}
+
+	/**
+	 * Sets what the XML of a dependent element sets after its command or
+	 * expression was processed: the path parameter of points on curves
+	 * (&lt;curveParam&gt;), coordinates (&lt;coords&gt;, see
+	 * Kernel.handleCoords) and values of numbers and booleans
+	 * (&lt;value&gt;). The definition of the copy is kept.
+	 */
+	private static void copyState(GeoElement geo, GeoElement copy) {
+		ExpressionNode definition = copy.getDefinition();
+		if (geo instanceof GeoVec3D && copy instanceof GeoVec3D) {
+			AlgoElement algo = geo.getParentAlgorithm();
+			if (algo instanceof AlgoPointOnPath
+					&& ((AlgoPointOnPath) algo)
+							.getPath() instanceof GeoCurveCartesianND
+					&& copy instanceof GeoPoint) {
+				((GeoPoint) copy).getPathParameter()
+						.setT(((GeoPoint) geo).getPathParameter().t);
+			}
+			GeoVec3D coords = (GeoVec3D) geo;
+			GeoVec3D copyCoords = (GeoVec3D) copy;
+			copyCoords.hasUpdatePrevilege = true;
+			copyCoords.setCoords(coords.getX(), coords.getY(), coords.getZ());
+		} else if (geo.isGeoNumeric() && copy.isGeoNumeric()) {
+			((GeoNumeric) copy).setValue(((GeoNumeric) geo).getValue());
+			((GeoNumeric) copy).setRandom(((GeoNumeric) geo).isRandom());
+		} else if (geo.isGeoBoolean() && copy.isGeoBoolean()
+				&& !(copy.getParentAlgorithm() instanceof AlgoProve)) {
+			((GeoBoolean) copy).setValue(((GeoBoolean) geo).getBoolean());
+		}
+		copy.setDefinition(definition);
+		copyVisualState(geo, copy);
+	}
+
+	/**
+	 * Sets the style, caption, layer and visibility the XML of an element
+	 * sets; outputs of tools take these from the macro construction (see
+	 * AlgoMacro).
+	 */
+	private static void copyVisualState(GeoElement geo, GeoElement copy) {
+		copy.setVisualStyle(geo);
+		copy.setLayer(geo.getLayer());
+		copy.setCaption(geo.getRawCaption());
+		copy.setEuclidianVisible(geo.isSetEuclidianVisible());
+		copy.setAlgebraVisible(geo.isAlgebraVisible());
+	}
+
+	/**
+	 * @return element that a reference to the given element resolves to in
+	 *         the macro construction
+	 */
+	private GeoElement lookupCopy(GeoElement geo) {
+		if (!geo.isLabelSet()) {
+			return null;
+		}
+		return macroKernel.lookupLabel(geo.getLabelSimple());
+	}
+
+	/**
+	 * Finds values that would be parsed differently from their string
+	 */
+	private static class UnsupportedLeafFinder implements Inspecting {
+		@Override
+		public boolean check(ExpressionValue v) {
+			return v instanceof FunctionVariable
+					|| (v instanceof GeoElement
+							&& !((GeoElement) v).isLabelSet());
+		}
+	}
+
+	/**
+	 * Replaces elements by the elements their labels refer to in the macro
+	 * construction.
+	 */
+	private class LabelReplacer implements Traversing {
+		@Override
+		public ExpressionValue process(ExpressionValue ev) {
+			if (ev instanceof GeoElement) {
+				GeoElement copy = lookupCopy((GeoElement) ev);
+				return copy == null ? ev : copy;
+			}
+			return ev;
+		}
+	}
+
+	/**
+	 * Finds elements that were not replaced by their copies
+	 */
+	private class ForeignGeoFinder implements Inspecting {
+		@Override
+		public boolean check(ExpressionValue v) {
+			return v instanceof GeoElement
+					&& lookupCopy((GeoElement) v) != v;
+		}
+	}
+
+}
@@ -0,0 +1,219 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
+import org.geogebra.common.kernel.arithmetic.FunctionNVar;
+import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.util.TaskRunner;
+
+/**
+ * Values of a function of two variables at the points (x0 + col * dx, y0 +
+ * row * dy) of a rectangular grid.
+ *
+ * The values of the last evaluated grid are kept: when the grid is only
+ * translated by whole cells, just the newly exposed rows and columns are
+ * evaluated. Rows are evaluated in parallel when the function is a function
+ * of two variables with a reentrant compiled evaluator.
+ */
+public class FunctionGrid {
+
+	private final FunctionalNVar function;
+	private final GeoElement geo;
+	private FunctionEvaluator evaluator;
+	private boolean valid;
+	private int functionUpdate;
+
+	private double x0;
+	private double y0;
+	private double dx;
+	private double dy;
+	private long col0;
+	private long row0;
+	private int cols;
+	private int rows;
+	private double[] values;
+	private int evaluations;
+
+	/**
+	 * @param function
+	 *            function of x and y (a function of x or y is evaluated
+	 *            sequentially through {@link FunctionalNVar#evaluate(double,
+	 *            double)})
+	 */
+	public FunctionGrid(FunctionalNVar function) {
+		this.function = function;
+		this.geo = (GeoElement) function;
+	}
+
+	/**
+	 * Makes sure the values of the given grid are available.
+	 *
+	 * @param x0
+	 *            x-coord of column 0
+	 * @param y0
+	 *            y-coord of row 0
+	 * @param col0
+	 *            index of the first column
+	 * @param row0
+	 *            index of the first row
+	 * @param cols
+	 *            number of columns
+	 * @param rows
+	 *            number of rows
+	 * @param dx
+	 *            distance of columns
+	 * @param dy
+	 *            distance of rows
+	 */
+	public void evaluate(double x0, double y0, long col0, long row0, int cols,
+			int rows, double dx, double dy) {
+		double[] oldValues = values;
+		if (values == null || !valid
+				|| functionUpdate != geo.getUpdateCount() || x0 != this.x0
+				|| y0 != this.y0 || dx != this.dx || dy != this.dy) {
+			oldValues = null;
+			functionUpdate = geo.getUpdateCount();
+			valid = function.isDefined();
+			FunctionNVar fun = function.getFunction();
+			evaluator = valid && function instanceof GeoFunctionNVar
+					&& fun != null && fun.getVarNumber() == 2
+							? fun.createEvaluator() : null;
+		}
+		long oldCol0 = this.col0;
+		long oldRow0 = this.row0;
+		int oldCols = this.cols;
+		int oldRows = this.rows;
+		this.x0 = x0;
+		this.y0 = y0;
+		this.dx = dx;
+		this.dy = dy;
+		this.col0 = col0;
+		this.row0 = row0;
+		this.cols = cols;
+		this.rows = rows;
+		values = new double[cols * rows];
+		if (!valid) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = Double.NaN;
+			}
+			return;
+		}
+
+		// copy known values, collect rows with missing values
+		Row[] missing = new Row[rows];
+		int missingCount = 0;
+		int from = (int) Math.max(0, Math.min(cols, oldCol0 - col0));
+		int to = (int) Math.max(0, Math.min(cols, oldCol0 + oldCols - col0));
+		for (int j = 0; j < rows; j++) {
+			long oldRow = row0 + j - oldRow0;
+			if (oldValues != null && oldRow >= 0 && oldRow < oldRows
+					&& from < to) {
+				System.arraycopy(oldValues,
+						(int) (oldRow * oldCols + col0 + from - oldCol0),
+						values, j * cols + from, to - from);
+				if (from > 0 || to < cols) {
+					missing[missingCount++] = new Row(j, from, to);
+				}
+			} else {
+				missing[missingCount++] = new Row(j, 0, 0);
+			}
+		}
+		runRows(missing, missingCount);
+	}
+
+	private void runRows(Row[] rowTasks, int count) {
+		UtilFactory factory = UtilFactory.getPrototype();
+		TaskRunner runner = factory == null ? null : factory.getTaskRunner();
+		boolean parallel = runner != null && runner.getParallelism() > 1
+				&& count > 1 && evaluator != null && evaluator.isReentrant();
+		for (int i = 0; i < count; i++) {
+			rowTasks[i].evaluator = parallel ? evaluator.copy() : evaluator;
+			evaluations += rowTasks[i].getMissingCount();
+		}
+		if (parallel) {
+			Runnable[] tasks = new Runnable[count];
+			System.arraycopy(rowTasks, 0, tasks, 0, count);
+			runner.runAll(tasks);
+		} else {
+			for (int i = 0; i < count; i++) {
+				rowTasks[i].run();
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the missing values of one row: all columns except those in
+	 * [knownFrom, knownTo).
+	 */
+	private class Row implements Runnable {
+		private final int row;
+		private final int knownFrom;
+		private final int knownTo;
+		FunctionEvaluator evaluator;
+
+		Row(int row, int knownFrom, int knownTo) {
+			this.row = row;
+			this.knownFrom = knownFrom;
+			this.knownTo = knownTo;
+		}
+
+		int getMissingCount() {
+			return cols - (knownTo - knownFrom);
+		}
+
+		@Override
+		public void run() {
+			double y = getY(row);
+			int start = row * cols;
+			for (int i = 0; i < knownFrom; i++) {
+				values[start + i] = evaluate(getX(i), y);
+			}
+			for (int i = knownTo; i < cols; i++) {
+				values[start + i] = evaluate(getX(i), y);
+			}
+		}
+
+		private double evaluate(double x, double y) {
+			return evaluator == null ? function.evaluate(x, y)
+					: evaluator.evaluate(x, y);
+		}
+	}
+
+	/**
+	 * @param col
+	 *            column relative to the first column of the grid
+	 * @return x-coord of the column
+	 */
+	public double getX(int col) {
+		return x0 + (col0 + col) * dx;
+	}
+
+	/**
+	 * @param row
+	 *            row relative to the first row of the grid
+	 * @return y-coord of the row
+	 */
+	public double getY(int row) {
+		return y0 + (row0 + row) * dy;
+	}
+
+	/**
+	 * @param col
+	 *            column relative to the first column of the grid
+	 * @param row
+	 *            row relative to the first row of the grid
+	 * @return function value
+	 */
+	public double get(int col, int row) {
+		return values[row * cols + col];
+	}
+
+	/**
+	 * @return number of function evaluations so far
+	 */
+	public int getEvaluations() {
+		return evaluations;
+	}
+}
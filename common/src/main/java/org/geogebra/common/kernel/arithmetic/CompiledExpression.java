@@ -0,0 +1,388 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.plugin.Operation;
+import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.MyMath;
+
+/**
+ * Expression tree compiled into a flat postfix program. The program is
+ * immutable and takes the values of function variables as arguments, so it
+ * can be evaluated from several threads at the same time (each thread needs
+ * its own stack, see {@link FunctionEvaluator}).
+ *
+ * Numbers and GeoNumerics are read at evaluation time, so the program stays
+ * valid when they change. Subtrees that don't depend on function variables
+ * are evaluated by the tree walker; the compilation fails if an unsupported
+ * operation depends on a function variable. Compiled operations give exactly
+ * the same results as {@link ExpressionNodeEvaluator}, including the special
+ * cases of {@link MyDouble}.
+ */
+public final class CompiledExpression {
+
+	private static final int VAR = 0;
+	private static final int VALUE = 1;
+	private static final int PLUS = 2;
+	private static final int MINUS = 3;
+	private static final int MULTIPLY = 4;
+	private static final int DIVIDE = 5;
+	private static final int POWER = 6;
+	private static final int POWER_FRACTION = 7;
+	private static final int SIN = 8;
+	private static final int COS = 9;
+	private static final int TAN = 10;
+	private static final int SQRT = 11;
+	private static final int CBRT = 12;
+	private static final int EXP = 13;
+	private static final int LOG = 14;
+	private static final int ABS = 15;
+	private static final int SINH = 16;
+	private static final int COSH = 17;
+	private static final int TANH = 18;
+
+	private final int[] code;
+	private final int[] args;
+	private final ExpressionValue[] values;
+	private final int stackSize;
+	private final int varCount;
+
+	private CompiledExpression(int[] code, int[] args,
+			ExpressionValue[] values, int stackSize, int varCount) {
+		this.code = code;
+		this.args = args;
+		this.values = values;
+		this.stackSize = stackSize;
+		this.varCount = varCount;
+	}
+
+	/**
+	 * @param expression
+	 *            expression
+	 * @param fVars
+	 *            function variables
+	 * @return compiled program or null if the expression contains operations
+	 *         on function variables that can't be compiled
+	 */
+	public static CompiledExpression compile(ExpressionNode expression,
+			FunctionVariable[] fVars) {
+		if (expression == null || fVars == null) {
+			return null;
+		}
+		Compiler compiler = new Compiler(fVars);
+		if (!compiler.append(expression)) {
+			return null;
+		}
+		return compiler.build();
+	}
+
+	/**
+	 * @return number of stack slots needed for evaluation
+	 */
+	public int getStackSize() {
+		return stackSize;
+	}
+
+	/**
+	 * @return number of function variables
+	 */
+	public int getVarCount() {
+		return varCount;
+	}
+
+	/**
+	 * @param vars
+	 *            values of function variables
+	 * @param stack
+	 *            scratch array of length at least {@link #getStackSize()}
+	 * @return value of the expression
+	 */
+	public double evaluate(double[] vars, double[] stack) {
+		int top = -1;
+		final int length = code.length;
+		for (int pc = 0; pc < length; pc++) {
+			switch (code[pc]) {
+			case VAR:
+				stack[++top] = vars[args[pc]];
+				break;
+			case VALUE:
+				stack[++top] = value(values[args[pc]]);
+				break;
+			case PLUS:
+				top--;
+				stack[top] += stack[top + 1];
+				break;
+			case MINUS:
+				top--;
+				stack[top] -= stack[top + 1];
+				break;
+			case MULTIPLY:
+				top--;
+				stack[top] = multiply(stack[top], stack[top + 1]);
+				break;
+			case DIVIDE:
+				top--;
+				stack[top] /= stack[top + 1];
+				break;
+			case POWER:
+				top--;
+				stack[top] = power(stack[top], stack[top + 1]);
+				break;
+			case POWER_FRACTION:
+				top--;
+				// same as ExpressionNodeEvaluator.handlePower
+				stack[top] = stack[top] < 0
+						? ExpressionNodeEvaluator.negPower(stack[top],
+								values[args[pc]])
+						: power(stack[top], stack[top + 1]);
+				break;
+			case SIN:
+				stack[top] = checkZero(Math.sin(stack[top]));
+				break;
+			case COS:
+				stack[top] = checkZero(Math.cos(stack[top]));
+				break;
+			case TAN:
+				stack[top] = tan(stack[top]);
+				break;
+			case SQRT:
+				stack[top] = Math.sqrt(stack[top]);
+				break;
+			case CBRT:
+				stack[top] = MyMath.cbrt(stack[top]);
+				break;
+			case EXP:
+				stack[top] = Math.exp(stack[top]);
+				break;
+			case LOG:
+				stack[top] = Math.log(stack[top]);
+				break;
+			case ABS:
+				stack[top] = Math.abs(stack[top]);
+				break;
+			case SINH:
+				stack[top] = MyMath.sinh(stack[top]);
+				break;
+			case COSH:
+				stack[top] = MyMath.cosh(stack[top]);
+				break;
+			case TANH:
+				stack[top] = MyMath.tanh(stack[top]);
+				break;
+			default:
+				return Double.NaN;
+			}
+		}
+		return stack[0];
+	}
+
+	private static double value(ExpressionValue ev) {
+		if (ev instanceof ExpressionNode) {
+			return ev.evaluate(StringTemplate.defaultTemplate)
+					.evaluateDouble();
+		}
+		return ev.evaluateDouble();
+	}
+
+	/**
+	 * Same as {@link MyDouble#mult(MyDouble, double, MyDouble)}
+	 */
+	private static double multiply(double a, double b) {
+		// ? * anything = ?
+		if (Double.isNaN(a) || Double.isNaN(b)) {
+			return Double.NaN;
+		}
+		// (infinity) * (-infinity) = ?
+		if (Double.isInfinite(a) && Double.isInfinite(b)
+				&& Math.signum(a) != Math.signum(b)) {
+			return Double.NaN;
+		}
+		return a * b;
+	}
+
+	/**
+	 * Same as ExpressionNodeEvaluator.handlePower, except for negative base
+	 * with fractional exponent (see POWER_FRACTION)
+	 */
+	private static double power(double base, double exponent) {
+		// special case: e^exponent (Euler number)
+		if (MyDouble.exactEqual(base, Math.E)) {
+			return Math.exp(exponent);
+		}
+		return MyDouble.pow(base, exponent);
+	}
+
+	/**
+	 * Same as {@link MyDouble#tan()}
+	 */
+	private static double tan(double val) {
+		if (DoubleUtil.isEqual(Math.abs(val) % Math.PI, Kernel.PI_HALF)) {
+			return Double.NaN;
+		}
+		return checkZero(Math.tan(val));
+	}
+
+	/**
+	 * Same as MyDouble.checkZero: make sure cos(2790 degrees) gives zero
+	 */
+	private static double checkZero(double val) {
+		return DoubleUtil.isZero(val) ? 0 : val;
+	}
+
+	private static final class Compiler {
+		private final FunctionVariable[] fVars;
+		private final ArrayList<ExpressionValue> values = new ArrayList<>();
+		private int[] code = new int[16];
+		private int[] args = new int[16];
+		private int length = 0;
+		private int depth = 0;
+		private int maxDepth = 0;
+
+		Compiler(FunctionVariable[] fVars) {
+			this.fVars = fVars;
+		}
+
+		CompiledExpression build() {
+			int[] finalCode = new int[length];
+			int[] finalArgs = new int[length];
+			System.arraycopy(code, 0, finalCode, 0, length);
+			System.arraycopy(args, 0, finalArgs, 0, length);
+			return new CompiledExpression(finalCode, finalArgs,
+					values.toArray(new ExpressionValue[values.size()]),
+					Math.max(1, maxDepth), fVars.length);
+		}
+
+		private void emit(int op, int arg, int stackChange) {
+			if (length == code.length) {
+				int[] newCode = new int[2 * length];
+				int[] newArgs = new int[2 * length];
+				System.arraycopy(code, 0, newCode, 0, length);
+				System.arraycopy(args, 0, newArgs, 0, length);
+				code = newCode;
+				args = newArgs;
+			}
+			code[length] = op;
+			args[length] = arg;
+			length++;
+			depth += stackChange;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+
+		private int addValue(ExpressionValue ev) {
+			values.add(ev);
+			return values.size() - 1;
+		}
+
+		private int varIndex(ExpressionValue ev) {
+			for (int i = 0; i < fVars.length; i++) {
+				if (fVars[i] == ev) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * @return false if the value can't be compiled
+		 */
+		boolean append(ExpressionValue ev) {
+			if (ev instanceof FunctionVariable) {
+				int index = varIndex(ev);
+				if (index < 0) {
+					return false;
+				}
+				emit(VAR, index, 1);
+				return true;
+			}
+			if (ev instanceof MyDouble || ev instanceof GeoNumeric) {
+				emit(VALUE, addValue(ev), 1);
+				return true;
+			}
+			if (!(ev instanceof ExpressionNode)) {
+				return false;
+			}
+			ExpressionNode node = (ExpressionNode) ev;
+			if (node.isLeaf()) {
+				return append(node.getLeft());
+			}
+			if (!node.containsFunctionVariable()) {
+				// evaluated by the tree walker
+				if (!node.evaluatesToNumber(false)) {
+					return false;
+				}
+				emit(VALUE, addValue(node), 1);
+				return true;
+			}
+			int op = opcode(node.getOperation());
+			if (op < 0) {
+				return false;
+			}
+			if (op >= SIN) {
+				if (!append(node.getLeft())) {
+					return false;
+				}
+				emit(op, 0, 0);
+				return true;
+			}
+			if (!append(node.getLeft()) || !append(node.getRight())) {
+				return false;
+			}
+			if (op == POWER && node.getRight().isExpressionNode()
+					&& ((ExpressionNode) node.getRight())
+							.getOperation() == Operation.DIVIDE) {
+				// negative base with fractional exponent, exponent must not
+				// depend on variables as it is evaluated by the tree walker
+				if (((ExpressionNode) node.getRight())
+						.containsFunctionVariable()) {
+					return false;
+				}
+				emit(POWER_FRACTION, addValue(node.getRight()), -1);
+				return true;
+			}
+			emit(op, 0, -1);
+			return true;
+		}
+
+		private static int opcode(Operation operation) {
+			switch (operation) {
+			case PLUS:
+				return PLUS;
+			case MINUS:
+				return MINUS;
+			case MULTIPLY:
+				return MULTIPLY;
+			case DIVIDE:
+				return DIVIDE;
+			case POWER:
+				return POWER;
+			case SIN:
+				return SIN;
+			case COS:
+				return COS;
+			case TAN:
+				return TAN;
+			case SQRT:
+				return SQRT;
+			case CBRT:
+				return CBRT;
+			case EXP:
+				return EXP;
+			case LOG:
+				return LOG;
+			case ABS:
+				return ABS;
+			case SINH:
+				return SINH;
+			case COSH:
+				return COSH;
+			case TANH:
+				return TANH;
+			default:
+				return -1;
+			}
+		}
+	}
+}
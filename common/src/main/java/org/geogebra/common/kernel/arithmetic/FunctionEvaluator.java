@@ -0,0 +1,103 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+
+/**
+ * Evaluates a function using its compiled program if possible and the
+ * expression tree otherwise. Evaluators that are {@link #isReentrant()
+ * reentrant} don't share any mutable state with the function, so each thread
+ * may sample the same function using its own evaluator.
+ */
+public class FunctionEvaluator implements UnivariateFunction {
+
+	private final FunctionNVar function;
+	private final CompiledExpression program;
+	private final double[] vars;
+	private final double[] stack;
+
+	/**
+	 * @param function
+	 *            function
+	 * @param program
+	 *            compiled expression of the function, null to use the tree
+	 *            walker
+	 */
+	FunctionEvaluator(FunctionNVar function, CompiledExpression program) {
+		this.function = function;
+		this.program = program;
+		if (program == null) {
+			vars = null;
+			stack = null;
+		} else {
+			vars = new double[program.getVarCount()];
+			stack = new double[program.getStackSize()];
+		}
+	}
+
+	/**
+	 * @return whether this evaluator can be used in parallel with other
+	 *         evaluators of the same function
+	 */
+	public boolean isReentrant() {
+		return program != null;
+	}
+
+	/**
+	 * @return new evaluator for the same function that can be used by another
+	 *         thread
+	 */
+	public FunctionEvaluator copy() {
+		return new FunctionEvaluator(function, program);
+	}
+
+	/**
+	 * @return evaluated function
+	 */
+	public FunctionNVar getFunction() {
+		return function;
+	}
+
+	/**
+	 * @param x
+	 *            value of the first variable
+	 * @return function value
+	 */
+	@Override
+	public double value(double x) {
+		if (program == null) {
+			return function instanceof Function
+					? ((Function) function).value(x)
+					: function.evaluate(new double[] { x });
+		}
+		vars[0] = x;
+		return program.evaluate(vars, stack);
+	}
+
+	/**
+	 * @param x
+	 *            value of the first variable
+	 * @param y
+	 *            value of the second variable
+	 * @return function value
+	 */
+	public double evaluate(double x, double y) {
+		if (program == null) {
+			return function.evaluate(x, y);
+		}
+		vars[0] = x;
+		vars[1] = y;
+		return program.evaluate(vars, stack);
+	}
+
+	/**
+	 * @param values
+	 *            values of variables
+	 * @return function value
+	 */
+	public double evaluate(double[] values) {
+		if (program == null) {
+			return function.evaluate(values);
+		}
+		return program.evaluate(values, stack);
+	}
+}
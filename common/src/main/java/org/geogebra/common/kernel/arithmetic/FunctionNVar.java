@@ -478,6 +478,24 @@ public class FunctionNVar extends ValidExpression
 		return expression.evaluateDouble();
 	}
 
+	/**
+	 * Compiles the expression of this function if possible. The evaluator
+	 * should be created for each sampling pass, as it doesn't track changes
+	 * of the expression.
+	 * 
+	 * @return evaluator that may be used from a different thread than the
+	 *         evaluators of this function if it is reentrant
+	 */
+	public FunctionEvaluator createEvaluator() {
+		// subclasses may override value(), don't bypass them
+		boolean compilable = !isBooleanFunction
+				&& (getClass() == Function.class
+						|| getClass() == FunctionNVar.class);
+		CompiledExpression program = compilable
+				? CompiledExpression.compile(expression, fVars) : null;
+		return new FunctionEvaluator(this, program);
+	}
+
 	@Override
 	final public double evaluate(double x, double y) {
 		if (isBooleanFunction) {
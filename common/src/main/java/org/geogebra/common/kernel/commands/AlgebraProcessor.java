@@ -151,6 +151,7 @@ public class AlgebraProcessor {
 	protected final App app;
 	private final Localization loc;
 	private final ParserInterface parser;
+	private final ParsedExpressionCache parsedExpressions;
 	/** command dispatcher */
 	protected final CommandDispatcher cmdDispatcher;
 
@@ -187,6 +188,7 @@ public class AlgebraProcessor {
 		app = kernel.getApplication();
 		loc = app.getLocalization();
 		parser = kernel.getParser();
+		parsedExpressions = new ParsedExpressionCache(kernel, parser);
 		setEnableStructures(app.getConfig().isEnableStructures());
 	}
 
@@ -197,6 +199,13 @@ public class AlgebraProcessor {
 		return cmdDispatcher;
 	}
 
+	/**
+	 * @return cache of parsed input strings
+	 */
+	public ParsedExpressionCache getParsedExpressionCache() {
+		return parsedExpressions;
+	}
+
 	/**
 	 * Returns the localized name of a command subset. Indices are defined in
 	 * CommandDispatcher.
@@ -772,7 +781,7 @@ public class AlgebraProcessor {
 		}
 		ValidExpression ve;
 		try {
-			ve = parser.parseGeoGebraExpression(cmd);
+			ve = parsedExpressions.parseGeoGebraExpression(cmd);
 			GeoCasCell casEval = checkCasEval(ve.getLabel(), cmd, ve);
 			if (casEval != null) {
 				if (callback0 != null) {
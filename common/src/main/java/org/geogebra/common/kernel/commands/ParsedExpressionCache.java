@@ -0,0 +1,265 @@
+package org.geogebra.common.kernel.commands;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.Construction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.Command;
+import org.geogebra.common.kernel.arithmetic.ExpressionNode;
+import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.Inspecting;
+import org.geogebra.common.kernel.arithmetic.MyBoolean;
+import org.geogebra.common.kernel.arithmetic.MyDouble;
+import org.geogebra.common.kernel.arithmetic.MyList;
+import org.geogebra.common.kernel.arithmetic.MySpecialDouble;
+import org.geogebra.common.kernel.arithmetic.MyStringBuffer;
+import org.geogebra.common.kernel.arithmetic.MyVecNode;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.kernel.arithmetic.Variable;
+import org.geogebra.common.kernel.arithmetic3D.MyVec3DNode;
+import org.geogebra.common.kernel.parser.ParseException;
+import org.geogebra.common.kernel.parser.ParserInterface;
+import org.geogebra.common.util.MaxSizeHashMap;
+
+/**
+ * Keeps parsed expressions of recently processed input strings. Callers get a
+ * deep copy of the cached expression, so the cached one is never changed.
+ *
+ * Only expressions built from commands, operations, numbers, texts, lists,
+ * vectors and unresolved variables are cached; expressions containing elements
+ * or function variables are always parsed again. The parser resolves labels
+ * only for names followed by a bracket (e.g. f(2) is a command unless f is a
+ * function, see FunctionParser) and for the special names e, i, z, rad and
+ * deg (e.g. 2e is 2 times Euler's number unless e is defined), so a cached
+ * expression is used as long as each of these names is a label exactly when
+ * it was when the input was parsed. The cache is cleared when the language or
+ * other parser settings change and when the construction is cleared.
+ */
+public class ParsedExpressionCache {
+
+	private static final int MAX_SIZE = 500;
+	/** names the parser looks up wherever they occur, see Parser.jj */
+	private static final String[] SPECIAL_NAMES = { "e", "i", "z", "rad",
+			"deg" };
+
+	private final Kernel kernel;
+	private final ParserInterface parser;
+	private final MaxSizeHashMap<String, Template> templates = new MaxSizeHashMap<>(
+			MAX_SIZE);
+	/** parser state the cached expressions were parsed with */
+	private String parserState;
+	private int hits;
+	private int misses;
+
+	/**
+	 * @param kernel
+	 *            kernel
+	 * @param parser
+	 *            parser
+	 */
+	public ParsedExpressionCache(Kernel kernel, ParserInterface parser) {
+		this.kernel = kernel;
+		this.parser = parser;
+	}
+
+	/**
+	 * @param input
+	 *            input string
+	 * @return parsed expression, may be changed by the caller
+	 * @throws ParseException
+	 *             if the input cannot be parsed
+	 */
+	public ValidExpression parseGeoGebraExpression(String input)
+			throws ParseException {
+		Construction cons = kernel.getConstruction();
+		if (kernel.isMacroKernel()
+				|| cons.getRegisteredFunctionVariable() != null) {
+			return parser.parseGeoGebraExpression(input);
+		}
+		String state = getParserState();
+		if (!state.equals(parserState)) {
+			templates.clear();
+			parserState = state;
+		}
+		Template template = templates.get(input);
+		if (template != null && isValid(template, cons)) {
+			hits++;
+			return copy(template.expression);
+		}
+		misses++;
+		ValidExpression ve = parser.parseGeoGebraExpression(input);
+		// parsing f(x) registers function variables
+		if (cons.getRegisteredFunctionVariable() == null && isTemplate(ve)) {
+			String[] names = getNames(input);
+			templates.put(input, new Template(copy(ve), names,
+					getLabelStates(names), cons.getLabelsVersion(),
+					cons.getStep()));
+		}
+		return ve;
+	}
+
+	private String getParserState() {
+		return kernel.getLocalization().getLanguage() + ","
+				+ kernel.isUsingInternalCommandNames() + ","
+				+ kernel.getAlgebraProcessor().enableStructures();
+	}
+
+	/**
+	 * Labels are only looked up again when some label was added or removed
+	 * or the construction step changed since the last check.
+	 */
+	private boolean isValid(Template template, Construction cons) {
+		if (template.labelsVersion == cons.getLabelsVersion()
+				&& template.step == cons.getStep()) {
+			return true;
+		}
+		for (int i = 0; i < template.names.length; i++) {
+			if (isLabel(template.names[i]) != template.isLabel[i]) {
+				return false;
+			}
+		}
+		template.labelsVersion = cons.getLabelsVersion();
+		template.step = cons.getStep();
+		return true;
+	}
+
+	/**
+	 * Checks the labels the parser would look up for a function name: the
+	 * name itself and, for derivatives like f''(2), the names with fewer
+	 * primes.
+	 */
+	private boolean isLabel(String name) {
+		int end = name.length();
+		while (end > 1 && name.charAt(end - 1) == '\'') {
+			end--;
+		}
+		for (; end <= name.length(); end++) {
+			String label = name.substring(0, end);
+			if (kernel.lookupLabel(label) != null
+					|| kernel.lookupCasCellLabel(label) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean[] getLabelStates(String[] names) {
+		boolean[] labels = new boolean[names.length];
+		for (int i = 0; i < names.length; i++) {
+			labels[i] = isLabel(names[i]);
+		}
+		return labels;
+	}
+
+	/**
+	 * @return names directly followed by a bracket and special names
+	 *         contained in the input; may contain more names than the parser
+	 *         looks up, but not fewer
+	 */
+	private static String[] getNames(String input) {
+		ArrayList<String> names = new ArrayList<>();
+		for (String name : SPECIAL_NAMES) {
+			if (input.contains(name)) {
+				names.add(name);
+			}
+		}
+		for (int i = 1; i < input.length(); i++) {
+			char bracket = input.charAt(i);
+			if (bracket != '(' && bracket != '[') {
+				continue;
+			}
+			int start = i;
+			while (start > 0 && isNameChar(input.charAt(start - 1))) {
+				start--;
+			}
+			// names start with a letter, e.g. 2f(x) is 2 f(x)
+			while (start < i && !Character.isLetter(input.charAt(start))
+					&& input.charAt(start) != '$') {
+				start++;
+			}
+			if (start < i) {
+				names.add(input.substring(start, i));
+			}
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	private static boolean isNameChar(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '{'
+				|| c == '}' || c == '\'' || c == '$';
+	}
+
+	private ValidExpression copy(ValidExpression ve) {
+		ValidExpression copy = ve.deepCopy(kernel);
+		if (ve.getLabels() != null) {
+			copy.setLabels(ve.getLabels());
+		}
+		return copy;
+	}
+
+	private static boolean isTemplate(ValidExpression ve) {
+		return (ve instanceof ExpressionNode || ve instanceof Command)
+				&& !ve.inspect(NonTemplateFinder.INSTANCE);
+	}
+
+	/**
+	 * Finds parts of an expression that are not copied exactly or that depend
+	 * on the construction.
+	 */
+	private enum NonTemplateFinder implements Inspecting {
+		INSTANCE;
+
+		@Override
+		public boolean check(ExpressionValue v) {
+			Class<?> type = v.getClass();
+			return type != ExpressionNode.class && type != Command.class
+					&& type != MyDouble.class && type != MySpecialDouble.class
+					&& type != MyBoolean.class && type != MyStringBuffer.class
+					&& type != MyList.class && type != MyVecNode.class
+					&& type != MyVec3DNode.class && type != Variable.class;
+		}
+	}
+
+	/**
+	 * Parsed expression with the names the parser might have looked up and
+	 * whether they were labels when it was parsed.
+	 */
+	private static class Template {
+		final ValidExpression expression;
+		final String[] names;
+		final boolean[] isLabel;
+		/** labels version and step when the names were checked */
+		int labelsVersion;
+		int step;
+
+		Template(ValidExpression expression, String[] names, boolean[] isLabel,
+				int labelsVersion, int step) {
+			this.expression = expression;
+			this.names = names;
+			this.isLabel = isLabel;
+			this.labelsVersion = labelsVersion;
+			this.step = step;
+		}
+	}
+
+	/**
+	 * Removes all cached expressions.
+	 */
+	public void clear() {
+		templates.clear();
+	}
+
+	/**
+	 * @return number of inputs that were found in the cache
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return number of inputs that had to be parsed
+	 */
+	public int getMisses() {
+		return misses;
+	}
+}
@@ -36,6 +36,7 @@ public abstract class AlgoDiscrete extends AlgoElement implements GraphAlgo {
 	protected ArrayList<MyPoint> al;
 	/** number of points */
 	protected int size;
+	private PointListTriangulation triangulation;
 
 	/**
 	 * @param cons
@@ -72,4 +73,25 @@ public abstract class AlgoDiscrete extends AlgoElement implements GraphAlgo {
 		return locus;
 	}
 
+	/**
+	 * @return triangulation of the input points, shared with other discrete
+	 *         algos using the same list
+	 */
+	protected PointListTriangulation getTriangulation() {
+		if (triangulation == null) {
+			for (AlgoElement algo : inputList.getAlgorithmList()) {
+				if (algo instanceof AlgoDiscrete
+						&& ((AlgoDiscrete) algo).triangulation != null
+						&& ((AlgoDiscrete) algo).inputList == inputList) {
+					triangulation = ((AlgoDiscrete) algo).triangulation;
+					break;
+				}
+			}
+			if (triangulation == null) {
+				triangulation = new PointListTriangulation();
+			}
+		}
+		return triangulation;
+	}
+
 }
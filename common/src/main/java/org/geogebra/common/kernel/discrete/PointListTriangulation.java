@@ -0,0 +1,243 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.discrete.delaunay.DelaunayTriangulation;
+import org.geogebra.common.kernel.discrete.delaunay.PointDt;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoList;
+import org.geogebra.common.kernel.kernelND.GeoPointND;
+import org.geogebra.common.util.DoubleUtil;
+
+/**
+ * Delaunay triangulation of the points in a list, shared by all discrete
+ * algos using that list (see {@link AlgoDiscrete#getTriangulation()}).
+ *
+ * When only a few points moved since the last update (e.g. one point is
+ * dragged), they are deleted from the triangulation and inserted again
+ * instead of rebuilding the whole triangulation.
+ */
+public class PointListTriangulation {
+
+	/** shift for points with equal x or y coordinate */
+	private static final double DELTA = 0.0000001;
+	/** with more changed points the triangulation is rebuilt */
+	private static final int MAX_LOCAL_UPDATES = 8;
+
+	private DelaunayTriangulation dt;
+	/** input coordinates, NaN for undefined points */
+	private double[] xs = new double[0];
+	private double[] ys = new double[0];
+	/** vertex for each list element, null for undefined and duplicates */
+	private PointDt[] vertices = new PointDt[0];
+	/** grid cell of the input point of each vertex */
+	private Cell[] cells = new Cell[0];
+	/**
+	 * grid cell of an input point to the index of the element owning its
+	 * vertex; points in one cell are equal up to precision
+	 */
+	private final HashMap<Cell, Integer> owners = new HashMap<>();
+	/** number of defined points without vertex */
+	private int duplicates;
+	/** coordinates of vertices, each value is used at most once */
+	private final HashSet<Double> usedX = new HashSet<>();
+	private final HashSet<Double> usedY = new HashSet<>();
+	private final ArrayList<Integer> changed = new ArrayList<>();
+	private final double[] inhom = new double[2];
+
+	/**
+	 * Updates the triangulation to the current point coordinates.
+	 *
+	 * @param list
+	 *            list of points
+	 * @return triangulation of all distinct defined points of the list; check
+	 *         {@link DelaunayTriangulation#allCollinear} before use
+	 */
+	public DelaunayTriangulation update(GeoList list) {
+		int size = list.size();
+		if (dt == null || size != xs.length) {
+			xs = new double[size];
+			ys = new double[size];
+			readCoords(list);
+			rebuild();
+			return dt;
+		}
+		changed.clear();
+		for (int i = 0; i < size; i++) {
+			double x = xs[i];
+			double y = ys[i];
+			readCoords(list, i);
+			if (Double.compare(x, xs[i]) != 0
+					|| Double.compare(y, ys[i]) != 0) {
+				changed.add(i);
+			}
+		}
+		if (changed.isEmpty()) {
+			return dt;
+		}
+		// if the update fails with an exception, rebuild next time
+		DelaunayTriangulation current = dt;
+		dt = null;
+		if (updateLocally(current)) {
+			dt = current;
+		} else {
+			rebuild();
+		}
+		return dt;
+	}
+
+	/**
+	 * Moves changed points by deleting and inserting their vertices.
+	 *
+	 * @param current
+	 *            triangulation for previous coordinates
+	 * @return false if the triangulation needs to be rebuilt
+	 */
+	private boolean updateLocally(DelaunayTriangulation current) {
+		if (changed.size() > MAX_LOCAL_UPDATES || duplicates > 0
+				|| current.allCollinear || current.size() < 4) {
+			return false;
+		}
+		for (int i : changed) {
+			PointDt vertex = vertices[i];
+			if (vertex != null) {
+				// points on the convex hull can't be deleted
+				if (!current.deletePoint(vertex)) {
+					return false;
+				}
+				release(i);
+			}
+		}
+		for (int i : changed) {
+			if (Double.isNaN(xs[i])) {
+				continue;
+			}
+			if (isDuplicate(i)) {
+				// new duplicate
+				return false;
+			}
+			current.insertPoint(addVertex(i));
+		}
+		return true;
+	}
+
+	private void rebuild() {
+		dt = null;
+		owners.clear();
+		usedX.clear();
+		usedY.clear();
+		duplicates = 0;
+		vertices = new PointDt[xs.length];
+		cells = new Cell[xs.length];
+		ArrayList<PointDt> points = new ArrayList<>(xs.length);
+		for (int i = 0; i < xs.length; i++) {
+			if (Double.isNaN(xs[i])) {
+				continue;
+			}
+			if (isDuplicate(i)) {
+				duplicates++;
+				continue;
+			}
+			points.add(addVertex(i));
+		}
+		dt = new DelaunayTriangulation(
+				points.toArray(new PointDt[points.size()]));
+	}
+
+	private PointDt addVertex(int i) {
+		cells[i] = new Cell(xs[i], ys[i]);
+		owners.put(cells[i], i);
+		double x = xs[i];
+		double y = ys[i];
+
+		// work around a bug in the algorithm for Points with an equal x or
+		// y coordinate
+		while (usedX.contains(x)) {
+			x += DELTA;
+		}
+		while (usedY.contains(y)) {
+			y += DELTA;
+		}
+		usedX.add(x);
+		usedY.add(y);
+		vertices[i] = new PointDt(x, y);
+		return vertices[i];
+	}
+
+	private void release(int i) {
+		usedX.remove(vertices[i].x());
+		usedY.remove(vertices[i].y());
+		owners.remove(cells[i]);
+		vertices[i] = null;
+		cells[i] = null;
+	}
+
+	/**
+	 * Checks whether a vertex exists for a point that is equal to the i-th
+	 * point up to precision (like {@link PointDt#equals(Object)}). Such a point
+	 * is in the same or a neighbouring grid cell.
+	 */
+	private boolean isDuplicate(int i) {
+		Cell cell = new Cell(xs[i], ys[i]);
+		for (long cx = cell.x - 1; cx <= cell.x + 1; cx++) {
+			for (long cy = cell.y - 1; cy <= cell.y + 1; cy++) {
+				Integer owner = owners.get(new Cell(cx, cy));
+				if (owner != null && DoubleUtil.isEqual(xs[owner], xs[i])
+						&& DoubleUtil.isEqual(ys[owner], ys[i])) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void readCoords(GeoList list) {
+		for (int i = 0; i < xs.length; i++) {
+			readCoords(list, i);
+		}
+	}
+
+	private void readCoords(GeoList list, int i) {
+		GeoElement geo = list.get(i);
+		if (geo.isDefined() && geo.isGeoPoint()) {
+			((GeoPointND) geo).getInhomCoords(inhom);
+			xs[i] = inhom[0];
+			ys[i] = inhom[1];
+		} else {
+			xs[i] = Double.NaN;
+			ys[i] = Double.NaN;
+		}
+	}
+
+	/**
+	 * Cell of the grid with spacing {@link Kernel#STANDARD_PRECISION}; unlike
+	 * {@link PointDt} it has a hash code consistent with equals.
+	 */
+	private static final class Cell {
+		protected final long x;
+		protected final long y;
+
+		protected Cell(double x, double y) {
+			this((long) Math.floor(x / Kernel.STANDARD_PRECISION),
+					(long) Math.floor(y / Kernel.STANDARD_PRECISION));
+		}
+
+		protected Cell(long x, long y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Cell && ((Cell) o).x == x && ((Cell) o).y == y;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (x ^ (x >>> 32)) * 31 + (int) (y ^ (y >>> 32));
+		}
+	}
+}
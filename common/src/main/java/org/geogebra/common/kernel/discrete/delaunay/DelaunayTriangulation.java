@@ -173,30 +173,46 @@ public class DelaunayTriangulation {
 	 *            algorithm (2002).
 	 * 
 	 *            By Eyal Roth &amp; Doron Ganel (2009).
+	 * @return whether the point was deleted; points on the convex hull and
+	 *         points whose neighborhood is degenerate can't be deleted, the
+	 *         triangulation is unchanged in that case
 	 */
-	public void deletePoint(PointDt pointToDelete) {
+	public boolean deletePoint(PointDt pointToDelete) {
 
 		// Finding the triangles to delete.
 		Vector<PointDt> pointsVec = findConnectedVertices(pointToDelete, true);
 		if (pointsVec == null) {
-			return;
+			return false;
 		}
 
+		// new triangles must be Delaunay with respect to all neighbors, not
+		// only those that are not yet cut off
+		PointDt[] neighbors = new PointDt[pointsVec.size()];
+		pointsVec.toArray(neighbors);
 		while (pointsVec.size() >= 3) {
 			// Getting a triangle to add, and saving it.
-			TriangleDt triangle = findTriangle(pointsVec, pointToDelete);
-			addedTriangles.add(triangle);
+			TriangleDt triangle = findTriangle(pointsVec, pointToDelete,
+					neighbors);
 
 			// Finding the point on the diagonal (pointToDelete,p)
-			PointDt p = findDiagonal(triangle, pointToDelete);
-
-			for (PointDt tmpP : pointsVec) {
-				if (tmpP.equals(p)) {
-					pointsVec.removeElement(tmpP);
-					break;
-				}
+			PointDt p = triangle == null ? null
+					: findDiagonal(triangle, pointToDelete);
+			if (p == null || calcDet(triangle.p1(), triangle.p2(),
+					triangle.p3()) == 0 || !pointsVec.removeElement(p)) {
+				// no valid ear found (or a flat one), don't loop forever
+				addedTriangles.removeAllElements();
+				deletedTriangles = null;
+				return false;
 			}
+			addedTriangles.add(triangle);
+		}
+		// a star of k triangles is replaced by k - 2 triangles
+		if (addedTriangles.size() != deletedTriangles.size() - 2) {
+			addedTriangles.removeAllElements();
+			deletedTriangles = null;
+			return false;
 		}
+		_modCount++;
 		// updating the trangulation
 		deleteUpdate(pointToDelete);
 		for (TriangleDt t : deletedTriangles) {
@@ -211,6 +227,7 @@ public class DelaunayTriangulation {
 		nPoints = nPoints + addedTriangles.size() - deletedTriangles.size();
 		addedTriangles.removeAllElements();
 		deletedTriangles.removeAllElements();
+		return true;
 	}
 
 	/**
@@ -1265,7 +1282,8 @@ public class DelaunayTriangulation {
 
 		while (nextTriangle != firstTriangle) {
 			// the point is on the perimeter
-			if (nextTriangle.isHalfplane()) {
+			if (nextTriangle == null || nextTriangle.isHalfplane()
+					|| triangles.contains(nextTriangle)) {
 				return null;
 			}
 			triangles.add(nextTriangle);
@@ -1284,7 +1302,7 @@ public class DelaunayTriangulation {
 	 * 
 	 */
 	private static TriangleDt findTriangle(Vector<PointDt> pointsVec,
-			PointDt p) {
+			PointDt p, PointDt[] neighbors) {
 		PointDt[] arrayPoints = new PointDt[pointsVec.size()];
 		pointsVec.toArray(arrayPoints);
 
@@ -1294,8 +1312,9 @@ public class DelaunayTriangulation {
 		}
 		// if we left with 3 points we return the triangle
 		else if (size == 3) {
-			return new TriangleDt(arrayPoints[0], arrayPoints[1],
+			TriangleDt t = new TriangleDt(arrayPoints[0], arrayPoints[1],
 					arrayPoints[2]);
+			return t.fallInsideCircumcircle(neighbors) ? null : t;
 		} else {
 			for (int i = 0; i <= size - 1; i++) {
 				PointDt p1 = arrayPoints[i];
@@ -1314,7 +1333,7 @@ public class DelaunayTriangulation {
 				// check if the triangle is not re-entrant and not encloses p
 				TriangleDt t = new TriangleDt(p1, p2, p3);
 				if ((calcDet(p1, p2, p3) >= 0) && !t.contains(p)) {
-					if (!t.fallInsideCircumcircle(arrayPoints)) {
+					if (!t.fallInsideCircumcircle(neighbors)) {
 						return t;
 					}
 				}
@@ -1322,7 +1341,7 @@ public class DelaunayTriangulation {
 				// on boundary as outside
 				if (size == 4 && (calcDet(p1, p2, p3) >= 0)
 						&& !t.contains_BoundaryIsOutside(p)) {
-					if (!t.fallInsideCircumcircle(arrayPoints)) {
+					if (!t.fallInsideCircumcircle(neighbors)) {
 						return t;
 					}
 				}
@@ -1497,8 +1516,9 @@ public class DelaunayTriangulation {
 			Vector<TriangleDt> front = new Vector<>();
 			_triangles = new Vector<>();
 			front.add(this.startTriangle);
-			while (front.size() > 0) {
-				TriangleDt t = front.remove(0);
+			// breadth first search, front is never shrunk to avoid shifting
+			for (int i = 0; i < front.size(); i++) {
+				TriangleDt t = front.elementAt(i);
 				if (!t._mark) {
 					t._mark = true;
 					_triangles.add(t);
@@ -198,6 +198,9 @@ public class TriangleDt {
 		// Udi Schneider: Added a condition check for isHalfPlane. If the
 		// current
 		// neighbor is a half plane, we also want to move to the next neighbor
+		if (neighbor == null) {
+			return null;
+		}
 		if (neighbor.equals(prevTriangle) || neighbor.isHalfplane()) {
 			if (a.equals(p)) {
 				neighbor = abnext;
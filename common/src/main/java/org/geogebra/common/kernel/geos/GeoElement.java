@@ -19,7 +19,6 @@ the Free Software Foundation.
 package org.geogebra.common.kernel.geos;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -145,6 +144,8 @@ public abstract class GeoElement extends ConstructionElement
 	private boolean labelWanted = false;
 	/** tue if label is set */
 	private boolean labelSet = false;
+	/** number of updates, see getUpdateCount */
+	private int updateCount = 0;
 
 	private boolean localVarLabelSet = false;
 	private boolean euclidianVisible = true;
@@ -393,16 +394,6 @@ public abstract class GeoElement extends ConstructionElement
 	private List<Integer> viewFlags = null;
 
 	private NumberFormatAdapter numberFormatter6;
-	private static volatile TreeSet<AlgoElement> tempSet;
-
-	private static Comparator<AlgoElement> algoComparator = new Comparator<AlgoElement>() {
-
-		@Override
-		public int compare(AlgoElement o1, AlgoElement o2) {
-			return o1.compareTo(o2);
-		}
-
-	};
 
 	@Override
 	public int getColorSpace() {
@@ -3514,6 +3505,7 @@ public abstract class GeoElement extends ConstructionElement
 	 *            whether this was triggered by drag
 	 */
 	protected final void updateGeo(boolean mayUpdateCas, boolean dragging) {
+		updateCount++;
 
 		if (labelWanted && !isLabelSet()) {
 			// check if this object's label needs to be set
@@ -3530,6 +3522,14 @@ public abstract class GeoElement extends ConstructionElement
 		algebraStringsNeedUpdate();
 	}
 
+	/**
+	 * @return number of updates of this element; when it didn't change, values
+	 *         computed from this element (e.g. curve samples) can be reused
+	 */
+	public int getUpdateCount() {
+		return updateCount;
+	}
+
 	/**
 	 * @param mayUpdateCas
 	 *            whether CAS may need update
@@ -3608,7 +3608,7 @@ public abstract class GeoElement extends ConstructionElement
 				algoUpdateSet.updateAll();
 			} else {
 				// join both algoUpdateSets and update all algorithms
-				final TreeSet<AlgoElement> tempAlgoSet = getTempSet();
+				final TreeSet<AlgoElement> tempAlgoSet = cons.getTempAlgoSet();
 				tempAlgoSet.clear();
 				algoUpdateSet.addAllToCollection(tempAlgoSet);
 				secondGeo.algoUpdateSet.addAllToCollection(tempAlgoSet);
@@ -5993,16 +5993,6 @@ public abstract class GeoElement extends ConstructionElement
 		colFunction = null;
 	}
 
-	/**
-	 * @return temporary set of algoritms
-	 */
-	protected static TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null) {
-			tempSet = new TreeSet<>(algoComparator);
-		}
-		return tempSet;
-	}
-
 	/**
 	 * @param rwTransVec
 	 *            translation vector
@@ -6113,7 +6103,8 @@ public abstract class GeoElement extends ConstructionElement
 				tempMoveObjectList2 = new ArrayList<>();
 			}
 			tempMoveObjectList2.add(number);
-			updateCascade(tempMoveObjectList2, getTempSet(), false);
+			updateCascade(tempMoveObjectList2,
+					number.getConstruction().getTempAlgoSet(), false);
 		}
 	}
 
@@ -42,6 +42,7 @@ import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
 import org.geogebra.common.kernel.arithmetic.Function;
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
 import org.geogebra.common.kernel.arithmetic.FunctionNVar;
 import org.geogebra.common.kernel.arithmetic.FunctionVariable;
 import org.geogebra.common.kernel.arithmetic.FunctionalNVar;
@@ -607,6 +608,17 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		return fun.value(x);
 	}
 
+	/**
+	 * @return evaluator for this function (see
+	 *         {@link FunctionNVar#createEvaluator()}) or null if undefined
+	 */
+	public FunctionEvaluator createEvaluator() {
+		if (fun == null || !isDefined) {
+			return null;
+		}
+		return fun.createEvaluator();
+	}
+
 	/**
 	 * Returns this function's value at position x.
 	 * 
@@ -1408,6 +1420,28 @@ public class GeoFunction extends GeoElement implements VarString, Translateable,
 		}
 	}
 
+	/**
+	 * Same as {@link #evaluateCurve(double, double[])}, but the value is
+	 * computed by an evaluator of this function.
+	 * 
+	 * @param t
+	 *            parameter
+	 * @param out
+	 *            output array
+	 * @param evaluator
+	 *            evaluator created by {@link #createEvaluator()}
+	 */
+	public void evaluateCurve(double t, double[] out,
+			FunctionEvaluator evaluator) {
+		if (evalSwapped) {
+			out[1] = t;
+			out[0] = evaluator.value(t);
+		} else {
+			out[0] = t;
+			out[1] = evaluator.value(t);
+		}
+	}
+
 	/**
 	 * Evaluates curvature for function: k(x) = f''/T^3, T = sqrt(1+(f')^2)
 	 * 
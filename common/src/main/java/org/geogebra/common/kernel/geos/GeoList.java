@@ -13,6 +13,7 @@ the Free Software Foundation.
 package org.geogebra.common.kernel.geos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.TreeSet;
 
@@ -78,6 +79,18 @@ public class GeoList extends GeoElement
 	// so we keep a cacheList of all old list elements
 	private final ArrayList<GeoElementND> cacheList;
 
+	// numeric lists may store their values in an array instead of elements,
+	// GeoNumerics are only created for elements accessed by get(i)
+	private double[] numericValues;
+	// number of values in numericValues, -1 if elements are used
+	private int numericSize = -1;
+	private GeoNumeric[] numericViews;
+	// used to describe numeric values without creating views
+	private GeoNumeric numericScratch;
+	// shared by order statistics, reset whenever the list changes
+	private double[] sortedValues;
+	private boolean sortedValuesValid = false;
+
 	private boolean isDefined = true;
 	private boolean isDrawable = true;
 	private boolean drawAsComboBox = false;
@@ -199,9 +212,15 @@ public class GeoList extends GeoElement
 	@Override
 	public GeoList deepCopyGeo() {
 		GeoList ret = new GeoList(cons);
+		if (numericSize >= 0) {
+			double[] values = new double[numericSize];
+			System.arraycopy(numericValues, 0, values, 0, numericSize);
+			ret.setNumericValues(values, numericSize);
+			return ret;
+		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			ret.add(elements.get(i).deepCopyGeo());
+		for (int i = 0; i < size(); i++) {
+			ret.add(get(i).deepCopyGeo());
 		}
 
 		return ret;
@@ -252,8 +271,15 @@ public class GeoList extends GeoElement
 
 	private void copyListElements(final GeoList otherList) {
 		final int otherListSize = otherList.size();
+		double[] otherValues = otherList.getNumericValues();
+		if (otherValues != null) {
+			double[] values = getNumericBuffer(otherListSize);
+			System.arraycopy(otherValues, 0, values, 0, otherListSize);
+			setNumericValues(values, otherListSize);
+			return;
+		}
 		ensureCapacity(otherListSize);
-		elements.clear();
+		clear();
 
 		for (int i = 0; i < otherListSize; i++) {
 			final GeoElement otherElement = otherList.get(i);
@@ -571,11 +597,11 @@ public class GeoList extends GeoElement
 	 */
 	@Override
 	public MyList getMyList() {
-		final int size = elements.size();
+		final int size = size();
 		final MyList myList = new MyList(kernel, size);
 
 		for (int i = 0; i < size; i++) {
-			myList.addListElement(new ExpressionNode(kernel, elements.get(i)));
+			myList.addListElement(new ExpressionNode(kernel, get(i)));
 		}
 
 		return myList;
@@ -638,7 +664,175 @@ public class GeoList extends GeoElement
 	 * Clear the list
 	 */
 	public final void clear() {
+		sortedValuesValid = false;
+		numericSize = -1;
+		numericViews = null;
+		elements.clear();
+	}
+
+	/**
+	 * Only needed to change the elements: read access should use
+	 * {@link #size()} and {@link #get(int)}, which don't convert values to
+	 * elements. Numeric storage is restored by the next
+	 * {@link #setNumericValues(double[], int)}, i.e. the next update of the
+	 * parent sequence.
+	 * 
+	 * @return elements of this list, numeric values are converted to elements
+	 *         first
+	 */
+	private ArrayList<GeoElement> elements() {
+		if (numericSize >= 0) {
+			int size = numericSize;
+			GeoNumeric[] views = new GeoNumeric[size];
+			for (int i = 0; i < size; i++) {
+				views[i] = getNumericView(i);
+			}
+			numericSize = -1;
+			numericViews = null;
+			elements.clear();
+			for (int i = 0; i < size; i++) {
+				add(views[i]);
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Replaces the content of this list by numbers without creating a
+	 * GeoNumeric for each of them.
+	 *
+	 * @param values
+	 *            values, the list takes ownership of the array (see
+	 *            {@link #getNumericBuffer(int)})
+	 * @param size
+	 *            number of values
+	 */
+	public void setNumericValues(double[] values, int size) {
+		sortedValuesValid = false;
 		elements.clear();
+		numericValues = values;
+		numericSize = size;
+		if (numericViews != null && numericViews.length != size) {
+			numericViews = null;
+		}
+		elementType = GeoClass.NUMERIC;
+		isDrawable = false;
+		setTypeStringForXML("numeric");
+	}
+
+	/**
+	 * @param size
+	 *            number of values
+	 * @return array of at least given length that may be filled and passed to
+	 *         {@link #setNumericValues(double[], int)}; the previous array of
+	 *         this list is reused if possible
+	 */
+	public double[] getNumericBuffer(int size) {
+		if (numericValues != null && numericValues.length >= size) {
+			return numericValues;
+		}
+		return new double[size];
+	}
+
+	/**
+	 * Gives access to the values of numeric lists without creating their
+	 * elements. The array must not be modified.
+	 *
+	 * @return values (only first size() are valid) or null if this list
+	 *         stores elements
+	 */
+	public double[] getNumericValues() {
+		return numericSize >= 0 ? numericValues : null;
+	}
+
+	/**
+	 * Values of this list in ascending order (NaN last). The array is sorted
+	 * once per change of the list and shared by all callers, so it must not
+	 * be modified.
+	 *
+	 * @return sorted values, null if some element is not a number
+	 */
+	public double[] getSortedNumericValues() {
+		if (sortedValuesValid) {
+			return sortedValues;
+		}
+		int size = size();
+		double[] sorted = new double[size];
+		if (numericSize >= 0) {
+			System.arraycopy(numericValues, 0, sorted, 0, size);
+		} else {
+			for (int i = 0; i < size; i++) {
+				GeoElement geo = elements.get(i);
+				if (!(geo instanceof NumberValue)) {
+					sorted = null;
+					break;
+				}
+				sorted[i] = geo.evaluateDouble();
+			}
+		}
+		if (sorted != null) {
+			Arrays.sort(sorted);
+		}
+		sortedValues = sorted;
+		sortedValuesValid = true;
+		return sorted;
+	}
+
+	/**
+	 * @param index
+	 *            index
+	 * @return element for given value, reused for subsequent calls
+	 */
+	private GeoNumeric getNumericView(int index) {
+		if (numericViews == null) {
+			numericViews = new GeoNumeric[numericSize];
+		}
+		GeoNumeric view = numericViews[index];
+		if (view == null) {
+			GeoElementND cached = index < cacheList.size()
+					? cacheList.get(index) : null;
+			if (cached instanceof GeoNumeric && !cached.isLabelSet()
+					&& cached.getGeoClassType() == GeoClass.NUMERIC) {
+				view = (GeoNumeric) cached;
+			} else {
+				view = createNumericElement();
+			}
+			numericViews[index] = view;
+		}
+		applyVisualStyle(view);
+		view.setValue(numericValues[index]);
+		return view;
+	}
+
+	private void initNumericScratch() {
+		if (numericSize >= 0) {
+			if (numericScratch == null) {
+				numericScratch = createNumericElement();
+			}
+			applyVisualStyle(numericScratch);
+		}
+	}
+
+	/**
+	 * @param index
+	 *            index
+	 * @return element at given index or temporary element with the same value
+	 *         (call {@link #initNumericScratch()} first)
+	 */
+	private GeoElement getForDescription(int index) {
+		if (numericSize < 0) {
+			return elements.get(index);
+		}
+		numericScratch.setValue(numericValues[index]);
+		return numericScratch;
+	}
+
+	private GeoNumeric createNumericElement() {
+		GeoNumeric num = new GeoNumeric(cons);
+		num.setParentAlgorithm(getParentAlgorithm());
+		num.setConstructionDefaults();
+		num.setUseVisualDefaults(false);
+		return num;
 	}
 
 	/**
@@ -666,9 +860,10 @@ public class GeoList extends GeoElement
 	 */
 	public final void add(final GeoElementND geo) {
 		// add geo to end of list
-		elements.add(geo.toGeoElement());
+		elements().add(geo.toGeoElement());
+		sortedValuesValid = false;
 
-		if (elements.size() == 1) {
+		if (elements().size() == 1) {
 			setTypeStringForXML(geo.getXMLtypeString());
 		}
 
@@ -682,7 +877,7 @@ public class GeoList extends GeoElement
 		 */
 
 		// add to cache
-		final int pos = elements.size() - 1;
+		final int pos = elements().size() - 1;
 		if (pos < cacheList.size()) {
 			cacheList.set(pos, geo);
 		} else {
@@ -728,7 +923,8 @@ public class GeoList extends GeoElement
 	 *            element to be removed
 	 */
 	public final void remove(final GeoElement geo) {
-		elements.remove(geo);
+		elements().remove(geo);
+		sortedValuesValid = false;
 
 	}
 
@@ -754,7 +950,8 @@ public class GeoList extends GeoElement
 	 *            position of element to be removed
 	 */
 	public final void remove(final int index) {
-		elements.remove(index);
+		elements().remove(index);
+		sortedValuesValid = false;
 
 	}
 
@@ -766,6 +963,13 @@ public class GeoList extends GeoElement
 	 * @return the element at the specified position in this list.
 	 */
 	final public GeoElement get(final int index) {
+		if (numericSize >= 0) {
+			if (index < 0 || index >= numericSize) {
+				throw new IndexOutOfBoundsException(
+						"Index: " + index + ", Size: " + numericSize);
+			}
+			return getNumericView(index);
+		}
 		return elements.get(index);
 	}
 
@@ -779,7 +983,7 @@ public class GeoList extends GeoElement
 	 * @return the element at the specified position in this (2D) list.
 	 */
 	final public GeoElement get(final int index, final int index2) {
-		return ((GeoList) elements.get(index)).get(index2);
+		return ((GeoList) get(index)).get(index2);
 	}
 
 	/**
@@ -789,11 +993,20 @@ public class GeoList extends GeoElement
 	 */
 	@Override
 	public double[] toDouble(int offset) {
-		int length = elements.size();
+		if (numericSize >= 0) {
+			if (offset > numericSize) {
+				return null;
+			}
+			double[] valueArray = new double[numericSize - offset];
+			System.arraycopy(numericValues, offset, valueArray, 0,
+					valueArray.length);
+			return valueArray;
+		}
+		int length = size();
 		try {
 			final double[] valueArray = new double[length - offset];
 			for (int i = offset; i < length; i++) {
-				valueArray[i - offset] = elements.get(i).evaluateDouble();
+				valueArray[i - offset] = get(i).evaluateDouble();
 			}
 			return valueArray;
 		} catch (final Exception e) {
@@ -814,7 +1027,7 @@ public class GeoList extends GeoElement
 
 	@Override
 	final public int size() {
-		return elements.size();
+		return numericSize >= 0 ? numericSize : elements.size();
 	}
 
 	/**
@@ -855,10 +1068,11 @@ public class GeoList extends GeoElement
 		}
 
 		// first (n-1) elements
-		final int lastIndex = elements.size() - 1;
+		final int lastIndex = size() - 1;
+		initNumericScratch();
 		if (lastIndex > -1) {
 			for (int i = 0; i < lastIndex; i++) {
-				final GeoElement geo = elements.get(i);
+				final GeoElement geo = getForDescription(i);
 
 				sbBuildValueString
 						.append(geo.getAlgebraDescriptionRegrOut(tpl));
@@ -866,7 +1080,7 @@ public class GeoList extends GeoElement
 			}
 
 			// last element
-			final GeoElement geo = elements.get(lastIndex);
+			final GeoElement geo = getForDescription(lastIndex);
 			sbBuildValueString.append(geo.getAlgebraDescriptionRegrOut(tpl));
 		}
 
@@ -888,17 +1102,18 @@ public class GeoList extends GeoElement
 		tpl.leftCurlyBracket(sbBuildValueString);
 
 		// first (n-1) elements
-		final int lastIndex = elements.size() - 1;
+		final int lastIndex = size() - 1;
+		initNumericScratch();
 		if (lastIndex > -1) {
 			for (int i = 0; i < lastIndex; i++) {
-				final GeoElement geo = elements.get(i);
+				final GeoElement geo = getForDescription(i);
 				sbBuildValueString.append(geo.toOutputValueString(tpl));
 				sbBuildValueString.append(getLoc().getComma());
 				sbBuildValueString.append(" ");
 			}
 
 			// last element
-			final GeoElement geo = elements.get(lastIndex);
+			final GeoElement geo = getForDescription(lastIndex);
 			sbBuildValueString.append(geo.toOutputValueString(tpl));
 		}
 
@@ -1085,6 +1300,9 @@ public class GeoList extends GeoElement
 	 */
 	@Override
 	public void update(boolean drag) {
+		// elements may have changed in place, dependent algos compute after
+		// this
+		sortedValuesValid = false;
 		super.update(drag);
 
 		// update information on whether this path is fit for AlgoLocus
@@ -1142,13 +1360,13 @@ public class GeoList extends GeoElement
 		final GeoList list = (GeoList) geo;
 
 		// check sizes
-		if (elements.size() != list.size()) {
+		if (size() != list.size()) {
 			return false;
 		}
 
 		// check each element
-		for (int i = 0; i < list.elements.size(); i++) {
-			final GeoElement geoA = elements.get(i);
+		for (int i = 0; i < list.size(); i++) {
+			final GeoElement geoA = get(i);
 			final GeoElement geoB = list.get(i);
 
 			if (!geoA.isEqual(geoB)) {
@@ -1162,7 +1380,7 @@ public class GeoList extends GeoElement
 
 	@Override
 	public void setZero() {
-		elements.clear();
+		clear();
 	}
 
 	@Override
@@ -1189,12 +1407,12 @@ public class GeoList extends GeoElement
 	 */
 	@Override
 	public int getMinimumLineThickness() {
-		if ((elements == null) || (elements.size() == 0)) {
+		if (size() == 0) {
 			return 1;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (!geo.isLabelSet()) {
 				if (geo.getMinimumLineThickness() == 1) {
 					return 1;
@@ -1281,10 +1499,10 @@ public class GeoList extends GeoElement
 			// no alphaValue set
 			// so we need to set it to that of the first element, if there is
 			// one
-			if ((elements != null) && (elements.size() > 0)) {
+			if (size() > 0) {
 
 				// get alpha value of first element
-				final double alpha = elements.get(0).getAlphaValue();
+				final double alpha = get(0).getAlphaValue();
 
 				// Application.debug("setting list alpha to "+alpha);
 
@@ -1292,9 +1510,9 @@ public class GeoList extends GeoElement
 
 				// set all the other elements in the list
 				// if appropriate
-				if (elements.size() > 1) {
-					for (int i = 1; i < elements.size(); i++) {
-						final GeoElement geo = elements.get(i);
+				if (size() > 1) {
+					for (int i = 1; i < size(); i++) {
+						final GeoElement geo = get(i);
 						if (!geo.isLabelSet()) {
 							geo.setAlphaValue(alpha);
 						}
@@ -1340,15 +1558,15 @@ public class GeoList extends GeoElement
 
 	@Override
 	public boolean isFillable() {
-		if ((elements == null) || (elements.size() == 0)) {
+		if (size() == 0) {
 			return false;
 		}
 
 		boolean someFillable = false;
 		boolean allLabelsSet = true;
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (geo.isFillable()) {
 				someFillable = true;
 			}
@@ -1362,7 +1580,7 @@ public class GeoList extends GeoElement
 
 	@Override
 	public GeoElement getGeoElementForPropertiesDialog() {
-		if ((elements.size() > 0) && (elementType != ELEMENT_TYPE_MIXED)) {
+		if ((size() > 0) && (elementType != ELEMENT_TYPE_MIXED)) {
 			return get(0).getGeoElementForPropertiesDialog(); // getGeoElementForPropertiesDialog()
 			// to cope with
 			// lists of
@@ -1575,8 +1793,8 @@ public class GeoList extends GeoElement
 			return true;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (geo.showLineProperties() && !geo.isLabelSet()) {
 				return true;
 			}
@@ -1596,8 +1814,8 @@ public class GeoList extends GeoElement
 			return true;
 		}
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if ((geo instanceof PointProperties) && !geo.isLabelSet()) {
 				return true;
 			}
@@ -1737,7 +1955,7 @@ public class GeoList extends GeoElement
 
 		// update closestPointIndex
 		getNearestPoint(P);
-		if (elements.size() == 0) {
+		if (size() == 0) {
 			if (P.isDefined()) {
 				P.setUndefined();
 			}
@@ -1802,8 +2020,8 @@ public class GeoList extends GeoElement
 		closestPointIndex = 0; // default - first object
 
 		// double closestIndex = -1;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (geo instanceof PathOrPoint) {
 				final double d = p.distanceToPath((PathOrPoint) geo);
 
@@ -1823,8 +2041,8 @@ public class GeoList extends GeoElement
 	@Override
 	public double distance(final GeoPoint p) {
 		double distance = Double.POSITIVE_INFINITY;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			final double d = geo.distance(p);
 			if (d < distance) {
 				distance = d;
@@ -1837,8 +2055,8 @@ public class GeoList extends GeoElement
 	@Override
 	public double distance(final GeoPointND p) {
 		double distance = Double.POSITIVE_INFINITY;
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			final double d = geo.distance(p);
 			if (d < distance) {
 				distance = d;
@@ -1929,8 +2147,8 @@ public class GeoList extends GeoElement
 	@Override
 	public boolean isOnPath(final GeoPointND PI, final double eps) {
 		// Application.debug("isOnPath",1);
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (((PathOrPoint) geo).isOnPath(PI, eps)) {
 				return true;
 			}
@@ -1945,7 +2163,7 @@ public class GeoList extends GeoElement
 
 	@Override
 	public double getMaxParameter() {
-		return elements.size();
+		return size();
 	}
 
 	@Override
@@ -1971,8 +2189,8 @@ public class GeoList extends GeoElement
 				|| (getParentAlgorithm() instanceof AlgoDependentList))) {
 			return false;
 		}
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 
 			if (geo.isGeoPoint()) {
 				if (!geo.isMoveable()) {
@@ -1998,8 +2216,8 @@ public class GeoList extends GeoElement
 			final EuclidianViewInterfaceSlim view) {
 		final ArrayList<GeoPointND> al = new ArrayList<>();
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 
 			if (geo.isGeoPoint()) {
 				final GeoPoint p = (GeoPoint) geo;
@@ -2087,10 +2305,7 @@ public class GeoList extends GeoElement
 	 * @return true if the list contains given geo
 	 */
 	public boolean listContains(final GeoElement geo) {
-		if (elements == null) {
-			return true;
-		}
-		return elements.contains(geo);
+		return find(geo) >= 0;
 	}
 
 	@Override
@@ -2113,8 +2328,8 @@ public class GeoList extends GeoElement
 			return false;
 		}
 		boolean ret = true;
-		for (int i = 0; i < elements.size(); i++) {
-			GeoElement geo1 = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			GeoElement geo1 = get(i);
 			if (!geo1.isLaTeXDrawableGeo()) {
 				return false;
 			}
@@ -2126,8 +2341,8 @@ public class GeoList extends GeoElement
 	public void updateColumnHeadingsForTraceValues() {
 		resetSpreadsheetColumnHeadings();
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (geo instanceof SpreadsheetTraceable) {
 				final ArrayList<GeoText> geoHead = geo.getColumnHeadings();
 				for (int j = 0; j < geoHead.size(); j++) {
@@ -2258,8 +2473,8 @@ public class GeoList extends GeoElement
 	public void addToSpreadsheetTraceList(
 			ArrayList<GeoNumeric> spreadsheetTraceList) {
 
-		for (int i = 0; i < elements.size(); i++) {
-			final GeoElement geo = elements.get(i);
+		for (int i = 0; i < size(); i++) {
+			final GeoElement geo = get(i);
 			if (geo instanceof SpreadsheetTraceable) {
 				((SpreadsheetTraceable) geo)
 						.addToSpreadsheetTraceList(spreadsheetTraceList);
@@ -2299,6 +2514,14 @@ public class GeoList extends GeoElement
 	 * @return position of needle in this list or -1 when not found
 	 */
 	public int find(GeoElement needle) {
+		if (numericSize >= 0) {
+			for (int i = 0; numericViews != null && i < numericSize; i++) {
+				if (numericViews[i] == needle) {
+					return i;
+				}
+			}
+			return -1;
+		}
 		return elements.indexOf(needle);
 	}
 
@@ -2619,6 +2842,9 @@ public class GeoList extends GeoElement
 	 * @return true if this list contains a 3D geo
 	 */
 	public boolean containsGeoElement3D() {
+		if (numericSize >= 0) {
+			return false;
+		}
 		for (GeoElement geo : elements) {
 			boolean contains = false;
 			if (geo.isGeoList()) {
@@ -2636,10 +2862,10 @@ public class GeoList extends GeoElement
 
 	@Override
 	final public Coords getMainDirection() {
-		if (elements.size() <= closestPointIndex) {
+		if (size() <= closestPointIndex) {
 			return Coords.VX;
 		}
-		return elements.get(closestPointIndex).getMainDirection();
+		return get(closestPointIndex).getMainDirection();
 	}
 
 	@Override
@@ -2850,7 +3076,7 @@ public class GeoList extends GeoElement
 				&& this.elementType != ELEMENT_TYPE_MIXED) {
 			return;
 		}
-		for (GeoElement listElement : this.elements) {
+		for (GeoElement listElement : elements()) {
 			if (listElement instanceof CasEvaluableFunction) {
 				CasEvaluableFunction f = (CasEvaluableFunction) listElement;
 				f.replaceChildrenByValues(vars);
@@ -3041,7 +3267,8 @@ public class GeoList extends GeoElement
 			return DescriptionMode.DEFINITION_VALUE;
 		}
 
-		for (GeoElement geo : elements) {
+		for (int i = 0; i < size(); i++) {
+			GeoElement geo = get(i);
 			if (geo.needToShowBothRowsInAV() == DescriptionMode.DEFINITION_VALUE
 					&& !Equation.isAlgebraEquation(geo)) {
 				return DescriptionMode.DEFINITION_VALUE;
@@ -3104,8 +3331,9 @@ public class GeoList extends GeoElement
 	@Override
 	public void resetDefinition() {
 		super.resetDefinition();
-		for (int i = 0; i < size(); i++) {
-			this.elements.get(i).resetDefinition();
+		// numeric values have no definitions
+		for (int i = 0; i < elements.size(); i++) {
+			elements.get(i).resetDefinition();
 		}
 	}
 
@@ -3149,7 +3377,8 @@ public class GeoList extends GeoElement
 	 *            new element
 	 */
 	public void setListElement(int i, GeoElement element) {
-		this.elements.set(i, element);
+		elements().set(i, element);
+		sortedValuesValid = false;
 		this.applyVisualStyle(element);
 		// this.elementType = element.getGeoClassType();
 		isDrawable = true;
@@ -3360,7 +3589,11 @@ public class GeoList extends GeoElement
 	 * @return new array with elements
 	 */
 	public GeoElement[] elementsAsArray() {
-		return elements.toArray(new GeoElement[size()]);
+		GeoElement[] array = new GeoElement[size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = get(i);
+		}
+		return array;
 	}
 
 	@Override
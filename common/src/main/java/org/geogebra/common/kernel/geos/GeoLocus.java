@@ -12,12 +12,16 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.geos;
 
+import java.util.ArrayList;
+
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.PackedPointList;
 import org.geogebra.common.kernel.PathParameter;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.Matrix.Coords;
 import org.geogebra.common.kernel.arithmetic.ValueType;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.kernel.kernelND.GeoSegmentND;
 
@@ -28,6 +32,11 @@ import org.geogebra.common.kernel.kernelND.GeoSegmentND;
  */
 public class GeoLocus extends GeoLocusND<MyPoint> {
 	private Coords changingPoint;
+	/**
+	 * points inserted by {@link #insertPoint(double, double, SegmentType)},
+	 * moved to the point list when it is needed
+	 */
+	private final PackedPointList packedPoints = new PackedPointList();
 
 	/**
 	 * Creates new locus
@@ -55,7 +64,71 @@ public class GeoLocus extends GeoLocusND<MyPoint> {
 	 *            used segment type
 	 */
 	public void insertPoint(double x, double y, SegmentType segmentType) {
-		myPointList.add(new MyPoint(x, y, segmentType));
+		if (myPointList.isEmpty()) {
+			packedPoints.add(x, y, segmentType);
+		} else {
+			myPointList.add(new MyPoint(x, y, segmentType));
+		}
+	}
+
+	/**
+	 * Points of this locus stored without creating a {@link MyPoint} for each
+	 * point. Empty once {@link #getPoints()} was called, the points are then
+	 * only kept as {@link MyPoint}s.
+	 * 
+	 * @return packed points
+	 */
+	public PackedPointList getPackedPoints() {
+		return packedPoints;
+	}
+
+	@Override
+	public ArrayList<MyPoint> getPoints() {
+		if (packedPoints.size() > 0) {
+			packedPoints.appendTo(myPointList);
+			packedPoints.release();
+		}
+		return myPointList;
+	}
+
+	@Override
+	public int getPointLength() {
+		return myPointList.size() + packedPoints.size();
+	}
+
+	@Override
+	public void clearPoints() {
+		super.clearPoints();
+		packedPoints.clear();
+	}
+
+	@Override
+	public void setPoints(ArrayList<MyPoint> al) {
+		packedPoints.release();
+		super.setPoints(al);
+	}
+
+	@Override
+	public boolean isClosedPath() {
+		int size = packedPoints.size();
+		if (size > 0 && myPointList.isEmpty()) {
+			MyPoint first = packedPoints.get(0, new MyPoint());
+			return first.isEqual(packedPoints.getX(size - 1),
+					packedPoints.getY(size - 1));
+		}
+		return super.isClosedPath();
+	}
+
+	@Override
+	public void set(GeoElementND geo) {
+		if (geo instanceof GeoLocus && ((GeoLocus) geo).myPointList.isEmpty()) {
+			GeoLocus locus = (GeoLocus) geo;
+			setDefined(locus.isDefined());
+			clearPoints();
+			packedPoints.addAll(locus.packedPoints);
+			return;
+		}
+		super.set(geo);
 	}
 
 	/**
@@ -115,8 +115,8 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 			GeoLocusND<T> locus = (GeoLocusND<T>) geo;
 			defined = locus.defined;
 
-			myPointList.clear();
-			for (MyPoint pt : locus.myPointList) {
+			clearPoints();
+			for (MyPoint pt : locus.getPoints()) {
 				myPointList.add((T) pt.copy());
 			}
 		}
@@ -128,7 +128,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 * @return number of valid points in x and y arrays.
 	 */
 	@Override
-	final public int getPointLength() {
+	public int getPointLength() {
 		return myPointList.size();
 	}
 
@@ -176,13 +176,14 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 *            bounding box
 	 */
 	public void saveOriginalRates(GRectangle2D gRectangle2D) {
+		ArrayList<T> points = getPoints();
 		if (nonScaledPointList == null) {
-			nonScaledPointList = new ArrayList<>(myPointList.size());
+			nonScaledPointList = new ArrayList<>(points.size());
 			nonScaledWidth = gRectangle2D.getMaxX() - gRectangle2D.getMinX();
 			nonScaledHeight = gRectangle2D.getMaxY() - gRectangle2D.getMinY();
-			for (int i = 0; i < myPointList.size(); i++) {
-				double x = myPointList.get(i).getX();
-				double y = myPointList.get(i).getY();
+			for (int i = 0; i < points.size(); i++) {
+				double x = points.get(i).getX();
+				double y = points.get(i).getY();
 				if (Double.isNaN(x)) {
 					nonScaledPointList
 							.add(new GPoint2D.Double(Double.NaN, Double.NaN));
@@ -269,6 +270,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 */
 	public double updatePointsX(EuclidianBoundingBoxHandler handler,
 			double eventX, GRectangle2D gRectangle2D) {
+		ArrayList<T> points = getPoints();
 		if (nonScaledWidth == 0) {
 			return 0;
 		}
@@ -287,10 +289,10 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 			newMinX = fixedX;
 		}
 
-		for (int i = 0; i < myPointList.size(); i++) {
+		for (int i = 0; i < points.size(); i++) {
 			double newPointScreenX = nonScaledPointList.get(i).getX() * scaleX
 					+ newMinX;
-			myPointList.get(i)
+			points.get(i)
 					.setX(kernel.getApplication().getActiveEuclidianView()
 							.toRealWorldCoordX(newPointScreenX));
 		}
@@ -310,6 +312,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 */
 	public void updatePointsY(EuclidianBoundingBoxHandler handler,
 			double eventY, GRectangle2D gRectangle2D, double newWidth) {
+		ArrayList<T> points = getPoints();
 		if (nonScaledHeight == 0) {
 			return;
 		}
@@ -340,10 +343,10 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 		} else {
 			newMinY = fixedY;
 		}
-		for (int i = 0; i < myPointList.size(); i++) {
+		for (int i = 0; i < points.size(); i++) {
 			double newPointScreenY = nonScaledPointList.get(i).getY() * scaleY
 					+ newMinY;
-			myPointList.get(i)
+			points.get(i)
 					.setY(kernel.getApplication().getActiveEuclidianView()
 							.toRealWorldCoordY(newPointScreenY));
 		}
@@ -361,9 +364,10 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 */
 	@SuppressWarnings("unchecked")
 	public ArrayList<T> getPointsWithoutControl() {
+		ArrayList<T> points = getPoints();
 		if (poitsWithoutControl == null) {
 			poitsWithoutControl = new ArrayList<>();
-			for (MyPoint t : myPointList) {
+			for (MyPoint t : points) {
 				if (t.getSegmentType() != SegmentType.CONTROL) {
 					poitsWithoutControl.add((T) t.copy());
 				}
@@ -435,7 +439,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 	@Override
 	public double getMaxParameter() {
-		return myPointList.size() - 1;
+		return getPointLength() - 1;
 	}
 
 	@Override
@@ -445,9 +449,10 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 	@Override
 	public boolean isClosedPath() {
-		if (myPointList.size() > 0) {
-			MyPoint first = myPointList.get(0);
-			MyPoint last = myPointList.get(myPointList.size() - 1);
+		ArrayList<T> points = getPoints();
+		if (points.size() > 0) {
+			MyPoint first = points.get(0);
+			MyPoint last = points.get(points.size() - 1);
 			return first.isEqual(last);
 		}
 		return false;
@@ -484,6 +489,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 * @return closest point to changing point
 	 */
 	protected MyPoint getClosestPoint() {
+		ArrayList<T> points = getPoints();
 		getClosestLine();
 
 		GeoSegmentND closestSegment = newGeoSegment();
@@ -492,8 +498,8 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 			return null;
 		}
 
-		MyPoint locusPoint = myPointList.get(closestPointIndex);
-		MyPoint locusPoint2 = myPointList.get(closestPointIndex + 1);
+		MyPoint locusPoint = points.get(closestPointIndex);
+		MyPoint locusPoint2 = points.get(closestPointIndex + 1);
 
 		closestSegment.setCoords(locusPoint, locusPoint2);
 
@@ -526,7 +532,8 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 * Returns the point of this locus that is closest to current point infos.
 	 */
 	private void getClosestLine() {
-		int size = myPointList.size();
+		ArrayList<T> points = getPoints();
+		int size = points.size();
 		if (size == 0) {
 			return;
 		}
@@ -541,8 +548,8 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 		// search for closest point
 		for (int i = 0; i < size - 1; i++) {
-			MyPoint locusPoint = myPointList.get(i);
-			MyPoint locusPoint2 = myPointList.get(i + 1);
+			MyPoint locusPoint = points.get(i);
+			MyPoint locusPoint2 = points.get(i + 1);
 
 			// not a line, just a move (eg Voronoi Diagram)
 			if (locusPoint2.getSegmentType() == SegmentType.MOVE_TO) {
@@ -563,6 +570,7 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 	@Override
 	public void pathChanged(GeoPointND P) {
+		ArrayList<T> points = getPoints();
 
 		// if kernel doesn't use path/region parameters, do as if point changed
 		// its coords
@@ -591,12 +599,12 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 
 		// check n and n+1 are in a sensible range
 		// might occur if locus has changed no of segments/points
-		if (n >= myPointList.size() || n < 0) {
-			n = (n < 0) ? 0 : myPointList.size() - 1;
+		if (n >= points.size() || n < 0) {
+			n = (n < 0) ? 0 : points.size() - 1;
 		}
 
-		MyPoint locusPoint = myPointList.get(n);
-		MyPoint locusPoint2 = myPointList.get((n + 1) % myPointList.size());
+		MyPoint locusPoint = points.get(n);
+		MyPoint locusPoint2 = points.get((n + 1) % points.size());
 
 		P.set(t, 1 - t, locusPoint, locusPoint2);
 
@@ -609,18 +617,19 @@ public abstract class GeoLocusND<T extends MyPoint> extends GeoElement
 	 *            path parameter
 	 */
 	public void pathChanged(Coords P, PathParameter pp) {
+		ArrayList<T> points = getPoints();
 		int n = (int) Math.floor(pp.t);
 
 		double t = pp.t - n; // between 0 and 1
 
 		// check n and n+1 are in a sensible range
 		// might occur if locus has changed no of segments/points
-		if (n >= myPointList.size() || n < 0) {
-			n = (n < 0) ? 0 : myPointList.size() - 1;
+		if (n >= points.size() || n < 0) {
+			n = (n < 0) ? 0 : points.size() - 1;
 		}
 
-		MyPoint locusPoint = myPointList.get(n);
-		MyPoint locusPoint2 = myPointList.get((n + 1) % myPointList.size());
+		MyPoint locusPoint = points.get(n);
+		MyPoint locusPoint2 = points.get((n + 1) % points.size());
 
 		P.set(t, 1 - t, locusPoint, locusPoint2);
 	}
@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.TreeSet;
 
 import org.geogebra.common.euclidian.EuclidianConstants;
 import org.geogebra.common.euclidian.EuclidianView;
@@ -135,7 +134,6 @@ public class GeoPoint extends GeoVec3D implements VectorValue, PathOrPoint,
 
 	private StringBuilder sbBuildValueString = new StringBuilder(50);
 
-	private static volatile TreeSet<AlgoElement> tempSet;
 
 	private Coords coords2D;
 	private Coords inhomCoords3D;
@@ -1891,13 +1889,6 @@ public class GeoPoint extends GeoVec3D implements VectorValue, PathOrPoint,
 		}
 	}
 
-	protected static TreeSet<AlgoElement> getTempSet() {
-		if (tempSet == null) {
-			tempSet = new TreeSet<>();
-		}
-		return tempSet;
-	}
-
 	@Override
 	public LocateableList getLocateableList() {
 		if (locateableList == null) {
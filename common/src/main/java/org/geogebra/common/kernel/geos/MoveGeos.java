@@ -83,8 +83,12 @@ public class MoveGeos {
 		// then update all their algos.
 		// (don't do updateCascade() on them individually as this could cause
 		// multiple updates of the same algorithm)
-		GeoElement.updateCascade(moveObjectsUpdateList, GeoElement.getTempSet(),
-				false);
+		if (!moveObjectsUpdateList.isEmpty()) {
+			GeoElement.updateCascade(moveObjectsUpdateList,
+					moveObjectsUpdateList.get(0).getConstruction()
+							.getTempAlgoSet(),
+					false);
+		}
 
 		return moved;
 	}
@@ -10,9 +10,11 @@ import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.DecompositionSolver;
 import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
+import org.geogebra.common.factories.UtilFactory;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.EuclidianViewCE;
 import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.PathMover;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.StringTemplate;
@@ -24,6 +26,7 @@ import org.geogebra.common.kernel.arithmetic.Equation;
 import org.geogebra.common.kernel.arithmetic.ExpressionNode;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
 import org.geogebra.common.kernel.arithmetic.ExpressionValue;
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
 import org.geogebra.common.kernel.arithmetic.FunctionNVar;
 import org.geogebra.common.kernel.arithmetic.FunctionVariable;
 import org.geogebra.common.kernel.arithmetic.MyDouble;
@@ -54,6 +57,7 @@ import org.geogebra.common.plugin.GeoClass;
 import org.geogebra.common.plugin.Operation;
 import org.geogebra.common.util.DoubleUtil;
 import org.geogebra.common.util.StringUtil;
+import org.geogebra.common.util.TaskRunner;
 import org.geogebra.common.util.debug.Log;
 
 import com.himamis.retex.editor.share.util.Unicode;
@@ -98,6 +102,11 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	private final double[] evalArray = new double[2];
 	private final double[] derEvalArray = new double[2];
+	/** compiled factor used while the path is updated */
+	private FunctionEvaluator factorEvaluator;
+	private int evaluatedFactor = -1;
+	/** runner for the plotting tiles, null for the platform runner */
+	private TaskRunner taskRunner;
 
 	private boolean defined = true;
 	private boolean trace;
@@ -714,6 +723,9 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			return GeoImplicitCurve.evalPolyCoeffAt(x, y,
 					coeffSquarefree[factor]);
 		}
+		if (factor == evaluatedFactor) {
+			return factorEvaluator.evaluate(x, y);
+		}
 		evalArray[0] = x;
 		evalArray[1] = y;
 		return getFactor(factor).evaluate(evalArray);
@@ -800,13 +812,22 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 		}
 	}
 
+	/**
+	 * @param taskRunner
+	 *            runner for the tiles of the plotting grid; null to use the
+	 *            one of the platform
+	 */
+	public void setTaskRunner(TaskRunner taskRunner) {
+		this.taskRunner = taskRunner;
+	}
+
 	private static double get(double[] ds, int i) {
 		return ds.length > i ? ds[i] : 0;
 	}
 
 	private void updatePathQuadTree(double x, double y, double w, double h,
 			double scaleX, double scaleY) {
-		locus.getPoints().clear();
+		locus.clearPoints();
 		quadTree.updatePath(x, y - h, w, h, scaleX, scaleY);
 	}
 
@@ -907,7 +928,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	@Override
 	public void pointChanged(GeoPointND PI) {
-		if (locus.getPoints().size() > 0) {
+		if (locus.getPointLength() > 0) {
 			locusPointChanged(PI);
 		}
 	}
@@ -933,7 +954,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			return;
 		}
 
-		if (locus.getPoints().size() > 0) {
+		if (locus.getPointLength() > 0) {
 			locusPathChanged(PI);
 		}
 	}
@@ -1066,6 +1087,32 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 		euclidianViewUpdate();
 	}
 
+	/**
+	 * Compiles a factor for the following evaluations by
+	 * {@link #evaluateImplicitCurve(double, double, int)}. The compiled
+	 * evaluator is not thread safe, it is only used for factors given by an
+	 * expression, which are plotted in one thread.
+	 * 
+	 * @param factor
+	 *            number of a squarefree factor, -1 to evaluate the
+	 *            expressions again
+	 */
+	void compileFactor(int factor) {
+		factorEvaluator = null;
+		evaluatedFactor = -1;
+		if (factor < 0 || coeffSquarefree != null || factorExpression == null
+				|| factorExpression[factor] == null
+				|| factorExpression[factor].getVarNumber() != 2) {
+			return;
+		}
+		FunctionEvaluator evaluator = factorExpression[factor]
+				.createEvaluator();
+		if (evaluator.isReentrant()) {
+			factorEvaluator = evaluator;
+			evaluatedFactor = factor;
+		}
+	}
+
 	private FunctionNVar getFactor(int factor) {
 		if (factorExpression[factor] == null) {
 			Log.error("Undefined factor " + factor + " in "
@@ -1681,11 +1728,16 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 	private class WebExperimentalQuadTree extends QuadTree {
 		private static final int RES_COARSE = 8;
 		private static final int MAX_SPLIT = 40;
+		private static final int TILES_PER_THREAD = 2;
 		private int plotDepth;
 		private int segmentCheckDepth;
 		private int sw;
 		private int sh;
 		private Rect[][] grid;
+		private double[][] corners;
+		private double[] xcoords;
+		private double[] ycoords;
+		private TaskRunner runner;
 		private Timer timer = Timer.newTimer();
 
 		public WebExperimentalQuadTree() {
@@ -1694,12 +1746,21 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 		@Override
 		public void updatePath() {
+			try {
+				updateFactors();
+			} finally {
+				compileFactor(-1);
+			}
+		}
+
+		private void updateFactors() {
 			for (int factor = 0; factor < factorLength(); ++factor) {
 				try {
 					evaluateImplicitCurve(0, 0, factor);
 				} catch (Throwable e) {
 					continue;
 				}
+				compileFactor(factor);
 				this.sw = Math.min(MAX_SPLIT, (int) (w * scaleX / RES_COARSE));
 				this.sh = Math.min(MAX_SPLIT, (int) (h * scaleY / RES_COARSE));
 				if (sw == 0 || sh == 0) {
@@ -1707,14 +1768,13 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 				}
 
 				this.grid = new Rect[sh][sw];
+				this.corners = new double[sh + 1][];
 
 				double frx = w / sw;
 				double fry = h / sh;
 
-				double[] vertices = new double[sw + 1];
-				double[] xcoords = new double[sw + 1];
-				double[] ycoords = new double[sh + 1];
-				double cur, prev;
+				xcoords = new double[sw + 1];
+				ycoords = new double[sh + 1];
 
 				for (int i = 0; i <= sw; i++) {
 					xcoords[i] = x + i * frx;
@@ -1724,45 +1784,13 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 					ycoords[i] = y + i * fry;
 				}
 
-				for (int i = 0; i <= sw; i++) {
-					vertices[i] = evaluateImplicitCurve(xcoords[i], ycoords[0],
-							factor);
-				}
+				Tile[] tiles = createTiles(factor);
 
 				// initialize grid configuration at the search depth
-				int i, j;
-				double dx, dy, fx, fy;
-				// debug = true;
 				timer.reset();
-				for (i = 1; i <= sh; i++) {
-					prev = evaluateImplicitCurve(xcoords[0], ycoords[i],
-							factor);
-					fy = ycoords[i] - 0.5 * fry;
-					for (j = 1; j <= sw; j++) {
-						cur = evaluateImplicitCurve(xcoords[j], ycoords[i],
-								factor);
-						Rect rect = new Rect(j - 1, i - 1, frx, fry, false);
-						rect.coords.val[0] = xcoords[j - 1];
-						rect.coords.val[1] = ycoords[i - 1];
-						rect.evals[0] = vertices[j - 1];
-						rect.evals[1] = vertices[j];
-						rect.evals[2] = cur;
-						rect.evals[3] = prev;
-						rect.status = edgeConfig(rect);
-						rect.shares = 0xff;
-						fx = xcoords[j] - 0.5 * frx;
-						dx = derivativeX(fx, fy);
-						dy = derivativeY(fx, fy);
-						dx = Math.abs(dx) + Math.abs(dy);
-						if (DoubleUtil.isZero(dx, 0.001)) {
-							rect.singular = true;
-						}
-						this.grid[i - 1][j - 1] = rect;
-						vertices[j - 1] = prev;
-						prev = cur;
-					}
-					vertices[sw] = prev;
-				}
+				runTiles(tiles, Tile.CORNERS);
+				runTiles(tiles, Tile.CELLS);
+				corners = null;
 
 				timer.record();
 
@@ -1778,12 +1806,11 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 					LIST_THRESHOLD = 24;
 				}
 
-				for (i = 0; i < sh; i++) {
-					for (j = 0; j < sw; j++) {
-						if (grid[i][j].status != EMPTY) {
-							plot(grid[i][j], 0, factor);
-						}
-					}
+				if (tiles.length > 1) {
+					runTiles(tiles, Tile.RECORD);
+				}
+				for (Tile tile : tiles) {
+					tile.replay();
 				}
 
 				timer.record();
@@ -1800,45 +1827,243 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 			}
 		}
 
-		public void createTree(Rect r, int depth, int factor) {
-			Rect[] n = r.split(GeoImplicitCurve.this, factor);
-			plot(n[0], depth, factor);
-			plot(n[1], depth, factor);
-			plot(n[2], depth, factor);
-			plot(n[3], depth, factor);
+		/**
+		 * Splits the grid into bands of rows. Only curves given by polynomial
+		 * coefficients are split, evaluating expressions is not thread safe.
+		 */
+		private Tile[] createTiles(int factor) {
+			int count = 1;
+			runner = taskRunner;
+			UtilFactory factory = UtilFactory.getPrototype();
+			if (runner == null && factory != null) {
+				runner = factory.getTaskRunner();
+			}
+			if (runner != null && coeffSquarefree != null && coeff != null
+					&& runner.getParallelism() > 1) {
+				count = Math.min(sh, TILES_PER_THREAD * runner.getParallelism());
+			}
+			Tile[] tiles = new Tile[count];
+			for (int i = 0; i < count; i++) {
+				tiles[i] = new Tile(i * sh / count, (i + 1) * sh / count,
+						factor);
+			}
+			return tiles;
+		}
+
+		private void runTiles(Tile[] tiles, int phase) {
+			for (Tile tile : tiles) {
+				tile.phase = phase;
+			}
+			if (tiles.length == 1) {
+				tiles[0].run();
+			} else {
+				runner.runAll(tiles);
+			}
+		}
+
+		/**
+		 * Rows [from, to) of the grid. Tiles compute the corner values of
+		 * their rows (the last tile also the bottom row), then their cells.
+		 * When run in parallel, tiles record the segments and neighbour
+		 * updates of their cells; replaying them in row order gives the same
+		 * path as plotting the cells one after another.
+		 */
+		private class Tile implements Runnable {
+			static final int CORNERS = 0;
+			static final int CELLS = 1;
+			static final int RECORD = 2;
+
+			private final int from;
+			private final int to;
+			private final int factor;
+			private int phase;
+			private final MyPoint[] segment = new MyPoint[2];
+			/** start and end points of segments of the recorded cells */
+			private ArrayList<MyPoint> segments;
+			/** for each cell: end in segments, -1 if cell was not recorded */
+			private int[] segmentEnd;
+			/** for each cell: neighbours to be plotted too */
+			private int[] marks;
+			private int current;
+
+			Tile(int from, int to, int factor) {
+				this.from = from;
+				this.to = to;
+				this.factor = factor;
+			}
+
+			@Override
+			public void run() {
+				switch (phase) {
+				case CORNERS:
+					evaluateCorners();
+					break;
+				case CELLS:
+					createCells();
+					break;
+				default:
+					record();
+				}
+			}
+
+			private void evaluateCorners() {
+				int last = to == sh ? sh : to - 1;
+				for (int i = from; i <= last; i++) {
+					corners[i] = new double[sw + 1];
+					for (int j = 0; j <= sw; j++) {
+						corners[i][j] = evaluateImplicitCurve(xcoords[j],
+								ycoords[i], factor);
+					}
+				}
+			}
+
+			private void createCells() {
+				double frx = w / sw;
+				double fry = h / sh;
+				double dx, dy, fx, fy;
+				for (int i = from; i < to; i++) {
+					fy = ycoords[i + 1] - 0.5 * fry;
+					for (int j = 0; j < sw; j++) {
+						Rect rect = new Rect(j, i, frx, fry, false);
+						rect.coords.val[0] = xcoords[j];
+						rect.coords.val[1] = ycoords[i];
+						rect.evals[0] = corners[i][j];
+						rect.evals[1] = corners[i][j + 1];
+						rect.evals[2] = corners[i + 1][j + 1];
+						rect.evals[3] = corners[i + 1][j];
+						rect.status = edgeConfig(rect);
+						rect.shares = 0xff;
+						fx = xcoords[j + 1] - 0.5 * frx;
+						dx = derivativeX(fx, fy);
+						dy = derivativeY(fx, fy);
+						dx = Math.abs(dx) + Math.abs(dy);
+						if (DoubleUtil.isZero(dx, 0.001)) {
+							rect.singular = true;
+						}
+						grid[i][j] = rect;
+					}
+				}
+			}
+
+			private void record() {
+				segments = new ArrayList<>();
+				segmentEnd = new int[(to - from) * sw];
+				marks = new int[segmentEnd.length];
+				for (int i = from; i < to; i++) {
+					for (int j = 0; j < sw; j++) {
+						current = (i - from) * sw + j;
+						if (grid[i][j].status != EMPTY) {
+							plot(grid[i][j], 0, factor, this);
+							segmentEnd[current] = segments.size();
+						} else {
+							segmentEnd[current] = -1;
+						}
+					}
+				}
+			}
+
+			int recordSegment(Rect r) {
+				int status = createSegment(r, factor, segment);
+				if (status == VALID) {
+					segments.add(segment[0]);
+					segments.add(segment[1]);
+				}
+				return status;
+			}
+
+			void recordMarks(int neighbours) {
+				marks[current] |= neighbours;
+			}
+
+			/**
+			 * Adds the recorded segments to the path, plots cells that were
+			 * not recorded.
+			 */
+			void replay() {
+				int k = 0;
+				for (int i = from; i < to; i++) {
+					for (int j = 0; j < sw; j++) {
+						if (grid[i][j].status == EMPTY) {
+							continue;
+						}
+						int cell = (i - from) * sw + j;
+						if (segmentEnd == null || segmentEnd[cell] < 0) {
+							plot(grid[i][j], 0, factor, null);
+							continue;
+						}
+						for (; k < segmentEnd[cell]; k += 2) {
+							addSegment(segments.get(k), segments.get(k + 1));
+						}
+						mark(i, j, marks[cell]);
+					}
+				}
+				segments = null;
+			}
 		}
 
-		public void plot(Rect r, int depth, int factor) {
+		public void createTree(Rect r, int depth, int factor, Tile tile) {
+			Rect[] n = r.split(GeoImplicitCurve.this, factor);
+			plot(n[0], depth, factor, tile);
+			plot(n[1], depth, factor, tile);
+			plot(n[2], depth, factor, tile);
+			plot(n[3], depth, factor, tile);
+		}
+
+		/**
+		 * @param r
+		 *            cell
+		 * @param depth
+		 *            depth of the cell in the tree
+		 * @param factor
+		 *            number of squarefree factor
+		 * @param tile
+		 *            tile recording the segments, null to add them to the
+		 *            path directly
+		 */
+		public void plot(Rect r, int depth, int factor, Tile tile) {
 			if (depth < segmentCheckDepth) {
-				createTree(r, depth + 1, factor);
+				createTree(r, depth + 1, factor, tile);
 				return;
 			}
 			int e = edgeConfig(r);
 			if (grid[r.y][r.x].singular || e != EMPTY) {
 				if (depth >= plotDepth) {
-					if (addSegment(r, factor) == T0101) {
-						createTree(r, depth + 1, factor);
+					int status = tile == null ? addSegment(r, factor)
+							: tile.recordSegment(r);
+					if (status == T0101) {
+						createTree(r, depth + 1, factor, tile);
 						return;
 					}
-					if (r.x != 0 && (e & r.shares & 0x1) != 0) {
-						nonempty(r.y, r.x - 1);
-
-					}
-					if (r.x + 1 != sw && (e & r.shares & 0x4) != 0) {
-						nonempty(r.y, r.x + 1);
-					}
-					if (r.y != 0 && (e & r.shares & 0x8) != 0) {
-						nonempty(r.y - 1, r.x);
-					}
-					if (r.y + 1 != sh && (e & r.shares & 0x2) != 0) {
-						nonempty(r.y + 1, r.x);
+					if (tile == null) {
+						mark(r.y, r.x, e & r.shares);
+					} else {
+						tile.recordMarks(e & r.shares);
 					}
 				} else {
-					createTree(r, depth + 1, factor);
+					createTree(r, depth + 1, factor, tile);
 				}
 			}
 		}
 
+		/**
+		 * Marks neighbours of a cell that share an edge intersecting the
+		 * curve, so that they are plotted too.
+		 */
+		private void mark(int ry, int rx, int neighbours) {
+			if (rx != 0 && (neighbours & 0x1) != 0) {
+				nonempty(ry, rx - 1);
+			}
+			if (rx + 1 != sw && (neighbours & 0x4) != 0) {
+				nonempty(ry, rx + 1);
+			}
+			if (ry != 0 && (neighbours & 0x8) != 0) {
+				nonempty(ry - 1, rx);
+			}
+			if (ry + 1 != sh && (neighbours & 0x2) != 0) {
+				nonempty(ry + 1, rx);
+			}
+		}
+
 		private void nonempty(int ry, int rx) {
 			if (grid[ry][rx].status == EMPTY) {
 				grid[ry][rx].status = 1;
@@ -1941,7 +2166,7 @@ public class GeoImplicitCurve extends GeoElement implements EuclidianViewCE,
 
 	@Override
 	public boolean isOnScreen() {
-		return defined && locus.isDefined() && locus.getPoints().size() > 0;
+		return defined && locus.isDefined() && locus.getPointLength() > 0;
 	}
 
 	@Override
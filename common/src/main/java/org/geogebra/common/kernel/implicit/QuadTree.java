@@ -1,6 +1,5 @@
 package org.geogebra.common.kernel.implicit;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -8,6 +7,7 @@ import java.util.ListIterator;
 import org.geogebra.common.kernel.MyPoint;
 import org.geogebra.common.kernel.SegmentType;
 import org.geogebra.common.kernel.Matrix.Coords;
+import org.geogebra.common.kernel.geos.GeoLocus;
 import org.geogebra.common.kernel.kernelND.GeoPointND;
 import org.geogebra.common.util.DoubleUtil;
 
@@ -78,7 +78,7 @@ abstract class QuadTree {
 	protected double h;
 	protected double scaleX;
 	protected double scaleY;
-	protected ArrayList<MyPoint> locusPoints;
+	protected GeoLocus locus;
 	private LinkedList<PointList> openList = new LinkedList<>();
 	private MyPoint[] pts = new MyPoint[2];
 	private PointList p1;
@@ -121,63 +121,96 @@ abstract class QuadTree {
 		itr1 = openList.listIterator();
 		while (itr1.hasNext()) {
 			p1 = itr1.next();
-			locusPoints.add(p1.start);
-			locusPoints.addAll(p1.pts);
-			locusPoints.add(p1.end);
+			insert(p1.start);
+			for (MyPoint pt : p1.pts) {
+				insert(pt);
+			}
+			insert(p1.end);
 		}
 		openList.clear();
 	}
 
+	private void insert(MyPoint pt) {
+		locus.insertPoint(pt.x, pt.y, pt.getSegmentType());
+	}
+
 	private static boolean equal(MyPoint q1, MyPoint q2) {
 		return DoubleUtil.isEqual(q1.x, q2.x, 1e-10)
 				&& DoubleUtil.isEqual(q1.y, q2.y, 1e-10);
 	}
 
 	public int addSegment(Rect r, int factor) {
-		int status = createSegment(r, factor);
+		int status = createSegment(r, factor, pts);
 		if (status == VALID) {
-			if (pts[0].x > pts[1].x) {
-				temp = pts[0];
-				pts[0] = pts[1];
-				pts[1] = temp;
-			}
-			itr1 = openList.listIterator();
-			itr2 = openList.listIterator();
-			boolean flag1 = false, flag2 = false;
-			while (itr1.hasNext()) {
-				p1 = itr1.next();
-				if (equal(pts[1], p1.start)) {
-					flag1 = true;
-					break;
-				}
-			}
+			addSegment(pts[0], pts[1]);
+		}
+		return status;
+	}
 
-			while (itr2.hasNext()) {
-				p2 = itr2.next();
-				if (equal(pts[0], p2.end)) {
-					flag2 = true;
-					break;
-				}
+	/**
+	 * Adds a segment created by {@link #createSegment(Rect, int, MyPoint[])}
+	 * to the open point lists.
+	 * 
+	 * @param start
+	 *            start point
+	 * @param end
+	 *            end point
+	 */
+	protected void addSegment(MyPoint start, MyPoint end) {
+		pts[0] = start;
+		pts[1] = end;
+		if (pts[0].x > pts[1].x) {
+			temp = pts[0];
+			pts[0] = pts[1];
+			pts[1] = temp;
+		}
+		itr1 = openList.listIterator();
+		itr2 = openList.listIterator();
+		boolean flag1 = false, flag2 = false;
+		while (itr1.hasNext()) {
+			p1 = itr1.next();
+			if (equal(pts[1], p1.start)) {
+				flag1 = true;
+				break;
 			}
+		}
 
-			if (flag1 && flag2) {
-				itr1.remove();
-				p2.mergeTo(p1);
-			} else if (flag1) {
-				p1.extendBack(pts[0]);
-			} else if (flag2) {
-				p2.extendFront(pts[1]);
-			} else {
-				openList.addFirst(new PointList(pts[0], pts[1]));
-			}
-			if (openList.size() > LIST_THRESHOLD) {
-				abortList();
+		while (itr2.hasNext()) {
+			p2 = itr2.next();
+			if (equal(pts[0], p2.end)) {
+				flag2 = true;
+				break;
 			}
 		}
-		return status;
+
+		if (flag1 && flag2) {
+			itr1.remove();
+			p2.mergeTo(p1);
+		} else if (flag1) {
+			p1.extendBack(pts[0]);
+		} else if (flag2) {
+			p2.extendFront(pts[1]);
+		} else {
+			openList.addFirst(new PointList(pts[0], pts[1]));
+		}
+		if (openList.size() > LIST_THRESHOLD) {
+			abortList();
+		}
 	}
 
-	public int createSegment(Rect r, int factor) {
+	/**
+	 * Computes the segment of the curve in a cell without changing the state
+	 * of this tree, so it may be called for different cells in parallel.
+	 * 
+	 * @param r
+	 *            cell
+	 * @param factor
+	 *            number of squarefree factor
+	 * @param segment
+	 *            output array for start and end point
+	 * @return VALID if segment was created, EMPTY, T0101 or T_INV otherwise
+	 */
+	public int createSegment(Rect r, int factor, MyPoint[] segment) {
 		int gridType = config(r);
 		if (gridType == T0101 || gridType == T_INV) {
 			return gridType;
@@ -191,39 +224,44 @@ abstract class QuadTree {
 		switch (gridType) {
 		// one or three corners are inside / outside
 		case T0001:
-			pts[0] = new MyPoint(x1,
+			segment[0] = new MyPoint(x1,
 					GeoImplicitCurve.interpolate(bl, tl, y2,
 					y1), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(bl, br, x1, x2),
+			segment[1] = new MyPoint(
+					GeoImplicitCurve.interpolate(bl, br, x1, x2),
 					y2, SegmentType.LINE_TO);
 			q1 = minAbs(bl, tl);
 			q2 = minAbs(bl, br);
 			break;
 
 		case T0010:
-			pts[0] = new MyPoint(x2,
+			segment[0] = new MyPoint(x2,
 					GeoImplicitCurve.interpolate(br, tr, y2,
 					y1), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(br, bl, x2, x1),
+			segment[1] = new MyPoint(
+					GeoImplicitCurve.interpolate(br, bl, x2, x1),
 					y2, SegmentType.LINE_TO);
 			q1 = minAbs(br, tr);
 			q2 = minAbs(br, bl);
 			break;
 
 		case T0100:
-			pts[0] = new MyPoint(x2, GeoImplicitCurve.interpolate(tr, br, y1,
+			segment[0] = new MyPoint(
+					x2, GeoImplicitCurve.interpolate(tr, br, y1,
 					y2), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(tr, tl, x2, x1),
+			segment[1] = new MyPoint(
+					GeoImplicitCurve.interpolate(tr, tl, x2, x1),
 					y1, SegmentType.LINE_TO);
 			q1 = minAbs(tr, br);
 			q2 = minAbs(tr, tl);
 			break;
 
 		case T0111:
-			pts[0] = new MyPoint(x1,
+			segment[0] = new MyPoint(x1,
 					GeoImplicitCurve.interpolate(tl, bl, y1, y2),
 					SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(tl, tr, x1, x2),
+			segment[1] = new MyPoint(
+					GeoImplicitCurve.interpolate(tl, tr, x1, x2),
 					y1, SegmentType.LINE_TO);
 			q1 = minAbs(bl, tl);
 			q2 = minAbs(tl, tr);
@@ -231,9 +269,10 @@ abstract class QuadTree {
 
 		// two consecutive corners are inside / outside
 		case T0011:
-			pts[0] = new MyPoint(x1, GeoImplicitCurve.interpolate(tl, bl, y1,
+			segment[0] = new MyPoint(
+					x1, GeoImplicitCurve.interpolate(tl, bl, y1,
 					y2), SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(x2,
+			segment[1] = new MyPoint(x2,
 					GeoImplicitCurve.interpolate(tr, br, y1, y2),
 					SegmentType.LINE_TO);
 			q1 = minAbs(tl, bl);
@@ -241,9 +280,11 @@ abstract class QuadTree {
 			break;
 
 		case T0110:
-			pts[0] = new MyPoint(GeoImplicitCurve.interpolate(tl, tr, x1, x2),
+			segment[0] = new MyPoint(
+					GeoImplicitCurve.interpolate(tl, tr, x1, x2),
 					y1, SegmentType.MOVE_TO);
-			pts[1] = new MyPoint(GeoImplicitCurve.interpolate(bl, br, x1, x2),
+			segment[1] = new MyPoint(
+					GeoImplicitCurve.interpolate(bl, br, x1, x2),
 					y2, SegmentType.LINE_TO);
 			q1 = minAbs(tl, tr);
 			q2 = minAbs(bl, br);
@@ -253,9 +294,9 @@ abstract class QuadTree {
 		}
 		// check continuity of the function between P1 and P2
 		double p = Math.abs(this.geoImplicitCurve
-				.evaluateImplicitCurve(pts[0].x, pts[0].y, factor));
+				.evaluateImplicitCurve(segment[0].x, segment[0].y, factor));
 		double q = Math.abs(this.geoImplicitCurve
-				.evaluateImplicitCurve(pts[1].x, pts[1].y, factor));
+				.evaluateImplicitCurve(segment[1].x, segment[1].y, factor));
 		if ((p <= q1 && q <= q2)) {
 			return VALID;
 		}
@@ -291,7 +332,7 @@ abstract class QuadTree {
 		this.h = height;
 		this.scaleX = slX;
 		this.scaleY = slY;
-		this.locusPoints = this.geoImplicitCurve.getLocus().getPoints();
+		this.locus = this.geoImplicitCurve.getLocus();
 		this.updatePath();
 		this.abortList();
 	}
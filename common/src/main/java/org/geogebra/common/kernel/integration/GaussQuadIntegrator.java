@@ -0,0 +1,376 @@
+package org.geogebra.common.kernel.integration;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
+import org.geogebra.common.util.DoubleUtil;
+import org.geogebra.common.util.MaxSizeHashMap;
+import org.geogebra.common.util.TaskRunner;
+
+/**
+ * Adaptive Gauss quadrature: an interval is integrated using Gauss-Legendre
+ * rules with 3 and 5 nodes and bisected until both results agree.
+ *
+ * Each instance has its own call budget and node buffers, so integrators of
+ * different kernels (or threads) don't share any state. The nodes of each
+ * Gauss-Legendre stage are collected first and then evaluated in one batch.
+ */
+public class GaussQuadIntegrator {
+
+	private static final int MIN_ITER = 1;
+	private static final int MAX_ITER = 5;
+	private static final int MAX_GAUSS_QUAD_CALLS = 500;
+	private static final double RELATIVE_ACCURACY = 1.0e-6;
+	private static final double ABSOLUTE_ACCURACY = 1.0e-15;
+	/** number of pieces of an interval for aligned integration */
+	private static final int PIECES = 8;
+	/**
+	 * aligned integration is parallel once an integral needed more
+	 * evaluations
+	 */
+	private static final int PARALLEL_THRESHOLD = 2000;
+	/** maximal number of cached pieces */
+	private static final int MAX_CACHED_PIECES = 128;
+
+	private static final double[] ABSCISSAS_3 = { -Math.sqrt(0.6), 0.0,
+			Math.sqrt(0.6) };
+	private static final double[] WEIGHTS_3 = { 5.0 / 9.0, 8.0 / 9.0,
+			5.0 / 9.0 };
+	private static final double[] ABSCISSAS_5 = {
+			-Math.sqrt((35.0 + 2.0 * Math.sqrt(70.0)) / 63.0),
+			-Math.sqrt((35.0 - 2.0 * Math.sqrt(70.0)) / 63.0), 0.0,
+			Math.sqrt((35.0 - 2.0 * Math.sqrt(70.0)) / 63.0),
+			Math.sqrt((35.0 + 2.0 * Math.sqrt(70.0)) / 63.0) };
+	private static final double[] WEIGHTS_5 = {
+			(322.0 - 13.0 * Math.sqrt(70.0)) / 900.0,
+			(322.0 + 13.0 * Math.sqrt(70.0)) / 900.0, 128.0 / 225.0,
+			(322.0 + 13.0 * Math.sqrt(70.0)) / 900.0,
+			(322.0 - 13.0 * Math.sqrt(70.0)) / 900.0 };
+
+	private final double[] nodes = new double[MAX_GAUSS_QUAD_CALLS];
+	private final double[] values = new double[MAX_GAUSS_QUAD_CALLS];
+	private int callCounter;
+	private int gaussEvaluations;
+	private boolean failed;
+	private int evaluations;
+
+	private TaskRunner runner;
+	private final MaxSizeHashMap<Double, Piece> pieceCache = new MaxSizeHashMap<>(
+			MAX_CACHED_PIECES);
+	private double cachedPiece = Double.NaN;
+	private int cachedMultiplier;
+	private int lastEvaluations;
+
+	/**
+	 * Computes integral of function fun in interval a, b.
+	 *
+	 * @param fun
+	 *            function
+	 * @param a
+	 *            lower bound
+	 * @param b
+	 *            upper bound
+	 * @param maxMultiplier
+	 *            multiplier (to allow more iterations for freehand functions)
+	 * @return integral value
+	 */
+	public double integrate(UnivariateFunction fun, double a, double b,
+			int maxMultiplier) {
+		// GGB-2318
+		// f(x) = If(x < 0, 0, x <= 2, x)
+		if (a == b) {
+			return 0;
+		}
+
+		callCounter = 0;
+		if (a > b) {
+			return -doAdaptiveGaussQuad(fun, b, a, maxMultiplier);
+		}
+		return doAdaptiveGaussQuad(fun, a, b, maxMultiplier);
+	}
+
+	private double doAdaptiveGaussQuad(UnivariateFunction fun, double a,
+			double b, int maxMultiplier) {
+		if (++callCounter > MAX_GAUSS_QUAD_CALLS * maxMultiplier) {
+			return Double.NaN;
+		}
+
+		double firstSum = 0;
+		double secondSum = 0;
+
+		boolean error = false;
+
+		// integrate using gauss quadrature
+		try {
+			firstSum = gauss(ABSCISSAS_3, WEIGHTS_3, fun, a, b);
+			error = failed;
+			if (!error && Double.isNaN(firstSum)) {
+				return Double.NaN;
+			}
+			if (!error) {
+				secondSum = gauss(ABSCISSAS_5, WEIGHTS_5, fun, a, b);
+				error = failed;
+				if (!error && Double.isNaN(secondSum)) {
+					return Double.NaN;
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			return Double.NaN;
+		} catch (RuntimeException e) {
+			// eg ArithmeticException from the function
+			error = true;
+		}
+
+		// check if both results are equal
+		boolean equal = !error && DoubleUtil.isEqual(firstSum, secondSum,
+				Kernel.STANDARD_PRECISION);
+
+		if (equal) {
+			// success
+			return secondSum;
+		}
+		double mid = (a + b) / 2;
+		double left = doAdaptiveGaussQuad(fun, a, mid, maxMultiplier);
+		if (Double.isNaN(left)) {
+			return Double.NaN;
+		}
+		return left + doAdaptiveGaussQuad(fun, mid, b, maxMultiplier);
+	}
+
+	/**
+	 * Iterated Gauss-Legendre rule, increasing the number of subintervals
+	 * until the result is stable (same steps and arithmetic as
+	 * LegendreGaussIntegrator). Sets failed if the budget of evaluations or
+	 * iterations is exceeded.
+	 */
+	private double gauss(double[] abscissas, double[] weights,
+			UnivariateFunction fun, double a, double b) {
+		failed = false;
+		gaussEvaluations = 0;
+		if (a >= b) {
+			throw new IllegalArgumentException("not an interval");
+		}
+		double oldt = stage(abscissas, weights, fun, a, b, 1);
+		int n = 2;
+		int iterations = 0;
+		while (true) {
+			double t = stage(abscissas, weights, fun, a, b, n);
+			if (failed) {
+				return Double.NaN;
+			}
+			double delta = Math.abs(t - oldt);
+			double limit = Math.max(ABSOLUTE_ACCURACY,
+					RELATIVE_ACCURACY * (Math.abs(oldt) + Math.abs(t)) * 0.5);
+			if (iterations + 1 >= MIN_ITER && delta <= limit) {
+				return t;
+			}
+			double ratio = Math.min(4,
+					Math.pow(delta / limit, 0.5 / abscissas.length));
+			n = Math.max((int) (ratio * n), n + 1);
+			oldt = t;
+			if (iterations >= MAX_ITER) {
+				failed = true;
+				return Double.NaN;
+			}
+			iterations++;
+		}
+	}
+
+	private double stage(double[] abscissas, double[] weights,
+			UnivariateFunction fun, double a, double b, int n) {
+		int count = n * abscissas.length;
+		// evaluations allowed in this stage
+		int allowed = Math.min(count, MAX_GAUSS_QUAD_CALLS - gaussEvaluations);
+		double step = (b - a) / n;
+		double halfStep = step / 2.0;
+		double midPoint = a + halfStep;
+		int k = 0;
+		for (int i = 0; k < allowed; ++i) {
+			for (int j = 0; j < abscissas.length && k < allowed; ++j) {
+				nodes[k++] = midPoint + halfStep * abscissas[j];
+			}
+			midPoint += step;
+		}
+		for (k = 0; k < allowed; k++) {
+			values[k] = fun.value(nodes[k]);
+		}
+		gaussEvaluations += allowed;
+		evaluations += allowed;
+		if (allowed < count) {
+			failed = true;
+			return Double.NaN;
+		}
+		double sum = 0.0;
+		k = 0;
+		for (int i = 0; i < n; ++i) {
+			for (int j = 0; j < abscissas.length; ++j) {
+				sum += weights[j] * values[k++];
+			}
+		}
+		return halfStep * sum;
+	}
+
+	/**
+	 * Integrates in pieces aligned to multiples of a power of two, so that
+	 * when only one bound changes, the integrals of pieces between the old
+	 * bounds are reused. The cache has to be cleared with
+	 * {@link #clearCache()} when the function changes. The pieces only depend
+	 * on the bounds, so the result is the same whether they were cached or
+	 * not.
+	 *
+	 * If a {@link #setTaskRunner(TaskRunner) task runner} is set and the
+	 * function is a reentrant {@link FunctionEvaluator}, pieces of expensive
+	 * integrals are computed in parallel. The result doesn't depend on the
+	 * runner.
+	 *
+	 * @param fun
+	 *            function
+	 * @param a
+	 *            lower bound
+	 * @param b
+	 *            upper bound
+	 * @param maxMultiplier
+	 *            multiplier (to allow more iterations for freehand functions)
+	 * @return integral value
+	 */
+	public double integrateAligned(UnivariateFunction fun, double a,
+			double b, int maxMultiplier) {
+		if (a == b) {
+			return 0;
+		}
+		if (a > b) {
+			return -integrateAligned(fun, b, a, maxMultiplier);
+		}
+		double width = b - a;
+		if (Double.isInfinite(width) || Double.isNaN(width)) {
+			return integrate(fun, a, b, maxMultiplier);
+		}
+		double piece = Math.pow(2,
+				Math.floor(Math.log(width / PIECES) / Math.log(2)));
+		if (piece != cachedPiece || maxMultiplier != cachedMultiplier) {
+			clearCache();
+			cachedPiece = piece;
+			cachedMultiplier = maxMultiplier;
+		}
+		double start = Math.ceil(a / piece) * piece;
+		double end = Math.floor(b / piece) * piece;
+		if (start >= end) {
+			return integrate(fun, a, b, maxMultiplier);
+		}
+		int count = (int) Math.round((end - start) / piece);
+		double[] bounds = new double[count + 3];
+		bounds[0] = a;
+		for (int i = 0; i <= count; i++) {
+			bounds[i + 1] = start + i * piece;
+		}
+		bounds[count + 2] = b;
+
+		Piece[] pieces = new Piece[bounds.length - 1];
+		Piece[] missing = new Piece[pieces.length];
+		int missingCount = 0;
+		for (int i = 0; i < pieces.length; i++) {
+			boolean inner = i != 0 && i != pieces.length - 1;
+			pieces[i] = inner ? pieceCache.get(bounds[i]) : null;
+			if (pieces[i] == null) {
+				pieces[i] = new Piece(bounds[i], bounds[i + 1], maxMultiplier);
+				missing[missingCount++] = pieces[i];
+				if (inner) {
+					pieceCache.put(bounds[i], pieces[i]);
+				}
+			}
+		}
+		computePieces(fun, missing, missingCount);
+		double sum = 0;
+		int calls = 0;
+		for (int i = 0; i < pieces.length; i++) {
+			sum += pieces[i].result;
+			calls += pieces[i].calls;
+		}
+		// same budget as for integration over the whole interval
+		if (calls > MAX_GAUSS_QUAD_CALLS * maxMultiplier) {
+			return Double.NaN;
+		}
+		return sum;
+	}
+
+	private void computePieces(UnivariateFunction fun, Piece[] pieces,
+			int count) {
+		boolean parallel = runner != null && runner.getParallelism() > 1
+				&& count > 1 && lastEvaluations > PARALLEL_THRESHOLD
+				&& fun instanceof FunctionEvaluator
+				&& ((FunctionEvaluator) fun).isReentrant();
+		int total = 0;
+		if (parallel) {
+			Runnable[] tasks = new Runnable[count];
+			for (int i = 0; i < count; i++) {
+				pieces[i].fun = ((FunctionEvaluator) fun).copy();
+				tasks[i] = pieces[i];
+			}
+			runner.runAll(tasks);
+			for (int i = 0; i < count; i++) {
+				total += pieces[i].evaluations;
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				pieces[i].fun = fun;
+				pieces[i].run();
+				total += pieces[i].evaluations;
+			}
+		}
+		lastEvaluations = total;
+		evaluations += total;
+	}
+
+	/**
+	 * Integral over one piece, computed by its own integrator.
+	 */
+	private static class Piece implements Runnable {
+		final double lower;
+		final double upper;
+		final int maxMultiplier;
+		UnivariateFunction fun;
+		double result;
+		int evaluations;
+		int calls;
+
+		Piece(double lower, double upper, int maxMultiplier) {
+			this.lower = lower;
+			this.upper = upper;
+			this.maxMultiplier = maxMultiplier;
+		}
+
+		@Override
+		public void run() {
+			GaussQuadIntegrator integrator = new GaussQuadIntegrator();
+			result = integrator.integrate(fun, lower, upper, maxMultiplier);
+			evaluations = integrator.evaluations;
+			calls = integrator.callCounter;
+			fun = null;
+		}
+	}
+
+	/**
+	 * Forgets the integrals of pieces computed by
+	 * {@link #integrateAligned(UnivariateFunction, double, double, int)}.
+	 */
+	public void clearCache() {
+		pieceCache.clear();
+	}
+
+	/**
+	 * @return number of function evaluations by this integrator (including
+	 *         pieces) since it was created
+	 */
+	public int getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * @param runner
+	 *            runner for computing pieces in parallel, null to compute
+	 *            them sequentially
+	 */
+	public void setTaskRunner(TaskRunner runner) {
+		this.runner = runner;
+	}
+}
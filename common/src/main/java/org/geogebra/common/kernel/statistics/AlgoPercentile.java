@@ -12,10 +12,8 @@ the Free Software Foundation.
 
 package org.geogebra.common.kernel.statistics;
 
-import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.algos.AlgoElement;
-import org.geogebra.common.kernel.arithmetic.NumberValue;
 import org.geogebra.common.kernel.commands.Commands;
 import org.geogebra.common.kernel.geos.GeoElement;
 import org.geogebra.common.kernel.geos.GeoList;
@@ -31,8 +29,6 @@ public class AlgoPercentile extends AlgoElement {
 	private GeoNumeric value; // input
 	private GeoNumeric result; // output
 	private int size;
-	private Percentile percentile;
-	private double[] inputArray;
 	private double val;
 
 	/**
@@ -102,25 +98,49 @@ public class AlgoPercentile extends AlgoElement {
 		// ==========================
 		// compute result
 
-		inputArray = new double[size];
-
-		// load input value array from geoList
-		for (int i = 0; i < size; i++) {
-			GeoElement geo = inputList.get(i);
-			if (geo instanceof NumberValue) {
-				inputArray[i] = geo.evaluateDouble();
-			} else {
-				result.setUndefined();
-				return;
-			}
+		// sorted once per list change, shared with other statistics
+		double[] sorted = inputList.getSortedNumericValues();
+		if (sorted == null) {
+			result.setUndefined();
+			return;
 		}
+		result.setValue(percentile(sorted, val));
+	}
 
-		if (percentile == null) {
-			percentile = new Percentile();
+	/**
+	 * Same estimate as Percentile from Apache Commons Math (legacy
+	 * estimation, NaN removed), but without selection as the data is already
+	 * sorted.
+	 *
+	 * @param sorted
+	 *            values in ascending order, NaN last
+	 * @param p
+	 *            percentage, 0 &lt; p &lt;= 100
+	 * @return percentile
+	 */
+	static double percentile(double[] sorted, double p) {
+		if (sorted.length == 1) {
+			return sorted[0];
 		}
-
-		percentile.setData(inputArray);
-		result.setValue(percentile.evaluate(val));
+		int length = sorted.length;
+		while (length > 0 && Double.isNaN(sorted[length - 1])) {
+			length--;
+		}
+		if (length == 0) {
+			return Double.NaN;
+		}
+		double pos = p >= 100 ? length : p / 100 * (length + 1);
+		if (pos < 1) {
+			return sorted[0];
+		}
+		if (pos >= length) {
+			return sorted[length - 1];
+		}
+		double fpos = Math.floor(pos);
+		int intPos = (int) fpos;
+		double lower = sorted[intPos - 1];
+		double upper = sorted[intPos];
+		return lower + (pos - fpos) * (upper - lower);
 	}
 
 }
@@ -13,6 +13,18 @@ public class MaxSizeHashMap<V, T> extends LinkedHashMap<V, T> {
 		this.maxSize = maxSize;
 	}
 
+	/**
+	 * @param maxSize
+	 *            maximal number of entries
+	 * @param accessOrder
+	 *            true to remove the least recently used entry when full,
+	 *            false to remove the oldest one
+	 */
+	public MaxSizeHashMap(int maxSize, boolean accessOrder) {
+		super(16, 0.75f, accessOrder);
+		this.maxSize = maxSize;
+	}
+
 	@Override
 	public T put(V key, T value) {
 		if (size() >= maxSize) {
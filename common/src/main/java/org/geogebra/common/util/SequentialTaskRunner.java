@@ -0,0 +1,19 @@
+package org.geogebra.common.util;
+
+/**
+ * Runs tasks one after another in the calling thread.
+ */
+public class SequentialTaskRunner implements TaskRunner {
+
+	@Override
+	public void runAll(Runnable[] tasks) {
+		for (Runnable task : tasks) {
+			task.run();
+		}
+	}
+
+	@Override
+	public int getParallelism() {
+		return 1;
+	}
+}
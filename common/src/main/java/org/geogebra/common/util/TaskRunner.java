@@ -0,0 +1,22 @@
+package org.geogebra.common.util;
+
+/**
+ * Runs independent tasks, in parallel where the platform supports it (see
+ * {@link org.geogebra.common.factories.UtilFactory#getTaskRunner()}).
+ */
+public interface TaskRunner {
+
+	/**
+	 * Runs all tasks and returns once all of them finished. Tasks must not
+	 * depend on each other's results.
+	 * 
+	 * @param tasks
+	 *            tasks
+	 */
+	void runAll(Runnable[] tasks);
+
+	/**
+	 * @return number of tasks that can run at the same time
+	 */
+	int getParallelism();
+}
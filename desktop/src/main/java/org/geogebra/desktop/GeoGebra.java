@@ -61,6 +61,18 @@ public class GeoGebra {
 		GeoGebraPreferencesXML.setDefaultWindowY((int) (600.0 * sf));
 	}
 
+	private static int getIntValue(CommandLineArguments args, String name,
+			int fallback) {
+		if (args.containsArg(name)) {
+			try {
+				return Integer.parseInt(args.getStringValue(name));
+			} catch (NumberFormatException e) {
+				Log.error("Invalid value for " + name);
+			}
+		}
+		return fallback;
+	}
+
 	protected void doMain(String[] cmdArgs) {
 
 		CommandLineArguments args = new CommandLineArguments(cmdArgs);
@@ -80,7 +92,13 @@ public class GeoGebra {
 		}
 		if (args.containsArg("startHttpServer")) {
 			Log.error("startHttpServer");
-			new GeoGebraServer(args.getStringValue("startHttpServer"));
+			new GeoGebraServer(args.getStringValue("startHttpServer"),
+					getIntValue(args, "serverThreads",
+							GeoGebraServer.DEFAULT_POOL_SIZE),
+					getIntValue(args, "serverQueue",
+							GeoGebraServer.DEFAULT_QUEUE_SIZE),
+					getIntValue(args, "serverTimeout",
+							(int) GeoGebraServer.DEFAULT_TIMEOUT));
 			return;
 		}
 		if (args.containsArg("help") || args.containsArg("proverhelp")
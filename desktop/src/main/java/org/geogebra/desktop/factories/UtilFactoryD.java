@@ -1,8 +1,10 @@
 package org.geogebra.desktop.factories;
 
 import org.geogebra.common.factories.UtilFactory;
+import org.geogebra.common.jre.util.ForkJoinTaskRunner;
 import org.geogebra.common.util.HttpRequest;
 import org.geogebra.common.util.Prover;
+import org.geogebra.common.util.TaskRunner;
 import org.geogebra.common.util.URLEncoder;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.desktop.util.HttpRequestD;
@@ -36,4 +38,9 @@ public class UtilFactoryD extends UtilFactory {
 		return new ProverD();
 	}
 
+	@Override
+	public TaskRunner getTaskRunner() {
+		return ForkJoinTaskRunner.getInstance();
+	}
+
 }
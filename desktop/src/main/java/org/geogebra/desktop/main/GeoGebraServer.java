@@ -4,6 +4,16 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.geogebra.common.kernel.StringTemplate;
 import org.geogebra.common.kernel.arithmetic.ExpressionNodeConstants.StringType;
@@ -20,21 +30,84 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 
+/**
+ * HTTP server evaluating batches of API commands. Every request is evaluated
+ * in its own app checked out of a {@link ServerAppPool}.
+ * 
+ * Kernels still share static helpers (e.g. the replacers in Traversing), so
+ * only one request touches a kernel at a time, see {@link #KERNEL_LOCK}.
+ */
 public class GeoGebraServer {
 
-	App app;
-	GgbAPI api;
-	String secret;
+	/** default number of apps / evaluation threads */
+	public static final int DEFAULT_POOL_SIZE = Runtime.getRuntime()
+			.availableProcessors();
+	/** default number of requests waiting for a free app */
+	public static final int DEFAULT_QUEUE_SIZE = 64;
+	/** default timeout for one request in milliseconds */
+	public static final long DEFAULT_TIMEOUT = 30000;
+
+	private static final int HTTP_OK = 200;
+	private static final int HTTP_UNAVAILABLE = 503;
+	private static final int HTTP_TIMEOUT = 504;
+	/** threads reading requests; they never wait for an evaluation */
+	private static final int IO_THREADS = 2;
+
+	/**
+	 * Held while a kernel is used (evaluation, reset, creating apps): kernels
+	 * of different apps share static state and must not run concurrently.
+	 */
+	static final ReentrantLock KERNEL_LOCK = new ReentrantLock(true);
 
+	String secret;
+	final ServerAppPool pool;
+	final ThreadPoolExecutor evaluator;
+	final ScheduledThreadPoolExecutor watchdog;
+	final long timeout;
+
+	/**
+	 * @param secret
+	 *            secret that needs to be part of every request (may be null)
+	 */
 	public GeoGebraServer(String secret) {
-		this.app = new AppDNoGui(new LocalizationD(3), false);
-		api = app.getGgbApi();
+		this(secret, DEFAULT_POOL_SIZE, DEFAULT_QUEUE_SIZE, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * @param secret
+	 *            secret that needs to be part of every request (may be null)
+	 * @param poolSize
+	 *            number of apps
+	 * @param queueSize
+	 *            number of requests that may wait for a free app; further
+	 *            requests are rejected with HTTP 503
+	 * @param timeout
+	 *            timeout for one request (waiting + evaluation) in
+	 *            milliseconds
+	 */
+	public GeoGebraServer(String secret, int poolSize, int queueSize,
+			long timeout) {
 		this.secret = secret;
+		this.timeout = timeout;
+		KERNEL_LOCK.lock();
+		try {
+			this.pool = new ServerAppPool(poolSize);
+		} finally {
+			KERNEL_LOCK.unlock();
+		}
+		this.evaluator = new ThreadPoolExecutor(pool.getSize(),
+				pool.getSize(), 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)));
+		this.watchdog = new ScheduledThreadPoolExecutor(1);
+		watchdog.setRemoveOnCancelPolicy(true);
 
 		HttpServer server;
 		try {
 			server = HttpServer.create(new InetSocketAddress(8000), 0);
 			server.createContext("/v0.1/json", new MyHandlerJSON());
+			// handlers only read the request and pass it to the evaluator,
+			// whose bounded queue rejects further requests with HTTP 503
+			server.setExecutor(Executors.newFixedThreadPool(IO_THREADS));
 			server.start();
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
@@ -47,13 +120,9 @@ public class GeoGebraServer {
 		@Override
 		public void handle(HttpExchange t) throws IOException {
 
-			app.reset();
-			api.setRounding("10");
-
 			boolean testing = false;
 
 			String inputJSON = null;
-			String result;
 			try {
 				inputJSON = HttpRequestD.readOutput(t.getRequestBody());
 
@@ -78,73 +147,204 @@ public class GeoGebraServer {
 
 				}
 				JSONArray json = topLevel.getJSONArray("commands");
-				int i = 0;
-				JSONArray results = new JSONArray();
-				while (i < json.length()) {
-					Object testVal = json.opt(i);
-					if (!(testVal instanceof JSONObject)) {
-						Log.debug("Invalid JSON:" + testVal);
-						i++;
-						continue;
-					}
-					JSONObject test = (JSONObject) testVal;
-
-
-					
-					String cmd = test.get("cmd").toString();
-					String args = test.get("args").toString();
-					Log.debug("cmd = " + cmd);
-					Log.debug("args = " + args);
-
-					// Log.error(api.evalCommandCAS("Expand[(x+1)^2]"));
-
-					if ("evalCommand".equals(cmd)) {
-						api.evalCommand(args);
-					} else if ("evalLaTeX".equals(cmd)) {
-						api.evalLaTeX(args, 0);
-					} else if ("getValue".equals(cmd)) {
-						results.put(api.getValue(args));
-					} else if ("getValueString".equals(cmd)) {
-						results.put(api.getValueString(args));
-					} else if ("getLaTeXString".equals(cmd)) {
-						results.put(api.getLaTeXString(args));
-					} else if ("setRounding".equals(cmd)) {
-						api.setRounding(args);
-					} else if ("evalCommandCAS".equals(cmd)) {
-						results.put(api.evalCommandCAS(args));
-					} else if ("evalGeoGebraCAS".equals(cmd)) {
-						results.put(app.getKernel().evaluateGeoGebraCAS(args,
-								null, StringTemplate
-										.fullFigures(StringType.GEOGEBRA)));
-					} else if ("expressionEvaluatesToZero".equals(cmd)) {
-
-						String answer = app.getKernel().evaluateGeoGebraCAS(
-								"Simplify[" + args + "]", null,
-								StringTemplate.defaultTemplate);
-
-						results.put("0".equals(answer) ? "true" : "false");
-					}
-
-					i++;
-
-				}
-				result = results.toString();
+				// answered asynchronously by the evaluator or the watchdog
+				new Request(t, json, testing).start();
+			} catch (RejectedExecutionException e) {
+				writeOutput(t, HTTP_UNAVAILABLE, errorJSON("Server busy"),
+						testing);
 			} catch (Throwable e) {
 
 				e.printStackTrace();
 				Log.debug(inputJSON);
 				writeError(t, e.getMessage(), testing);
-				return;
 			}
 
-			// StringBuilder result = new StringBuilder("[");
+		}
+	}
+
+	/**
+	 * One batch of commands; answered exactly once, either by the evaluation
+	 * or with HTTP 504 when the timeout elapses first.
+	 */
+	class Request implements Runnable {
+		private final HttpExchange exchange;
+		private final JSONArray json;
+		private final boolean testing;
+		private boolean answered = false;
+		private volatile boolean timedOut = false;
+		private Future<?> evaluation;
+		private ScheduledFuture<?> timer;
+
+		Request(HttpExchange exchange, JSONArray json, boolean testing) {
+			this.exchange = exchange;
+			this.json = json;
+			this.testing = testing;
+		}
+
+		/**
+		 * Queues the evaluation and starts the timer.
+		 * 
+		 * @throws RejectedExecutionException
+		 *             when the queue is full
+		 */
+		synchronized void start() {
+			evaluation = evaluator.submit(this);
+			timer = watchdog.schedule(new Runnable() {
+				@Override
+				public void run() {
+					onTimeout();
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+		}
+
+		void onTimeout() {
+			timedOut = true;
+			Future<?> running;
+			synchronized (this) {
+				running = evaluation;
+			}
+			if (answer(HTTP_TIMEOUT, errorJSON("Timeout"))) {
+				// removes a waiting request from the queue; a running one
+				// keeps its app until it returns, see evaluate()
+				running.cancel(true);
+			}
+		}
+
+		/**
+		 * @return whether the request ran into the timeout
+		 */
+		boolean isTimedOut() {
+			return timedOut;
+		}
+
+		@Override
+		public void run() {
+			int status = HTTP_OK;
+			String message;
+			try {
+				message = evaluate(this);
+			} catch (TimeoutException e) {
+				status = HTTP_TIMEOUT;
+				message = errorJSON("Timeout");
+			} catch (Throwable e) {
+				e.printStackTrace();
+				message = errorJSON(e.getMessage());
+			}
+			answer(status, message);
+		}
+
+		private boolean answer(int status, String message) {
+			synchronized (this) {
+				if (answered) {
+					return false;
+				}
+				answered = true;
+				if (timer != null) {
+					timer.cancel(false);
+				}
+			}
+			writeOutput(exchange, status, message, testing);
+			return true;
+		}
+	}
+
+	/**
+	 * Evaluates one batch of commands in an app from the pool.
+	 *
+	 * @param request
+	 *            request
+	 * @return JSON array of results
+	 * @throws Exception
+	 *             when no app is available in time or evaluation fails
+	 */
+	String evaluate(Request request) throws Exception {
+		if (!KERNEL_LOCK.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+			throw new TimeoutException();
+		}
+		try {
+			AppDNoGui app = pool.checkout(timeout);
+			if (app == null) {
+				throw new TimeoutException();
+			}
+			try {
+				return evaluate(app, request.json);
+			} finally {
+				// the app is not reused after a timeout: the evaluation may
+				// have ignored the interrupt or stopped half way
+				if (request.isTimedOut() || Thread.interrupted()) {
+					pool.discard(app);
+				} else {
+					pool.checkin(app);
+				}
+			}
+		} finally {
+			KERNEL_LOCK.unlock();
+		}
+	}
+
+	private static String evaluate(App app, JSONArray json)
+			throws JSONException {
+		GgbAPI api = app.getGgbApi();
+		int i = 0;
+		JSONArray results = new JSONArray();
+		while (i < json.length()) {
+			Object testVal = json.opt(i);
+			if (!(testVal instanceof JSONObject)) {
+				Log.debug("Invalid JSON:" + testVal);
+				i++;
+				continue;
+			}
+			JSONObject test = (JSONObject) testVal;
+
 
-			writeOutput(t, result.toString(), testing);
 			
+			String cmd = test.get("cmd").toString();
+			String args = test.get("args").toString();
+			Log.debug("cmd = " + cmd);
+			Log.debug("args = " + args);
+
+			// Log.error(api.evalCommandCAS("Expand[(x+1)^2]"));
+
+			if ("evalCommand".equals(cmd)) {
+				api.evalCommand(args);
+			} else if ("evalLaTeX".equals(cmd)) {
+				api.evalLaTeX(args, 0);
+			} else if ("getValue".equals(cmd)) {
+				results.put(api.getValue(args));
+			} else if ("getValueString".equals(cmd)) {
+				results.put(api.getValueString(args));
+			} else if ("getLaTeXString".equals(cmd)) {
+				results.put(api.getLaTeXString(args));
+			} else if ("setRounding".equals(cmd)) {
+				api.setRounding(args);
+			} else if ("evalCommandCAS".equals(cmd)) {
+				results.put(api.evalCommandCAS(args));
+			} else if ("evalGeoGebraCAS".equals(cmd)) {
+				results.put(app.getKernel().evaluateGeoGebraCAS(args,
+						null, StringTemplate
+								.fullFigures(StringType.GEOGEBRA)));
+			} else if ("expressionEvaluatesToZero".equals(cmd)) {
+
+				String answer = app.getKernel().evaluateGeoGebraCAS(
+						"Simplify[" + args + "]", null,
+						StringTemplate.defaultTemplate);
+
+				results.put("0".equals(answer) ? "true" : "false");
+			}
+
+			i++;
+
 		}
+		return results.toString();
+	}
+
+	private static void writeOutput(HttpExchange t, String message,
+			boolean testing) {
+		writeOutput(t, HTTP_OK, message, testing);
 	}
 
-	private void writeOutput(HttpExchange t, String message, boolean testing) {
+	private static void writeOutput(HttpExchange t, int status,
+			String message, boolean testing) {
 		String encoding = "UTF-8";
 		try {
 			if (!testing) {
@@ -153,7 +353,7 @@ public class GeoGebraServer {
 			}
 
 			// http://stackoverflow.com/questions/6828076/how-to-correctly-compute-the-length-of-a-string-in-java
-			t.sendResponseHeaders(200, message.getBytes(encoding).length);
+			t.sendResponseHeaders(status, message.getBytes(encoding).length);
 
 			Writer out = new OutputStreamWriter(t.getResponseBody(), encoding);
 			Log.debug("message = " + message);
@@ -166,6 +366,10 @@ public class GeoGebraServer {
 	}
 
 	public void writeError(HttpExchange t, String message, boolean testing) {
+		writeOutput(t, errorJSON(message), testing);
+	}
+
+	private static String errorJSON(String message) {
 		JSONObject error = new JSONObject();
 		try {
 			error.put("error", message + "");
@@ -174,9 +378,7 @@ public class GeoGebraServer {
 			e.printStackTrace();
 		}
 		Log.debug("error = " + error);
-
-		writeOutput(t, error.toString(), testing);
-
+		return error.toString();
 	}
 
 }
@@ -0,0 +1,95 @@
+package org.geogebra.desktop.main;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+
+/**
+ * Pool of pre-warmed headless apps used by {@link GeoGebraServer}. Every
+ * request checks out its own app, so independent requests never share a
+ * kernel; apps are cleared when they are returned so that the next request
+ * does not have to pay for the reset.
+ */
+public class ServerAppPool {
+
+	private final LinkedBlockingQueue<AppDNoGui> idle;
+	private final int size;
+
+	/**
+	 * @param size
+	 *            number of apps in the pool
+	 */
+	public ServerAppPool(int size) {
+		this.size = Math.max(1, size);
+		this.idle = new LinkedBlockingQueue<>(this.size);
+		for (int i = 0; i < this.size; i++) {
+			idle.add(createApp());
+		}
+	}
+
+	private static AppDNoGui createApp() {
+		AppDNoGui app = new AppDNoGui(new LocalizationD(3), false);
+		app.getGgbApi().setRounding("10");
+		return app;
+	}
+
+	/**
+	 * @return number of apps managed by this pool
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return number of apps currently waiting for a request
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * Waits for an idle app.
+	 *
+	 * @param timeoutMillis
+	 *            maximal waiting time in milliseconds
+	 * @return app or null if no app was returned within the timeout
+	 * @throws InterruptedException
+	 *             when the waiting thread is interrupted
+	 */
+	public AppDNoGui checkout(long timeoutMillis) throws InterruptedException {
+		return idle.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Clears the construction of the app and makes it available for other
+	 * requests.
+	 *
+	 * @param app
+	 *            app obtained by {@link #checkout(long)}
+	 */
+	public void checkin(AppDNoGui app) {
+		try {
+			app.clearConstruction();
+			app.getGgbApi().setRounding("10");
+		} catch (Throwable t) {
+			Log.debug("Problem resetting app, replacing it: " + t);
+			discard(app);
+			return;
+		}
+		idle.offer(app);
+	}
+
+	/**
+	 * Replaces an app which cannot be reused (e.g. its computation was
+	 * cancelled after a timeout) by a fresh one.
+	 *
+	 * @param app
+	 *            app obtained by {@link #checkout(long)}
+	 */
+	public void discard(AppDNoGui app) {
+		idle.offer(createApp());
+	}
+
+}
@@ -1,12 +1,35 @@
 package org.geogebra.desktop.plugin;
 
+import java.util.HashMap;
+
 import org.geogebra.common.main.App;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ContextFactory;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 
 public class CallJavaScript {
 
+	private static int optimizationLevel = 0;
+
+	/**
+	 * Sets the Rhino optimization level for scripts compiled from now on: -1
+	 * for interpreted mode, 0 to 9 to compile scripts to Java classes.
+	 * 
+	 * @param level
+	 *            optimization level
+	 */
+	public static void setOptimizationLevel(int level) {
+		optimizationLevel = Math.max(-1, Math.min(9, level));
+	}
+
+	/**
+	 * @return optimization level for new scripts
+	 */
+	public static int getOptimizationLevel() {
+		return optimizationLevel;
+	}
+
 	/**
 	 * Evaluates the global script for the current construction and returns a
 	 * scope object for this script.
@@ -20,6 +43,7 @@ public class CallJavaScript {
 
 		// create new scope
 		Context cx = Context.enter();
+		cx.setOptimizationLevel(optimizationLevel);
 
 		// No class loader for unsigned applets so don't try and optimize.
 		// http://www.mail-archive.com/batik-dev@xmlgraphics.apache.org/msg00108.html
@@ -48,7 +72,8 @@ public class CallJavaScript {
 
 	/**
 	 * Evaluates a local script using the global scope from the current
-	 * construction.
+	 * construction. Scripts are only compiled the first time they run, the
+	 * global scope already contains the standard objects.
 	 * 
 	 * @param app
 	 * @param script
@@ -56,31 +81,35 @@ public class CallJavaScript {
 	 */
 	public static void evalScript(App app, String script, String arg) {
 
+		ScriptManagerD scriptManager = (ScriptManagerD) app
+				.getScriptManager();
 		// get the global scope for the current construction
-		Scriptable globalScope = ((ScriptManagerD) app.getScriptManager())
-				.getGlobalScopeMap().get(app.getKernel().getConstruction());
+		Scriptable globalScope = scriptManager.getGlobalScopeMap()
+				.get(app.getKernel().getConstruction());
+		HashMap<String, Script> compiledScripts = scriptManager
+				.getCompiledScripts(app.getKernel().getConstruction());
 
 		Context cx = Context.enter();
-
-		cx.initSafeStandardObjects();
-
-		// No class loader for unsigned applets so don't try and optimize.
-		// http://www.mail-archive.com/batik-dev@xmlgraphics.apache.org/msg00108.html
-		// if (!AppD.hasFullPermissions()) {
-		// cx.setOptimizationLevel(-1);
-		// Context.setCachingEnabled(false);
-		// }
-
-		// Create a new scope that shares the global scope
-		Scriptable newScope = cx.newObject(globalScope);
-		newScope.setPrototype(globalScope);
-		newScope.setParentScope(null);
-
-		// Evaluate the script.
-		cx.evaluateString(newScope, script,
-				app.getLocalization().getMenu("ErrorAtLine"), 1, null);
-
-		Context.exit();
+		try {
+			Script compiled = compiledScripts.get(script);
+			if (compiled == null) {
+				cx.setOptimizationLevel(optimizationLevel);
+				compiled = cx.compileString(script,
+						app.getLocalization().getMenu("ErrorAtLine"), 1,
+						null);
+				compiledScripts.put(script, compiled);
+			}
+
+			// Create a new scope that shares the global scope
+			Scriptable newScope = cx.newObject(globalScope);
+			newScope.setPrototype(globalScope);
+			newScope.setParentScope(null);
+
+			// Evaluate the script.
+			compiled.exec(cx, newScope);
+		} finally {
+			Context.exit();
+		}
 
 	}
 
@@ -6,8 +6,10 @@ import org.geogebra.common.kernel.Construction;
 import org.geogebra.common.kernel.Kernel;
 import org.geogebra.common.main.App;
 import org.geogebra.common.plugin.ScriptManager;
+import org.geogebra.common.util.MaxSizeHashMap;
 import org.geogebra.common.util.debug.Log;
 import org.geogebra.desktop.main.AppD;
+import org.mozilla.javascript.Script;
 import org.mozilla.javascript.Scriptable;
 
 //import org.concord.framework.data.stream.DataListener;
@@ -18,6 +20,13 @@ import org.mozilla.javascript.Scriptable;
 
 public class ScriptManagerD extends ScriptManager {
 
+	/**
+	 * least recently used compiled scripts per construction are dropped when
+	 * there are more than this (scripts built from arguments may all be
+	 * different)
+	 */
+	private static final int MAX_COMPILED_SCRIPTS = 1000;
+
 	// library of functions that is available to all JavaScript calls
 	// init() is called when GeoGebra starts up (eg to start listeners)
 	/*
@@ -36,11 +45,14 @@ public class ScriptManagerD extends ScriptManager {
 	 */
 
 	protected HashMap<Construction, Scriptable> globalScopeMap;
+	/** compiled object scripts by source for each construction */
+	protected HashMap<Construction, HashMap<String, Script>> compiledScriptMap;
 
 	public ScriptManagerD(App app) {
 		super(app);
 
 		globalScopeMap = new HashMap<Construction, Scriptable>();
+		compiledScriptMap = new HashMap<Construction, HashMap<String, Script>>();
 
 		// evalScript("ggbOnInit();");
 	}
@@ -90,6 +102,33 @@ public class ScriptManagerD extends ScriptManager {
 		return globalScopeMap;
 	}
 
+	/**
+	 * @param cons
+	 *            construction
+	 * @return compiled scripts of the construction by source
+	 */
+	public HashMap<String, Script> getCompiledScripts(Construction cons) {
+		HashMap<String, Script> compiledScripts = compiledScriptMap.get(cons);
+		if (compiledScripts == null) {
+			compiledScripts = new MaxSizeHashMap<String, Script>(
+					MAX_COMPILED_SCRIPTS, true);
+			compiledScriptMap.put(cons, compiledScripts);
+		}
+		return compiledScripts;
+	}
+
+	/*
+	 * needed for eg File -> New
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		// undo keeps the scripts of the construction
+		if (listenersEnabled) {
+			compiledScriptMap.remove(app.getKernel().getConstruction());
+		}
+	}
+
 	@Override
 	public void setGlobalScript() {
 
@@ -1168,6 +1168,13 @@ public class CommandsTest extends AlgebraTest {
 		tRound("Object[\"B\"]", "(3.14159, 0)");
 	}
 
+	@Test
+	public void cmdRoots() {
+		tRound("{Roots(x^3-x, -2, 2)}", "{(-1, 0), (0, 0), (1, 0)}");
+		// more roots than half the samples: samples are refined
+		tRound("Length({Roots(sin(pi x), 0.5, 40.5)})", "40");
+	}
+
 	@Test
 	public void cmdRoot() {
 		tRound("Root[ x^3-x ]", new String[] { "(-1, 0)", "(0, 0)", "(1, 0)" });
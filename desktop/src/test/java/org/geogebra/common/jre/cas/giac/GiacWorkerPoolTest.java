@@ -0,0 +1,81 @@
+package org.geogebra.common.jre.cas.giac;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.geogebra.common.cas.giac.binding.CASGiacBinding;
+import org.geogebra.common.cas.giac.binding.Context;
+import org.geogebra.common.cas.giac.binding.Gen;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GiacWorkerPoolTest {
+
+	private static class NoBinding implements CASGiacBinding {
+		@Override
+		public Context createContext() {
+			return null;
+		}
+
+		@Override
+		public Gen createGen(String string, Context context) {
+			return null;
+		}
+	}
+
+	/** task that ignores interrupts until released */
+	private static class StuckTask implements GiacWorkerPool.Task {
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public String evaluate(Context context) {
+			while (release.getCount() > 0) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// like a Giac call that can't be interrupted
+				}
+			}
+			return "stuck";
+		}
+	}
+
+	private static class ResultTask implements GiacWorkerPool.Task {
+		@Override
+		public String evaluate(Context context) {
+			return "ok";
+		}
+	}
+
+	@Test
+	public void stuckTaskShouldNotBlockPool() throws InterruptedException {
+		GiacWorkerPool pool = new GiacWorkerPool(1, new NoBinding());
+		StuckTask stuck = new StuckTask();
+		GiacWorkerPool.Job stuckJob = pool.submit(stuck);
+		Assert.assertFalse(stuckJob.await(100));
+		Assert.assertNotNull(stuckJob.abandon());
+		Assert.assertEquals(2, pool.getWorkerCount());
+
+		GiacWorkerPool.Job job = pool.submit(new ResultTask());
+		Assert.assertTrue(job.await(5000));
+		Assert.assertEquals("ok", job.getResult());
+
+		stuck.release.countDown();
+		for (int i = 0; i < 100 && pool.getWorkerCount() > 1; i++) {
+			Thread.sleep(10);
+		}
+		Assert.assertEquals(1, pool.getWorkerCount());
+	}
+
+	@Test
+	public void waitingForWorkerShouldCountAgainstTimeout()
+			throws InterruptedException {
+		GiacWorkerPool pool = new GiacWorkerPool(1, new NoBinding());
+		StuckTask stuck = new StuckTask();
+		pool.submit(stuck);
+		GiacWorkerPool.Job waiting = pool.submit(new ResultTask());
+		Assert.assertFalse(waiting.await(100));
+		Assert.assertNull(waiting.abandon());
+		Assert.assertEquals(1, pool.getWorkerCount());
+		stuck.release.countDown();
+	}
+}
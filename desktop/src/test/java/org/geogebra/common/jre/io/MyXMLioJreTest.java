@@ -0,0 +1,25 @@
+package org.geogebra.common.jre.io;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.main.App;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MyXMLioJreTest {
+
+	@Test
+	public void streamedXMLShouldMatchFullXML() throws IOException {
+		App app = AlgebraTest.createApp();
+		for (int i = 0; i < 500; i++) {
+			app.getKernel().getAlgebraProcessor().processAlgebraCommand(
+					"A_{" + i + "}=(" + i + ",sin(" + i + "))", false);
+		}
+		MyXMLioJre xmlio = (MyXMLioJre) app.getXMLio();
+		StringWriter writer = new StringWriter();
+		xmlio.writeFullXML(writer);
+		Assert.assertEquals(xmlio.getFullXML(), writer.toString());
+	}
+}
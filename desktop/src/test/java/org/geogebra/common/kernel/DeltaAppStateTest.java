@@ -0,0 +1,126 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class DeltaAppStateTest {
+
+	private static String xml(String... elements) {
+		StringBuilder sb = new StringBuilder(
+				"<geogebra>\n<kernel/>\n<construction title=\"\">\n");
+		for (String element : elements) {
+			sb.append(element);
+			sb.append('\n');
+		}
+		sb.append("</construction>\n</geogebra>");
+		return sb.toString();
+	}
+
+	@Test
+	public void splitShouldKeepContent() {
+		String xml = xml("<element type=\"point\" label=\"A\">\n"
+				+ "\t<coords x=\"1\" y=\"2\" z=\"1\"/>\n</element>",
+				"<command name=\"Circle\">\n<input a0=\"A\"/>\n"
+						+ "<output a0=\"c\"/>\n</command>",
+				"<expression label=\"f\" exp=\"x &gt; 2\"/>");
+		String[] blocks = DeltaAppState.split(xml);
+		Assert.assertEquals(5, blocks.length);
+		StringBuilder joined = new StringBuilder();
+		for (String block : blocks) {
+			joined.append(block);
+		}
+		Assert.assertEquals(xml, joined.toString());
+	}
+
+	@Test
+	public void deltasShouldReconstructXml() {
+		ArrayList<String> xmls = new ArrayList<>();
+		ArrayList<AppState> states = new ArrayList<>();
+		ArrayList<String> elements = new ArrayList<>();
+		AppState previous = null;
+		for (int i = 0; i < 3 * DeltaAppState.KEYFRAME_INTERVAL; i++) {
+			if (i % 3 == 0) {
+				elements.add("<element label=\"A" + i + "\"/>");
+			} else if (i % 5 == 0) {
+				elements.remove(elements.size() / 2);
+			} else {
+				elements.set(0, "<element label=\"B" + i + "\"/>");
+			}
+			String xml = xml(elements.toArray(new String[0]));
+			previous = DeltaAppState.create(xml, previous);
+			xmls.add(xml);
+			states.add(previous);
+		}
+		for (int i = states.size() - 1; i >= 0; i--) {
+			Assert.assertEquals(xmls.get(i), states.get(i).getXml());
+		}
+		Assert.assertTrue(((DeltaAppState) states.get(0)).isKeyframe());
+		Assert.assertFalse(((DeltaAppState) states.get(1)).isKeyframe());
+	}
+
+	@Test
+	public void equalityShouldUseContent() {
+		String xml = xml("<element label=\"A\"/>");
+		AppState first = DeltaAppState.create(xml, null);
+		AppState same = DeltaAppState.create(xml, first);
+		AppState other = DeltaAppState.create(xml("<element label=\"B\"/>"),
+				first);
+		Assert.assertTrue(first.equalsTo(same));
+		Assert.assertTrue(same.equalsTo(first));
+		Assert.assertFalse(first.equalsTo(other));
+		Assert.assertTrue(first.equalsTo(new StringAppState(xml)));
+	}
+
+	/**
+	 * Benchmark: heap per undo step for a construction with many objects
+	 * where one point is moved in each step.
+	 */
+	@Test
+	public void heapPerUndoStep() {
+		AppDNoGui app = AlgebraTest.createApp();
+		for (int i = 0; i < 2000; i++) {
+			app.getKernel().getAlgebraProcessor()
+					.processAlgebraCommand("P_{" + i + "}=(" + i + ",1)", false);
+		}
+		GeoPoint point = (GeoPoint) app.getKernel().lookupLabel("P_{0}");
+		int steps = 50;
+		long stringHeap = measure(app, point, steps, false);
+		long deltaHeap = measure(app, point, steps, true);
+		Log.debug("Heap per undo step: full XML " + stringHeap / steps
+				+ " bytes, delta " + deltaHeap / steps + " bytes");
+	}
+
+	private static long measure(AppDNoGui app, GeoPoint point, int steps,
+			boolean delta) {
+		ArrayList<AppState> history = new ArrayList<>();
+		long before = usedHeap();
+		AppState previous = null;
+		for (int i = 0; i < steps; i++) {
+			point.setCoords(i, 0, 1);
+			point.updateCascade();
+			String xml = app.getKernel().getConstruction()
+					.getCurrentUndoXML(true).toString();
+			previous = delta ? DeltaAppState.create(xml, previous)
+					: new StringAppState(xml);
+			history.add(previous);
+		}
+		long used = usedHeap() - before;
+		Assert.assertEquals(steps, history.size());
+		return used;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,104 @@
+package org.geogebra.common.kernel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Updates constructions of several kernels from several threads; every
+ * construction must end up with the same values as when updated alone.
+ */
+@SuppressWarnings("javadoc")
+public class ParallelUpdateCascadeTest {
+
+	private static final int CHAIN_LENGTH = 200;
+	private static final int UPDATES = 300;
+	private static final int KERNELS = 4;
+
+	private static class Worksheet implements Callable<double[]> {
+		private final AppDNoGui app;
+		private final ArrayList<GeoElement> free = new ArrayList<>();
+		private final GeoNumeric last;
+		private final int offset;
+
+		Worksheet(int offset) {
+			this.offset = offset;
+			app = AlgebraTest.createApp();
+			eval("a=1");
+			eval("b=1");
+			eval("c_0=a+b");
+			for (int i = 1; i < CHAIN_LENGTH; i++) {
+				eval("c_{" + i + "}=sqrt(c_{" + (i - 1) + "}^2+a)-b+1");
+			}
+			free.add(lookup("a"));
+			free.add(lookup("b"));
+			last = (GeoNumeric) lookup("c_{" + (CHAIN_LENGTH - 1) + "}");
+		}
+
+		private void eval(String cmd) {
+			app.getKernel().getAlgebraProcessor()
+					.processAlgebraCommand(cmd, false);
+		}
+
+		private GeoElement lookup(String label) {
+			return app.getKernel().lookupLabel(label);
+		}
+
+		@Override
+		public double[] call() {
+			double[] values = new double[UPDATES];
+			for (int i = 0; i < UPDATES; i++) {
+				((GeoNumeric) free.get(0)).setValue((i + offset) % 7);
+				((GeoNumeric) free.get(1)).setValue(1 + offset);
+				GeoElement.updateCascade(free,
+						app.getKernel().getConstruction().getTempAlgoSet(),
+						false);
+				values[i] = last.getValue();
+			}
+			return values;
+		}
+	}
+
+	@Test
+	public void concurrentCascadesShouldMatchSequentialOnes()
+			throws Exception {
+		ArrayList<Worksheet> sheets = new ArrayList<>();
+		ArrayList<double[]> expected = new ArrayList<>();
+		for (int i = 0; i < KERNELS; i++) {
+			Worksheet sheet = new Worksheet(i);
+			sheets.add(sheet);
+			expected.add(sheet.call());
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(KERNELS);
+		try {
+			List<Future<double[]>> results = pool.invokeAll(sheets);
+			for (int i = 0; i < KERNELS; i++) {
+				Assert.assertArrayEquals(expected.get(i),
+						results.get(i).get(), 0);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void tempSetShouldBeOwnedByConstruction() {
+		AppDNoGui app1 = AlgebraTest.createApp();
+		AppDNoGui app2 = AlgebraTest.createApp();
+		Construction cons1 = app1.getKernel().getConstruction();
+		Construction cons2 = app2.getKernel().getConstruction();
+		Assert.assertSame(cons1.getTempAlgoSet(), cons1.getTempAlgoSet());
+		Assert.assertNotSame(cons1.getTempAlgoSet(),
+				cons2.getTempAlgoSet());
+	}
+}
@@ -0,0 +1,91 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.ArrayList;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.main.App;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AlgoNSolveODETest {
+
+	private App app;
+	private int checks = 0;
+
+	private void add(String def) {
+		app.getKernel().getAlgebraProcessor().processAlgebraCommand(def,
+				false);
+	}
+
+	private String trajectory(String label) {
+		GeoLocus locus = (GeoLocus) app.getKernel().lookupLabel(label);
+		ArrayList<MyPoint> points = locus.getPoints();
+		StringBuilder sb = new StringBuilder();
+		for (MyPoint point : points) {
+			sb.append(point.x).append(',').append(point.y).append(';');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return trajectory of nint, checked against a new NSolveODE with the
+	 *         same inputs
+	 */
+	private String checkedTrajectory() {
+		String check = "check" + (++checks);
+		add(check + "=NSolveODE({y1', y2'}, s, {a, b}, e)");
+		String expected = trajectory(check + "_1");
+		String actual = trajectory("nint_1");
+		Assert.assertEquals(expected, actual);
+		return actual;
+	}
+
+	@Before
+	public void setup() {
+		app = AlgebraTest.createApp();
+		add("g=9.8");
+		add("l=2");
+		add("a=5");
+		add("b=3");
+		add("s=0");
+		add("e=20");
+		add("y1'(t, y1, y2) = y2");
+		add("y2'(t, y1, y2) = (-g) / l sin(y1)");
+		add("nint=NSolveODE({y1', y2'}, s, {a, b}, e)");
+	}
+
+	@Test
+	public void changedInputsShouldChangeTrajectory() {
+		String last = checkedTrajectory();
+
+		// equations
+		add("SetValue(g, 3)");
+		String current = checkedTrajectory();
+		Assert.assertFalse(last.equals(current));
+		last = current;
+
+		add("y2'(t, y1, y2) = -y1");
+		current = checkedTrajectory();
+		Assert.assertFalse(last.equals(current));
+		last = current;
+
+		// start values
+		add("SetValue(a, 1)");
+		current = checkedTrajectory();
+		Assert.assertFalse(last.equals(current));
+		last = current;
+
+		add("SetValue(s, 1)");
+		current = checkedTrajectory();
+		Assert.assertFalse(last.equals(current));
+		last = current;
+
+		// end value
+		add("SetValue(e, 10)");
+		current = checkedTrajectory();
+		Assert.assertFalse(last.equals(current));
+	}
+}
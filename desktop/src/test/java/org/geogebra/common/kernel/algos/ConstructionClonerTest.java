@@ -0,0 +1,185 @@
+package org.geogebra.common.kernel.algos;
+
+import java.util.TreeSet;
+
+import org.geogebra.common.awt.GColor;
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.Kernel;
+import org.geogebra.common.kernel.Macro;
+import org.geogebra.common.kernel.MacroKernel;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.App;
+import org.geogebra.common.util.debug.Log;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConstructionClonerTest {
+
+	private static GeoElement add(App app, String input) {
+		return (GeoElement) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(input, false)[0];
+	}
+
+	private static MacroKernel newMacroKernel(Kernel kernel,
+			TreeSet<ConstructionElement> elements) {
+		MacroKernel macroKernel = kernel.newMacroKernel();
+		macroKernel.setGlobalVariableLookup(true);
+		for (ConstructionElement ce : elements) {
+			if (ce.isGeoElement()) {
+				macroKernel.addReservedLabel(((GeoElement) ce).getLabelSimple());
+			}
+		}
+		return macroKernel;
+	}
+
+	private static MacroKernel copy(Kernel kernel,
+			TreeSet<ConstructionElement> elements, boolean expected) {
+		MacroKernel macroKernel = newMacroKernel(kernel, elements);
+		Assert.assertEquals(expected,
+				new ConstructionCloner(macroKernel, elements).copy());
+		return macroKernel;
+	}
+
+	private static TreeSet<ConstructionElement> collect(GeoElement... geos) {
+		TreeSet<ConstructionElement> elements = new TreeSet<>();
+		TreeSet<Long> algoIds = new TreeSet<>();
+		for (GeoElement geo : geos) {
+			Macro.addDependentElement(geo, elements, algoIds);
+		}
+		return elements;
+	}
+
+	@Test
+	public void commandsAndExpressionsShouldBeCopied() {
+		App app = AlgebraTest.createApp();
+		add(app, "f: y = x");
+		add(app, "A=(1,2)");
+		GeoElement point = add(app, "B=Point(f)");
+		GeoElement mid = add(app, "M=(A+B)/2");
+		GeoElement circle = add(app, "c=Circle(M,A)");
+
+		MacroKernel macroKernel = copy(app.getKernel(),
+				collect(point, mid, circle), true);
+
+		for (String label : new String[] { "f", "A", "B", "M", "c" }) {
+			GeoElement orig = app.getKernel().lookupLabel(label);
+			GeoElement copy = macroKernel.lookupLabel(label);
+			Assert.assertNotSame(orig, copy);
+			Assert.assertSame(macroKernel.getConstruction(),
+					copy.getConstruction());
+			Assert.assertTrue(label, copy.isEqual(orig));
+		}
+		Assert.assertTrue(macroKernel.lookupLabel("c")
+				.isChildOf(macroKernel.lookupLabel("A")));
+		Assert.assertFalse(macroKernel.lookupLabel("c")
+				.isChildOf(app.getKernel().lookupLabel("A")));
+	}
+
+	@Test
+	public void dependentFunctionShouldNotBeCopied() {
+		App app = AlgebraTest.createApp();
+		add(app, "a=2");
+		GeoElement fun = add(app, "g(x)=a x");
+
+		MacroKernel macroKernel = copy(app.getKernel(), collect(fun), false);
+		Assert.assertNull(macroKernel.lookupLabel("g"));
+	}
+
+	@Test
+	public void pointsOnPathAndInRegionShouldKeepPosition() {
+		App app = AlgebraTest.createApp();
+		add(app, "c: x^2 + y^2 = 4");
+		add(app, "q=Polygon((0,0),(4,0),(0,4))");
+		GeoPoint onPath = (GeoPoint) add(app, "P=Point(c)");
+		GeoPoint inRegion = (GeoPoint) add(app, "Q=PointIn(q)");
+		onPath.setCoords(0, 2, 1);
+		onPath.updateCascade();
+		inRegion.setCoords(1, 2, 1);
+		inRegion.updateCascade();
+		GeoElement mid = add(app, "M=Midpoint(P,Q)");
+		GeoElement random = add(app, "r=RandomBetween(1,1000)");
+
+		MacroKernel macroKernel = copy(app.getKernel(),
+				collect(mid, random), true);
+		GeoPoint copy = (GeoPoint) macroKernel.lookupLabel("P");
+		Assert.assertEquals(0, copy.getInhomX(), 1E-12);
+		Assert.assertEquals(2, copy.getInhomY(), 1E-12);
+		Assert.assertEquals(onPath.getPathParameter().t,
+				copy.getPathParameter().t, 1E-12);
+		Assert.assertTrue(copy.isPointOnPath());
+		for (String label : new String[] { "Q", "M", "r" }) {
+			Assert.assertTrue(label, macroKernel.lookupLabel(label)
+					.isEqual(app.getKernel().lookupLabel(label)));
+		}
+		Assert.assertTrue(macroKernel.lookupLabel("Q").isPointInRegion());
+	}
+
+	@Test
+	public void toolOutputShouldKeepStyleAndVisibility() throws Exception {
+		App app = AlgebraTest.createApp();
+		GeoElement a = add(app, "A=(1,1)");
+		GeoElement b = add(app, "B=(3,1)");
+		GeoElement styled = add(app, "M=Midpoint(A,B)");
+		GeoElement hidden = add(app, "N=Midpoint(A,M)");
+		styled.setObjColor(GColor.RED);
+		styled.setCaption("mid");
+		styled.setLayer(3);
+		hidden.setEuclidianVisible(false);
+
+		Macro macro = new Macro(app.getKernel(), "Mids",
+				new GeoElement[] { a, b }, new GeoElement[] { styled, hidden });
+		app.getKernel().addMacro(macro);
+		GeoElement[] macroOutput = macro.getMacroOutput();
+		Assert.assertEquals(GColor.RED, macroOutput[0].getObjectColor());
+		Assert.assertEquals("mid", macroOutput[0].getRawCaption());
+		Assert.assertEquals(3, macroOutput[0].getLayer());
+		Assert.assertTrue(macroOutput[0].isSetEuclidianVisible());
+		Assert.assertFalse(macroOutput[1].isSetEuclidianVisible());
+
+		GeoElementND[] output = app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand("Mids((0,0),(4,4))", true);
+		Assert.assertEquals(GColor.RED, output[0].getObjectColor());
+		Assert.assertEquals("mid", output[0].getRawCaption());
+		Assert.assertTrue(output[0].isSetEuclidianVisible());
+		Assert.assertFalse(output[1].isSetEuclidianVisible());
+	}
+
+	/**
+	 * Benchmark: build the macro construction of a locus with many steps by
+	 * copying and by loading its XML.
+	 */
+	@Test
+	public void buildLargeMacroConstruction() throws Exception {
+		App app = AlgebraTest.createApp();
+		add(app, "c: x^2 + y^2 = 4");
+		add(app, "A_0=Point(c)");
+		add(app, "B=(1,3)");
+		for (int i = 1; i < 100; i++) {
+			add(app, "M_{" + i + "}=Midpoint(A_{" + (i - 1) + "},B)");
+			add(app, "A_{" + i + "}=M_{" + i + "}+(" + i + "/1000,0)");
+		}
+		TreeSet<ConstructionElement> elements = collect(
+				app.getKernel().lookupLabel("A_{99}"));
+		int runs = 20;
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < runs; i++) {
+			MacroKernel macroKernel = newMacroKernel(app.getKernel(),
+					elements);
+			macroKernel.loadXML(Macro.buildMacroXML(app.getKernel(), elements)
+					.toString());
+		}
+		long xml = System.currentTimeMillis() - start;
+		MacroKernel copy = null;
+		start = System.currentTimeMillis();
+		for (int i = 0; i < runs; i++) {
+			copy = copy(app.getKernel(), elements, true);
+		}
+		long direct = System.currentTimeMillis() - start;
+		Assert.assertTrue(copy.lookupLabel("A_{99}")
+				.isEqual(app.getKernel().lookupLabel("A_{99}")));
+		Log.debug("Macro construction of 201 elements: XML " + xml / runs
+				+ "ms, copy " + direct / runs + "ms");
+	}
+}
@@ -0,0 +1,48 @@
+package org.geogebra.common.kernel.algos;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.main.App;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FunctionGridTest {
+
+	private static GeoFunctionNVar function(App app, String def) {
+		return (GeoFunctionNVar) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(def, false)[0];
+	}
+
+	private static void assertSameValues(FunctionGrid expected,
+			FunctionGrid actual, int size) {
+		for (int col = 0; col < size; col++) {
+			for (int row = 0; row < size; row++) {
+				Assert.assertEquals(expected.get(col, row),
+						actual.get(col, row), 0);
+			}
+		}
+	}
+
+	@Test
+	public void translatedGridShouldReuseValues() {
+		App app = AlgebraTest.createApp();
+		GeoFunctionNVar f = function(app, "f(x,y)=sin(x) cos(y)");
+		FunctionGrid cached = new FunctionGrid(f);
+		cached.evaluate(0, 0, -50, -50, 100, 100, 0.05, 0.04);
+		Assert.assertEquals(10000, cached.getEvaluations());
+
+		cached.evaluate(0, 0, -47, -52, 100, 100, 0.05, 0.04);
+		Assert.assertEquals(10000 + 3 * 98 + 2 * 100,
+				cached.getEvaluations());
+		FunctionGrid fresh = new FunctionGrid(f);
+		fresh.evaluate(0, 0, -47, -52, 100, 100, 0.05, 0.04);
+		assertSameValues(fresh, cached, 100);
+
+		// changed function: everything is evaluated again
+		function(app, "f(x,y)=sin(x) sin(y)");
+		cached.evaluate(0, 0, -47, -52, 100, 100, 0.05, 0.04);
+		fresh = new FunctionGrid(f);
+		fresh.evaluate(0, 0, -47, -52, 100, 100, 0.05, 0.04);
+		assertSameValues(fresh, cached, 100);
+	}
+}
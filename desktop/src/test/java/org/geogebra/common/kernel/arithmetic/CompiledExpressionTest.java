@@ -0,0 +1,108 @@
+package org.geogebra.common.kernel.arithmetic;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.geos.GeoFunctionNVar;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledExpressionTest {
+
+	static AppDNoGui app = AlgebraTest.createApp();
+
+	private static GeoElementND add(String in) {
+		return app.getKernel().getAlgebraProcessor().processAlgebraCommand(in,
+				false)[0];
+	}
+
+	/**
+	 * @return value computed by ExpressionNodeEvaluator
+	 */
+	private static double treeWalker(Function fun, double x) {
+		fun.getFunctionVariables()[0].set(x);
+		return fun.getExpression().evaluate(StringTemplate.defaultTemplate)
+				.evaluateDouble();
+	}
+
+	private static void compare(String def, boolean reentrant) {
+		Function fun = ((GeoFunction) add(def)).getFunction();
+		FunctionEvaluator evaluator = fun.createEvaluator();
+		Assert.assertEquals(def, reentrant, evaluator.isReentrant());
+		for (double x = -10; x <= 10; x += 0.37) {
+			Assert.assertEquals(def + " at " + x, treeWalker(fun, x),
+					evaluator.value(x), 0);
+		}
+	}
+
+	private static void compareAt(String def, double... xs) {
+		Function fun = ((GeoFunction) add(def)).getFunction();
+		FunctionEvaluator evaluator = fun.createEvaluator();
+		Assert.assertTrue(def, evaluator.isReentrant());
+		for (double x : xs) {
+			Assert.assertEquals(def + " at " + x, treeWalker(fun, x),
+					evaluator.value(x), 0);
+		}
+	}
+
+	@Test
+	public void compiledShouldMatchTreeWalker() {
+		add("a=3");
+		compare("f(x)=x^2+a*x-1", true);
+		compare("f(x)=sin(x)/(1+x^2)", true);
+		compare("f(x)=tan(x)+cos(2x)", true);
+		compare("f(x)=sqrt(abs(x))+exp(-x^2)", true);
+		compare("f(x)=ln(x)", true);
+		compare("f(x)=x^(1/3)", true);
+		compare("f(x)=cbrt(x)-sinh(x)+cosh(x)*tanh(x)", true);
+		compare("f(x)=(a+1)^2 x", true);
+		compare("f(x)=e^x+sin(pi)*x", true);
+	}
+
+	@Test
+	public void compiledShouldMatchTreeWalkerForSpecialValues() {
+		double pi = Math.PI;
+		compareAt("f(x)=sin(x)", -3 * pi, -pi, 0, pi, 2 * pi, 1E-9);
+		compareAt("f(x)=cos(x)", -pi / 2, pi / 2, 3 * pi / 2, 1E-9);
+		compareAt("f(x)=tan(x)", -pi, pi / 2, pi, 1E-9);
+		compareAt("f(x)=e^x", -2, -0.5, 0, 0.3, 1, 7.25);
+		compareAt("f(x)=e^(x/3)", -2, 0.3, 1);
+		add("big=1/0");
+		add("zero=0");
+		double inf = Double.POSITIVE_INFINITY;
+		compareAt("f(x)=x*big", 0, -1, 2, inf, -inf, Double.NaN);
+		compareAt("f(x)=x^zero", inf, -inf, Double.NaN, 0, 2);
+		compareAt("f(x)=big^x", 0, 1E-10, -1E-10, 1, -1);
+		compareAt("f(x)=x^(1/3)", -8, -inf, 0, inf);
+	}
+
+	@Test
+	public void unsupportedShouldFallBack() {
+		compare("f(x)=If(x>0,x,-x)", false);
+		compare("f(x)=floor(x)", false);
+		compare("f(x)=x^(x/2)", false);
+	}
+
+	@Test
+	public void compiledShouldFollowDependencies() {
+		add("b=2");
+		Function fun = ((GeoFunction) add("g(x)=b x")).getFunction();
+		FunctionEvaluator evaluator = fun.createEvaluator();
+		Assert.assertEquals(6, evaluator.value(3), 0);
+		add("SetValue(b,5)");
+		Assert.assertEquals(15, evaluator.value(3), 0);
+	}
+
+	@Test
+	public void twoVariables() {
+		FunctionNVar fun = ((GeoFunctionNVar) add("h(x,y)=x^2-y*x"))
+				.getFunction();
+		FunctionEvaluator evaluator = fun.createEvaluator();
+		Assert.assertTrue(evaluator.isReentrant());
+		Assert.assertEquals(fun.evaluate(3, 5), evaluator.evaluate(3, 5), 0);
+		Assert.assertEquals(fun.evaluate(new double[] { -1, 2 }),
+				evaluator.evaluate(new double[] { -1, 2 }), 0);
+	}
+}
@@ -0,0 +1,83 @@
+package org.geogebra.common.kernel.commands;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.arithmetic.ValidExpression;
+import org.geogebra.common.main.App;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParsedExpressionCacheTest {
+
+	@Test
+	public void repeatedInputShouldBeCopiedFromCache() throws Exception {
+		App app = AlgebraTest.createApp();
+		ParsedExpressionCache cache = app.getKernel().getAlgebraProcessor()
+				.getParsedExpressionCache();
+		ValidExpression first = cache
+				.parseGeoGebraExpression("Midpoint((1,2),(3,4))+(1,1)");
+		ValidExpression second = cache
+				.parseGeoGebraExpression("Midpoint((1,2),(3,4))+(1,1)");
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals(first.toString(StringTemplate.xmlTemplate),
+				second.toString(StringTemplate.xmlTemplate));
+	}
+
+	@Test
+	public void newLabelShouldClearCache() throws Exception {
+		App app = AlgebraTest.createApp();
+		AlgebraProcessor ap = app.getKernel().getAlgebraProcessor();
+		ParsedExpressionCache cache = ap.getParsedExpressionCache();
+		cache.parseGeoGebraExpression("f(2)");
+		ap.processAlgebraCommand("f(x)=x^2", false);
+		int misses = cache.getMisses();
+		cache.parseGeoGebraExpression("f(2)");
+		Assert.assertEquals(misses + 1, cache.getMisses());
+		Assert.assertEquals(4, ap.processAlgebraCommand("f(2)", false)[0]
+				.evaluateDouble(), 0);
+	}
+
+	@Test
+	public void otherLabelsShouldKeepCache() throws Exception {
+		App app = AlgebraTest.createApp();
+		AlgebraProcessor ap = app.getKernel().getAlgebraProcessor();
+		ParsedExpressionCache cache = ap.getParsedExpressionCache();
+		cache.parseGeoGebraExpression("Midpoint((1,2),(3,4))+g'(1)");
+		ap.processAlgebraCommand("a=Midpoint((1,2),(5,6))", false);
+		ap.processAlgebraCommand("g_1(x)=x", false);
+		int misses = cache.getMisses();
+		cache.parseGeoGebraExpression("Midpoint((1,2),(3,4))+g'(1)");
+		Assert.assertEquals(misses, cache.getMisses());
+		ap.processAlgebraCommand("g(x)=x^2", false);
+		cache.parseGeoGebraExpression("Midpoint((1,2),(3,4))+g'(1)");
+		Assert.assertEquals(misses + 1, cache.getMisses());
+	}
+
+	@Test
+	public void defineEAfterParsing2e() throws Exception {
+		App app = AlgebraTest.createApp();
+		AlgebraProcessor ap = app.getKernel().getAlgebraProcessor();
+		Assert.assertEquals(2 * Math.E,
+				ap.processAlgebraCommand("2e", false)[0].evaluateDouble(), 0);
+		ap.processAlgebraCommand("e=5", false);
+		Assert.assertEquals(10,
+				ap.processAlgebraCommand("2e", false)[0].evaluateDouble(), 0);
+		app.getKernel().lookupLabel("e").remove();
+		Assert.assertEquals(2 * Math.E,
+				ap.processAlgebraCommand("2e", false)[0].evaluateDouble(), 0);
+	}
+
+	@Test
+	public void clearingConstructionShouldClearCache() throws Exception {
+		App app = AlgebraTest.createApp();
+		ParsedExpressionCache cache = app.getKernel().getAlgebraProcessor()
+				.getParsedExpressionCache();
+		cache.parseGeoGebraExpression("Midpoint((1,2),(3,4))");
+		app.getKernel().clearConstruction(true);
+		cache.parseGeoGebraExpression("Midpoint((1,2),(3,4))");
+		Assert.assertEquals(2, cache.getMisses());
+		Assert.assertEquals(0, cache.getHits());
+	}
+}
@@ -0,0 +1,116 @@
+package org.geogebra.common.kernel.discrete;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.geos.GeoLocus;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PointListTriangulationTest {
+
+	private static GeoElementND add(AppDNoGui app, String input) {
+		return app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(input, false)[0];
+	}
+
+	/** segments of the locus, independent of their order */
+	private static TreeSet<String> segments(GeoElementND locus) {
+		TreeSet<String> segments = new TreeSet<>();
+		ArrayList<MyPoint> points = ((GeoLocus) locus).getPoints();
+		for (int i = 0; i + 1 < points.size(); i += 2) {
+			String start = round(points.get(i));
+			String end = round(points.get(i + 1));
+			segments.add(start.compareTo(end) < 0 ? start + end : end + start);
+		}
+		return segments;
+	}
+
+	private static String round(MyPoint p) {
+		return "(" + Math.round(p.x * 1E5) + "," + Math.round(p.y * 1E5)
+				+ ")";
+	}
+
+	/** result for a new list, not sharing the triangulation of l1 */
+	private static TreeSet<String> rebuild(AppDNoGui app, String command) {
+		GeoElementND copy = add(app, "First(l1,Length(l1))");
+		TreeSet<String> segments = segments(
+				add(app, command + "(" + copy.getLabelSimple() + ")"));
+		copy.remove();
+		return segments;
+	}
+
+	private static AppDNoGui createPoints(int n, Random random) {
+		AppDNoGui app = AlgebraTest.createApp();
+		StringBuilder list = new StringBuilder("l1={");
+		for (int i = 0; i < n; i++) {
+			add(app, "A_{" + i + "}=(" + random.nextDouble() * 10 + ","
+					+ random.nextDouble() * 10 + ")");
+			list.append(i == 0 ? "" : ",");
+			list.append("A_{" + i + "}");
+		}
+		add(app, list.append("}").toString());
+		return app;
+	}
+
+	@Test
+	public void draggedPointsShouldGiveSameResultAsRebuild() {
+		Random random = new Random(42);
+		AppDNoGui app = createPoints(60, random);
+		GeoElementND delaunay = add(app, "DelauneyTriangulation(l1)");
+		GeoElementND voronoi = add(app, "Voronoi(l1)");
+		for (int step = 0; step < 30; step++) {
+			GeoPoint point = (GeoPoint) app.getKernel()
+					.lookupLabel("A_{" + random.nextInt(60) + "}");
+			point.setCoords(point.getInhomX() + random.nextGaussian() * 0.5,
+					point.getInhomY() + random.nextGaussian() * 0.5, 1);
+			point.updateCascade();
+			Assert.assertEquals(rebuild(app, "DelauneyTriangulation"),
+					segments(delaunay));
+			Assert.assertEquals(rebuild(app, "Voronoi"), segments(voronoi));
+		}
+	}
+
+	@Test
+	public void duplicatesShouldBeIgnored() {
+		AppDNoGui app = AlgebraTest.createApp();
+		add(app, "A=(0,0)");
+		add(app, "B=(2,0)");
+		add(app, "C=(0,2)");
+		GeoElementND delaunay = add(app,
+				"DelauneyTriangulation({A,B,C,(0,0),(2,2)})");
+		Assert.assertEquals(5, segments(delaunay).size());
+		Assert.assertEquals(3,
+				segments(add(app, "DelauneyTriangulation({A,B,C,A})")).size());
+		Assert.assertEquals(3, segments(add(app,
+				"DelauneyTriangulation({A,B,C,(0.000000001,2-0.000000001)})"))
+						.size());
+	}
+
+	/**
+	 * Benchmark: drag one point of a large point set.
+	 */
+	@Test
+	public void dragInLargePointSet() {
+		Random random = new Random(1);
+		AppDNoGui app = createPoints(5000, random);
+		add(app, "DelauneyTriangulation(l1)");
+		add(app, "Voronoi(l1)");
+		GeoPoint point = (GeoPoint) app.getKernel().lookupLabel("A_{100}");
+		long start = System.currentTimeMillis();
+		for (int step = 0; step < 20; step++) {
+			point.setCoords(point.getInhomX() + 0.001,
+					point.getInhomY() + 0.001, 1);
+			point.updateCascade();
+		}
+		Log.debug("Dragging a point of 5000: "
+				+ (System.currentTimeMillis() - start) / 20 + "ms per step");
+	}
+}
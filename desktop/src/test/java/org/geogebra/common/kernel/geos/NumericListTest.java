@@ -0,0 +1,121 @@
+package org.geogebra.common.kernel.geos;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.StringTemplate;
+import org.geogebra.common.kernel.commands.AlgebraProcessor;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.App;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class NumericListTest {
+	private static App app;
+	private static AlgebraProcessor ap;
+
+	@BeforeClass
+	public static void setup() {
+		app = AlgebraTest.createApp();
+		ap = app.getKernel().getAlgebraProcessor();
+	}
+
+	@Before
+	public void clean() {
+		app.getKernel().clearConstruction(true);
+	}
+
+	private static GeoElementND add(String input) {
+		return ap.processAlgebraCommand(input, false)[0];
+	}
+
+	private static double value(String input) {
+		return add(input).evaluateDouble();
+	}
+
+	private static double lookup(String label) {
+		return app.getKernel().lookupLabel(label).evaluateDouble();
+	}
+
+	@Test
+	public void longSequenceShouldStoreValues() {
+		GeoList list = (GeoList) add("l1=Sequence(k^2,k,1,100000)");
+		Assert.assertNotNull(list.getNumericValues());
+		Assert.assertEquals(100000, list.size());
+		Assert.assertEquals(2500000000.0, list.get(49999).evaluateDouble(),
+				0);
+		Assert.assertEquals(25, value("Element(l1,5)"), 0);
+		Assert.assertEquals(3333383333.5, value("Mean(l1)"), 1E-3);
+		Assert.assertEquals(2500050000.5, value("Median(l1)"), 1E-3);
+		Assert.assertEquals(625025000.5, value("Q1(l1)"), 1E-3);
+		Assert.assertEquals(100000, value("Length(l1)"), 0);
+	}
+
+	@Test
+	public void storedValuesShouldFollowUpdates() {
+		add("n=2000");
+		GeoList list = (GeoList) add("l1=Sequence(k,k,1,n)");
+		Assert.assertNotNull(list.getNumericValues());
+		Assert.assertEquals(1000.5, value("m=Mean(l1)"), 0);
+		GeoNumeric n = (GeoNumeric) app.getKernel().lookupLabel("n");
+		n.setValue(3);
+		n.updateCascade();
+		Assert.assertNull(list.getNumericValues());
+		Assert.assertEquals(2, lookup("m"), 0);
+		Assert.assertEquals("{1, 2, 3}",
+				list.toValueString(StringTemplate.defaultTemplate));
+		n.setValue(4000);
+		n.updateCascade();
+		Assert.assertNotNull(list.getNumericValues());
+		Assert.assertEquals(2000.5, lookup("m"), 0);
+	}
+
+	@Test
+	public void orderStatisticsShouldFollowUpdates() {
+		add("a=5");
+		add("l1={a,1,2,2,4}");
+		add("l2=Sequence(Mod(k,7)+a,k,1,7000)");
+		Assert.assertEquals(2, value("m1=Median(l1)"), 0);
+		Assert.assertEquals(4.5, value("q1=Q3(l1)"), 0);
+		Assert.assertEquals(2, value("p1=Percentile(l1,0.5)"), 0);
+		Assert.assertEquals(8, value("m2=Median(l2)"), 0);
+		Assert.assertEquals(10, value("q2=Q3(l2)"), 0);
+		Assert.assertEquals(8, value("p2=Percentile(l2,0.5)"), 0);
+		Assert.assertEquals("{2}", add("Mode(l1)")
+				.toValueString(StringTemplate.defaultTemplate));
+
+		GeoNumeric a = (GeoNumeric) app.getKernel().lookupLabel("a");
+		a.setValue(0);
+		a.updateCascade();
+		Assert.assertEquals(2, lookup("m1"), 0);
+		Assert.assertEquals(3, lookup("q1"), 0);
+		Assert.assertEquals(2, lookup("p1"), 0);
+		Assert.assertEquals(3, lookup("m2"), 0);
+		Assert.assertEquals(5, lookup("q2"), 0);
+		Assert.assertEquals(3, lookup("p2"), 0);
+	}
+
+	@Test
+	public void storedValuesShouldBeCompared() {
+		GeoList squares = (GeoList) add("l1=Sequence(k^2,k,1,1000)");
+		GeoList sameSquares = (GeoList) add("l2=Sequence(k k,k,1,1000)");
+		GeoList cubes = (GeoList) add("l3=Sequence(k^3,k,1,1000)");
+		Assert.assertTrue(squares.isEqual(sameSquares));
+		Assert.assertFalse(squares.isEqual(cubes));
+		Assert.assertFalse(cubes.isEqual(squares));
+		Assert.assertEquals("false", add("l1 == l3")
+				.toValueString(StringTemplate.defaultTemplate));
+	}
+
+	@Test
+	public void readingPropertiesShouldKeepStoredValues() {
+		GeoList list = (GeoList) add("l1=Sequence(k,k,1,1000)");
+		list.getXML(false, new StringBuilder());
+		list.getAlphaValue();
+		list.isFillable();
+		list.showLineProperties();
+		list.getMinimumLineThickness();
+		list.elementsAsArray();
+		Assert.assertNotNull(list.getNumericValues());
+	}
+}
@@ -0,0 +1,51 @@
+package org.geogebra.common.kernel.geos;
+
+import java.util.ArrayList;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.PackedPointList;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.main.App;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PackedLocusTest {
+
+	private static GeoElementND add(App app, String input) {
+		return app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(input, false)[0];
+	}
+
+	@Test
+	public void locusPointsShouldBePacked() {
+		App app = AlgebraTest.createApp();
+		add(app, "a=Slider(0,10)");
+		add(app, "P=(a,sin(a))");
+		GeoLocus locus = (GeoLocus) add(app, "Locus(P,a)");
+		PackedPointList packed = locus.getPackedPoints();
+		int size = packed.size();
+		Assert.assertTrue(size > 0);
+		Assert.assertEquals(size, locus.getPointLength());
+
+		GeoLocus copy = (GeoLocus) locus.copy();
+		Assert.assertEquals(size, copy.getPackedPoints().size());
+
+		double[] xs = new double[size];
+		double[] ys = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = packed.getX(i);
+			ys[i] = packed.getY(i);
+		}
+		ArrayList<MyPoint> points = locus.getPoints();
+		Assert.assertEquals(0, packed.size());
+		Assert.assertEquals(0, packed.getCapacity());
+		Assert.assertEquals(size, points.size());
+		Assert.assertEquals(size, locus.getPointLength());
+		for (int i = 0; i < size; i++) {
+			Assert.assertEquals(xs[i], points.get(i).x, 0);
+			Assert.assertEquals(ys[i], points.get(i).y, 0);
+		}
+		Assert.assertEquals(locus.isClosedPath(), copy.isClosedPath());
+	}
+}
@@ -0,0 +1,67 @@
+package org.geogebra.common.kernel.implicit;
+
+import java.util.ArrayList;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.jre.util.ForkJoinTaskRunner;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.kernelND.GeoElementND;
+import org.geogebra.common.util.SequentialTaskRunner;
+import org.geogebra.common.util.TaskRunner;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Plotting implicit curves in parallel tiles must give the same path as
+ * plotting them cell by cell.
+ */
+public class ParallelQuadTreeTest {
+
+	/** uses tiles even on a single core machine */
+	private static final TaskRunner TILES = new TaskRunner() {
+
+		@Override
+		public void runAll(Runnable[] tasks) {
+			ForkJoinTaskRunner.getInstance().runAll(tasks);
+		}
+
+		@Override
+		public int getParallelism() {
+			return 4;
+		}
+	};
+
+	private static final String[] CURVES = { "x^3+y^3-3x y=0",
+			"x^4+y^4-3x y=1", "(x^2+y^2)^2=8(x^2-y^2)",
+			"y^2=x^3-2x+1", "(x-y)(x+y-1)(x^2+y^2-4)=0",
+			"x^5-y^4+3x^2 y-y=2", "(x^2+y^2-1)(x^2+y^2-9)(y-x^3)=0" };
+
+	private static ArrayList<String> plot(GeoImplicitCurve curve,
+			TaskRunner runner) {
+		curve.setTaskRunner(runner);
+		curve.updatePath();
+		ArrayList<String> path = new ArrayList<>();
+		for (MyPoint point : curve.getLocus().getPoints()) {
+			path.add(point.getSegmentType() + point.toString());
+		}
+		return path;
+	}
+
+	@Test
+	public void tilesShouldGiveSamePath() {
+		AppDNoGui app = AlgebraTest.createApp();
+		for (String input : CURVES) {
+			GeoElementND curve = app.getKernel().getAlgebraProcessor()
+					.processAlgebraCommand(input, false)[0];
+			Assert.assertTrue(input, curve instanceof GeoImplicitCurve);
+			GeoImplicitCurve implicit = (GeoImplicitCurve) curve;
+			// warm up, the plot depth is reduced when the first pass is slow
+			plot(implicit, TILES);
+			ArrayList<String> sequential = plot(implicit,
+					new SequentialTaskRunner());
+			Assert.assertFalse(input, sequential.isEmpty());
+			Assert.assertEquals(input, sequential, plot(implicit, TILES));
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package org.geogebra.common.kernel.integration;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.jre.util.ForkJoinTaskRunner;
+import org.geogebra.common.kernel.arithmetic.FunctionEvaluator;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.util.TaskRunner;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GaussQuadIntegratorTest {
+
+	private static final UnivariateFunction SIN = new UnivariateFunction() {
+
+		@Override
+		public double value(double x) {
+			return Math.sin(x);
+		}
+	};
+
+	private static final UnivariateFunction FLOOR = new UnivariateFunction() {
+
+		@Override
+		public double value(double x) {
+			return Math.floor(x);
+		}
+	};
+
+	@Test
+	public void integrateShouldRespectOrientation() {
+		GaussQuadIntegrator integrator = new GaussQuadIntegrator();
+		Assert.assertEquals(2, integrator.integrate(SIN, 0, Math.PI, 1),
+				1E-12);
+		Assert.assertEquals(-2, integrator.integrate(SIN, Math.PI, 0, 1),
+				1E-12);
+		Assert.assertEquals(0, integrator.integrate(SIN, 1, 1, 1), 0);
+	}
+
+	@Test
+	public void changedBoundShouldReusePieces() {
+		GaussQuadIntegrator cached = new GaussQuadIntegrator();
+		for (int step = 0; step < 7; step++) {
+			double upper = 5 + step * 0.13;
+			GaussQuadIntegrator fresh = new GaussQuadIntegrator();
+			int before = cached.getEvaluations();
+			double result = cached.integrateAligned(SIN, -2.1, upper, 1);
+			Assert.assertEquals(fresh.integrateAligned(SIN, -2.1, upper, 1),
+					result, 0);
+			Assert.assertEquals(Math.cos(-2.1) - Math.cos(upper), result,
+					1E-8);
+			int evaluations = cached.getEvaluations() - before;
+			if (step == 0) {
+				// nothing cached yet
+				Assert.assertEquals(fresh.getEvaluations(), evaluations);
+			} else {
+				Assert.assertTrue(evaluations < fresh.getEvaluations());
+			}
+		}
+	}
+
+	@Test
+	public void clearedCacheShouldGiveSameResultAsNewIntegrator() {
+		GaussQuadIntegrator cached = new GaussQuadIntegrator();
+		GaussQuadIntegrator fresh = new GaussQuadIntegrator();
+		cached.integrateAligned(SIN, -2.1, 5, 1);
+		cached.clearCache();
+		Assert.assertEquals(fresh.integrateAligned(FLOOR, -2.1, 5, 1),
+				cached.integrateAligned(FLOOR, -2.1, 5, 1), 0);
+	}
+
+	@Test
+	public void expensivePiecesShouldBeComputedInParallel() {
+		AppDNoGui app = AlgebraTest.createApp();
+		GeoFunction f = (GeoFunction) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand("f(x)=sin(x^2)", false)[0];
+		FunctionEvaluator evaluator = f.createEvaluator();
+		Assert.assertTrue(evaluator.isReentrant());
+		final int[] runs = new int[1];
+		GaussQuadIntegrator cached = new GaussQuadIntegrator();
+		cached.setTaskRunner(new TaskRunner() {
+
+			@Override
+			public void runAll(Runnable[] tasks) {
+				runs[0]++;
+				ForkJoinTaskRunner.getInstance().runAll(tasks);
+			}
+
+			@Override
+			public int getParallelism() {
+				return 4;
+			}
+		});
+		int dragged = 0;
+		for (double upper = 20; upper < 21; upper += 0.1) {
+			GaussQuadIntegrator fresh = new GaussQuadIntegrator();
+			double expected = fresh.integrateAligned(evaluator, 0, upper, 1);
+			int before = cached.getEvaluations();
+			Assert.assertEquals(expected,
+					cached.integrateAligned(evaluator, 0, upper, 1), 0);
+			if (upper > 20.05) {
+				// pieces of the first call are reused
+				dragged += cached.getEvaluations() - before;
+				Assert.assertTrue(cached.getEvaluations()
+						- before < fresh.getEvaluations() / 4);
+			}
+		}
+		Assert.assertTrue(dragged > 0);
+		Assert.assertTrue(runs[0] > 0);
+	}
+}
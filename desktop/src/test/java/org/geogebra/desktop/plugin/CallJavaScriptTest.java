@@ -0,0 +1,93 @@
+package org.geogebra.desktop.plugin;
+
+import java.util.HashMap;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.kernel.geos.GeoNumeric;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mozilla.javascript.Script;
+
+public class CallJavaScriptTest {
+
+	/**
+	 * Benchmark: update script of a slider running 10k times, as in an
+	 * animation with many frames.
+	 */
+	@Test
+	public void updateScriptsShouldBeCompiledOnce() throws Exception {
+		AppDNoGui app = AlgebraTest.createApp();
+		app.getKernel().getAlgebraProcessor().processAlgebraCommand("a=1",
+				false);
+		GeoNumeric b = (GeoNumeric) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand("b=0", false)[0];
+		ScriptManagerD scriptManager = (ScriptManagerD) app
+				.getScriptManager();
+		String script = "ggbApplet.setValue('b', ggbApplet.getValue('b')"
+				+ " + ggbApplet.getValue('a'));";
+		int runs = 10000;
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < runs; i++) {
+			scriptManager.evalJavaScript(app, script, null);
+		}
+		long time = Math.max(1, System.currentTimeMillis() - start);
+		Log.debug(runs + " update scripts took " + time + "ms ("
+				+ runs * 1000 / time + " scripts per second)");
+		Assert.assertEquals(runs, b.getValue(), 0);
+		Assert.assertEquals(1, scriptManager
+				.getCompiledScripts(app.getKernel().getConstruction()).size());
+	}
+
+	@Test
+	public void compiledScriptsShouldBeDroppedOnNewFile() throws Exception {
+		AppDNoGui app = AlgebraTest.createApp();
+		ScriptManagerD scriptManager = (ScriptManagerD) app
+				.getScriptManager();
+		scriptManager.evalJavaScript(app, "ggbApplet.evalCommand('d=1');",
+				null);
+		Assert.assertEquals(1, scriptManager
+				.getCompiledScripts(app.getKernel().getConstruction()).size());
+		app.getKernel().clearConstruction(true);
+		Assert.assertEquals(0, scriptManager
+				.getCompiledScripts(app.getKernel().getConstruction()).size());
+	}
+
+	@Test
+	public void leastRecentlyUsedScriptShouldBeDropped() throws Exception {
+		AppDNoGui app = AlgebraTest.createApp();
+		ScriptManagerD scriptManager = (ScriptManagerD) app
+				.getScriptManager();
+		String used = "ggbApplet.evalCommand('e=1');";
+		scriptManager.evalJavaScript(app, used, null);
+		HashMap<String, Script> compiled = scriptManager
+				.getCompiledScripts(app.getKernel().getConstruction());
+		Script script = compiled.get(used);
+		for (int i = 1; i < 1000; i++) {
+			compiled.put("unused" + i, script);
+		}
+		scriptManager.evalJavaScript(app, used, null);
+		compiled.put("unused1000", script);
+		Assert.assertEquals(1000, compiled.size());
+		Assert.assertTrue(compiled.containsKey(used));
+		Assert.assertFalse(compiled.containsKey("unused1"));
+	}
+
+	@Test
+	public void scriptsShouldSeeGlobalFunctions() throws Exception {
+		AppDNoGui app = AlgebraTest.createApp();
+		app.getKernel().setLibraryJavaScript(
+				"function twice(x) { return 2 * x; }");
+		GeoNumeric c = (GeoNumeric) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand("c=1", false)[0];
+		ScriptManagerD scriptManager = (ScriptManagerD) app
+				.getScriptManager();
+		String script = "ggbApplet.setValue('c',"
+				+ " twice(ggbApplet.getValue('c')));";
+		for (int i = 0; i < 3; i++) {
+			scriptManager.evalJavaScript(app, script, null);
+		}
+		Assert.assertEquals(8, c.getValue(), 0);
+	}
+}
@@ -0,0 +1,50 @@
+package org.geogebra.euclidian;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurvePlotter.Gap;
+import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Benchmark: replot typical and pathological functions. Not part of the unit
+ * tests, run manually.
+ */
+@Ignore
+public class CurvePlotterBenchmark {
+
+	@Test
+	public void plotCurveBenchmark() {
+		AppDNoGui app = AlgebraTest.createApp();
+		benchmark(app, CurvePlotterTest.TYPICAL);
+		benchmark(app, CurvePlotterTest.PATHOLOGICAL);
+	}
+
+	private static void benchmark(AppDNoGui app, String[] defs) {
+		EuclidianView view = app.getEuclidianView1();
+		GeneralPathClippedForCurvePlotter gp = new GeneralPathClippedForCurvePlotter(
+				view);
+		for (String def : defs) {
+			GeoFunction f = CurvePlotterTest.function(app, def);
+			// warm up
+			for (int i = 0; i < 200; i++) {
+				gp.reset();
+				CurvePlotter.plotCurve(f, view.getXmin(), view.getXmax(), view,
+						gp, true, Gap.MOVE_TO);
+			}
+			long start = System.nanoTime();
+			for (int i = 0; i < 1000; i++) {
+				gp.reset();
+				CurvePlotter.plotCurve(f, view.getXmin(), view.getXmax(), view,
+						gp, true, Gap.MOVE_TO);
+			}
+			Log.debug("Plotting " + def + ": "
+					+ (System.nanoTime() - start) / 1000000 + "us per plot");
+		}
+	}
+}
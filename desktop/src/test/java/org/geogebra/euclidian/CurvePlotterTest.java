@@ -0,0 +1,181 @@
+package org.geogebra.euclidian;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.euclidian.plot.CurvePlotter;
+import org.geogebra.common.euclidian.plot.CurvePlotter.Gap;
+import org.geogebra.common.euclidian.plot.CurveSampleCache;
+import org.geogebra.common.euclidian.plot.GeneralPathClippedForCurvePlotter;
+import org.geogebra.common.euclidian.plot.PathPlotter;
+import org.geogebra.common.kernel.MyPoint;
+import org.geogebra.common.kernel.SegmentType;
+import org.geogebra.common.kernel.Matrix.CoordSys;
+import org.geogebra.common.kernel.geos.GeoFunction;
+import org.geogebra.common.kernel.kernelND.CurveEvaluable;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CurvePlotterTest {
+
+	static final String[] TYPICAL = { "sin(x)", "x^3-3x", "sqrt(x)",
+			"exp(x)" };
+	static final String[] PATHOLOGICAL = { "sin(1/x)", "tan(x)",
+			"1/x", "floor(x)", "ln(x^2-4)", "x sin(100x)" };
+
+	/** records all points sent to the plotter */
+	private static class RecordingPlotter implements PathPlotter {
+		private StringBuilder sb = new StringBuilder();
+
+		@Override
+		public void drawTo(double[] pos, SegmentType lineTo) {
+			sb.append(lineTo).append(pos[0]).append(',').append(pos[1])
+					.append(';');
+		}
+
+		@Override
+		public void lineTo(double[] pos) {
+			drawTo(pos, SegmentType.LINE_TO);
+		}
+
+		@Override
+		public void moveTo(double[] pos) {
+			drawTo(pos, SegmentType.MOVE_TO);
+		}
+
+		@Override
+		public void corner() {
+			sb.append("corner;");
+		}
+
+		@Override
+		public void corner(double[] pos) {
+			drawTo(pos, SegmentType.AUXILIARY);
+		}
+
+		@Override
+		public void firstPoint(double[] pos, Gap moveToAllowed) {
+			drawTo(pos, SegmentType.MOVE_TO);
+		}
+
+		@Override
+		public double[] newDoubleArray() {
+			return new double[2];
+		}
+
+		@Override
+		public boolean copyCoords(MyPoint point, double[] ret,
+				CoordSys transformSys) {
+			return false;
+		}
+
+		@Override
+		public void endPlot() {
+			sb.append("end;");
+		}
+
+		@Override
+		public boolean supports(CoordSys transformSys) {
+			return true;
+		}
+	}
+
+	static GeoFunction function(AppDNoGui app, String def) {
+		return (GeoFunction) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(def, false)[0];
+	}
+
+	private static String plot(AppDNoGui app, GeoFunction f, Gap gap) {
+		EuclidianView view = app.getEuclidianView1();
+		RecordingPlotter gp = new RecordingPlotter();
+		CurvePlotter.plotCurve(f, view.getXmin(), view.getXmax(), view, gp,
+				true, gap);
+		return gp.sb.toString();
+	}
+
+	@Test
+	public void replotShouldGiveSamePoints() {
+		AppDNoGui app = AlgebraTest.createApp();
+		String[] defs = new String[TYPICAL.length + PATHOLOGICAL.length];
+		System.arraycopy(TYPICAL, 0, defs, 0, TYPICAL.length);
+		System.arraycopy(PATHOLOGICAL, 0, defs, TYPICAL.length,
+				PATHOLOGICAL.length);
+		GeoFunction[] functions = new GeoFunction[defs.length];
+		String[] paths = new String[defs.length];
+		for (int i = 0; i < defs.length; i++) {
+			functions[i] = function(app, defs[i]);
+			paths[i] = plot(app, functions[i], Gap.MOVE_TO);
+		}
+		// scratch arrays of the view are shared by all curves
+		for (int i = defs.length - 1; i >= 0; i--) {
+			Assert.assertEquals(defs[i], paths[i],
+					plot(app, functions[i], Gap.MOVE_TO));
+		}
+	}
+
+	private static String plotAligned(AppDNoGui app, CurveEvaluable f,
+			double min, double max) {
+		RecordingPlotter gp = new RecordingPlotter();
+		CurvePlotter.plotCurveAligned(f, min, max, app.getEuclidianView1(), gp,
+				true, Gap.MOVE_TO);
+		return gp.sb.toString();
+	}
+
+	@Test
+	public void panShouldReuseSamples() {
+		AppDNoGui app = AlgebraTest.createApp();
+		for (String def : PATHOLOGICAL) {
+			GeoFunction f = function(app, def);
+			CurveSampleCache cache = new CurveSampleCache(f);
+			Assert.assertEquals(def, plotAligned(app, f, -10, 10),
+					plotAligned(app, cache, -10, 10));
+			int evaluations = cache.getEvaluations();
+			Assert.assertEquals(def, plotAligned(app, f, -9.9, 10.1),
+					plotAligned(app, cache, -9.9, 10.1));
+			Assert.assertTrue(def,
+					cache.getEvaluations() - evaluations < evaluations / 2);
+			// curve changed
+			cache.clear();
+			Assert.assertEquals(0, cache.size());
+			Assert.assertEquals(def, plotAligned(app, f, -9.9, 10.1),
+					plotAligned(app, cache, -9.9, 10.1));
+		}
+	}
+
+	@Test
+	public void compiledFunctionShouldGiveSamePoints() {
+		AppDNoGui app = AlgebraTest.createApp();
+		EuclidianView view = app.getEuclidianView1();
+		for (String def : PATHOLOGICAL) {
+			GeoFunction f = function(app, def);
+			// a cache without started pass evaluates the expression tree
+			CurveSampleCache tree = new CurveSampleCache(f);
+			RecordingPlotter gp = new RecordingPlotter();
+			CurvePlotter.plotCurve(tree, view.getXmin(), view.getXmax(), view,
+					gp, true, Gap.MOVE_TO);
+			Assert.assertEquals(def, gp.sb.toString(),
+					plot(app, f, Gap.MOVE_TO));
+		}
+	}
+
+	@Test
+	public void reusedPathShouldKeepBounds() {
+		AppDNoGui app = AlgebraTest.createApp();
+		EuclidianView view = app.getEuclidianView1();
+		GeoFunction sin = function(app, "sin(x)");
+		GeoFunction tan = function(app, "tan(x)");
+		GeneralPathClippedForCurvePlotter reused = new GeneralPathClippedForCurvePlotter(
+				view);
+		CurvePlotter.plotCurve(tan, view.getXmin(), view.getXmax(), view,
+				reused, false, Gap.MOVE_TO);
+		reused.getGeneralPath();
+		reused.reset();
+		CurvePlotter.plotCurve(sin, view.getXmin(), view.getXmax(), view,
+				reused, false, Gap.MOVE_TO);
+		GeneralPathClippedForCurvePlotter fresh = new GeneralPathClippedForCurvePlotter(
+				view);
+		CurvePlotter.plotCurve(sin, view.getXmin(), view.getXmax(), view,
+				fresh, false, Gap.MOVE_TO);
+		Assert.assertEquals(fresh.getBounds(), reused.getBounds());
+	}
+}
@@ -0,0 +1,94 @@
+package org.geogebra.euclidian;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.euclidian.Drawable;
+import org.geogebra.common.euclidian.DrawableList;
+import org.geogebra.common.euclidian.DrawableList.DrawableIterator;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DrawableListTest {
+
+	private static ArrayList<Drawable> createDrawables(AppDNoGui app) {
+		ArrayList<Drawable> drawables = new ArrayList<>();
+		String[] types = new String[] { "(%,1)", "Segment((%,0),(%,2))",
+				"Circle((%,0),1)", "Polygon((%,0),(%,1),(0,%))" };
+		for (int i = 0; i < 200; i++) {
+			GeoElement geo = (GeoElement) app.getKernel().getAlgebraProcessor()
+					.processAlgebraCommand(
+							types[i % types.length].replace("%", i + ""),
+							false)[0];
+			geo.setLayer(i % 3);
+			drawables.add((Drawable) app.getEuclidianView1()
+					.getDrawableFor(geo));
+		}
+		return drawables;
+	}
+
+	private static void checkOrder(DrawableList list, int expectedSize) {
+		DrawableIterator it = list.getIterator();
+		Drawable last = null;
+		int count = 0;
+		while (it.hasNext()) {
+			Drawable d = it.next();
+			if (last != null) {
+				Assert.assertFalse(d.getGeoElement()
+						.drawBefore(last.getGeoElement(), false));
+			}
+			last = d;
+			count++;
+		}
+		Assert.assertEquals(expectedSize, count);
+		Assert.assertEquals(expectedSize, list.size());
+	}
+
+	@Test
+	public void listShouldKeepDrawingOrder() {
+		AppDNoGui app = AlgebraTest.createApp();
+		ArrayList<Drawable> drawables = createDrawables(app);
+		Collections.shuffle(drawables, new Random(42));
+		DrawableList list = new DrawableList();
+		for (Drawable d : drawables) {
+			list.add(d);
+		}
+		checkOrder(list, drawables.size());
+
+		for (int i = 0; i < drawables.size(); i += 2) {
+			list.remove(drawables.get(i));
+		}
+		checkOrder(list, drawables.size() / 2);
+		Assert.assertFalse(list.contains(drawables.get(0)));
+		Assert.assertTrue(list.contains(drawables.get(1)));
+
+		list.addUnique(drawables.get(1));
+		checkOrder(list, drawables.size() / 2);
+		list.clear();
+		checkOrder(list, 0);
+	}
+
+	/**
+	 * Benchmark: open a construction with 20k objects.
+	 */
+	@Test
+	public void openLargeConstruction() {
+		AppDNoGui app = AlgebraTest.createApp();
+		for (int i = 0; i < 20000; i++) {
+			app.getKernel().getAlgebraProcessor().processAlgebraCommand(
+					"P_{" + i + "}=(" + (i % 100) + "," + (i / 100) + ")",
+					false);
+		}
+		String xml = app.getXML();
+		long start = System.currentTimeMillis();
+		app.setXML(xml, true);
+		Log.debug("Opening 20000 objects took "
+				+ (System.currentTimeMillis() - start) + "ms");
+		Assert.assertNotNull(app.getKernel().lookupLabel("P_{19999}"));
+	}
+}
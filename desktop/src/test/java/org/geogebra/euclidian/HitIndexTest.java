@@ -0,0 +1,110 @@
+package org.geogebra.euclidian;
+
+import java.awt.image.BufferedImage;
+
+import org.geogebra.commands.AlgebraTest;
+import org.geogebra.common.awt.GPoint;
+import org.geogebra.common.euclidian.Drawable;
+import org.geogebra.common.euclidian.DrawableND;
+import org.geogebra.common.euclidian.EuclidianView;
+import org.geogebra.common.kernel.geos.GeoElement;
+import org.geogebra.common.kernel.geos.GeoPoint;
+import org.geogebra.common.util.debug.Log;
+import org.geogebra.desktop.awt.GGraphics2DD;
+import org.geogebra.desktop.headless.AppDNoGui;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HitIndexTest {
+
+	private static GeoElement add(AppDNoGui app, String def) {
+		return (GeoElement) app.getKernel().getAlgebraProcessor()
+				.processAlgebraCommand(def, false)[0];
+	}
+
+	/** same as repaint, headless view doesn't paint */
+	private static void updateDrawables(AppDNoGui app) {
+		EuclidianView view = app.getEuclidianView1();
+		for (GeoElement geo : app.getKernel().getConstruction()
+				.getGeoSetConstructionOrder()) {
+			DrawableND d = view.getDrawableFor(geo);
+			if (d != null && d.needsUpdate()) {
+				d.setNeedsUpdate(false);
+				d.update();
+			}
+		}
+	}
+
+	private static boolean isHit(AppDNoGui app, GeoElement geo, double x,
+			double y) {
+		EuclidianView view = app.getEuclidianView1();
+		view.setHits(new GPoint(view.toScreenCoordX(x),
+				view.toScreenCoordY(y)), 4);
+		return view.getHits().contains(geo);
+	}
+
+	private static void addGrid(AppDNoGui app) {
+		for (int i = 0; i < 30; i++) {
+			for (int j = 0; j < 20; j++) {
+				add(app, "P_{" + i + "," + j + "}=(" + (i / 3.0 - 5) + ","
+						+ (j / 3.0 - 3) + ")");
+			}
+		}
+	}
+
+	@Test
+	public void hitsShouldFollowUpdates() {
+		AppDNoGui app = AlgebraTest.createApp();
+		addGrid(app);
+		GeoPoint moving = (GeoPoint) add(app, "M=(-2.2,1.1)");
+		GeoElement segment = add(app, "s=Segment((-6.5,-4.5),(-5.5,-4.5))");
+		updateDrawables(app);
+
+		Assert.assertTrue(isHit(app, moving, -2.2, 1.1));
+		Assert.assertTrue(isHit(app, segment, -6, -4.5));
+		Assert.assertTrue(isHit(app, app.getKernel().lookupLabel("P_{3,3}"),
+				-4, -2));
+		Assert.assertFalse(isHit(app, moving, 4, 3.5));
+
+		moving.setCoords(4, 3.5, 1);
+		moving.updateRepaint();
+		updateDrawables(app);
+		Assert.assertTrue(isHit(app, moving, 4, 3.5));
+		Assert.assertFalse(isHit(app, moving, -2.2, 1.1));
+
+		moving.remove();
+		Assert.assertFalse(isHit(app, moving, 4, 3.5));
+	}
+
+	@Test
+	public void labelsShouldBeHitAfterPainting() {
+		AppDNoGui app = AlgebraTest.createApp();
+		addGrid(app);
+		GeoPoint labeled = (GeoPoint) add(app, "L=(-2.2,1.1)");
+		labeled.setLabelVisible(true);
+		labeled.setLabelOffset(200, 150);
+		labeled.updateRepaint();
+		updateDrawables(app);
+		EuclidianView view = app.getEuclidianView1();
+		// builds the index before the label is painted
+		Assert.assertTrue(isHit(app, labeled, -2.2, 1.1));
+
+		Drawable d = (Drawable) view.getDrawableFor(labeled);
+		BufferedImage image = new BufferedImage(view.getWidth(),
+				view.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		d.draw(new GGraphics2DD(image.createGraphics()));
+		GPoint label = null;
+		for (int x = 0; x < view.getWidth() && label == null; x++) {
+			for (int y = 0; y < view.getHeight() && label == null; y++) {
+				if (d.hitLabel(x, y)) {
+					label = new GPoint(x, y);
+				}
+			}
+		}
+		Assert.assertNotNull(label);
+		Log.debug("label at " + label.x + "," + label.y);
+		// label is in other cells of the index than the point
+		Assert.assertTrue(label.x - view.toScreenCoordX(-2.2) > 100);
+		Assert.assertEquals(labeled, view.getLabelHit(label, null));
+	}
+}
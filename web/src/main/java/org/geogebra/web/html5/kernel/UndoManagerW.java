@@ -2,7 +2,7 @@ package org.geogebra.web.html5.kernel;
 
 import org.geogebra.common.kernel.AppState;
 import org.geogebra.common.kernel.Construction;
-import org.geogebra.common.kernel.StringAppState;
+import org.geogebra.common.kernel.DeltaAppState;
 import org.geogebra.common.kernel.UndoCommand;
 import org.geogebra.common.kernel.UndoManager;
 import org.geogebra.common.main.App;
@@ -72,7 +72,8 @@ public class UndoManagerW extends UndoManager {
 			if (storage != null) {
 				appStateToAdd = new StorageAppState(storage, undoXMLString);
 			} else {
-				appStateToAdd = new StringAppState(undoXMLString);
+				appStateToAdd = DeltaAppState.create(undoXMLString,
+						getCurrentAppStateOrNull());
 			}
 			UndoCommand command = new UndoCommand(appStateToAdd, ((AppW) app).getSlideID());
 			maybeStoreUndoCommand(command);